@@ -18,6 +18,7 @@ public class CacheConfig {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
         cacheManager.setCaches(Arrays.asList(
             new ConcurrentMapCache("news"),
+            new ConcurrentMapCache("newsBody"),
             new ConcurrentMapCache("categories"),
             new ConcurrentMapCache("latestNews"),
             new ConcurrentMapCache("trendingNews"),
@@ -1,9 +1,31 @@
 package com.example.demo.config;
 
+import com.example.demo.service.FragmentCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
-    // Web configuration will be added here
+
+    private final FragmentCacheService fragmentCacheService;
+
+    public WebConfig(FragmentCacheService fragmentCacheService) {
+        this.fragmentCacheService = fragmentCacheService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Report fragment render time saved once the view has been written
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                fragmentCacheService.recordRequest(request);
+            }
+        });
+    }
 }
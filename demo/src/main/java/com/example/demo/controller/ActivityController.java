@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ActivityStatsService;
+import com.example.demo.service.ActivityStatsService.Activity;
+import com.example.demo.stats.MinuteCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reads per category and articles ingested per source over the last minute, hour and day, with
+ * the last {@code series} per-minute counts when asked for. Served from memory; the same figures
+ * are at {@code /actuator/activity}.
+ */
+@RestController
+@RequestMapping("/api/v1/activity")
+public class ActivityController {
+
+    private final ActivityStatsService activityStatsService;
+
+    @Autowired
+    public ActivityController(ActivityStatsService activityStatsService) {
+        this.activityStatsService = activityStatsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Activity> activity(@RequestParam(defaultValue = "0") int series) {
+        Activity activity = activityStatsService.snapshot(Math.max(0, Math.min(series, MinuteCounter.MINUTES)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(activity);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ActivityStatsService;
+import com.example.demo.service.ActivityStatsService.Activity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/activity}: the last hour of reads per category and ingested articles per
+ * source, minute by minute, with 1m/1h/24h totals.
+ */
+@Component
+@Endpoint(id = "activity")
+public class ActivityEndpoint {
+
+    private final ActivityStatsService activityStatsService;
+
+    @Autowired
+    public ActivityEndpoint(ActivityStatsService activityStatsService) {
+        this.activityStatsService = activityStatsService;
+    }
+
+    @ReadOperation
+    public Activity activity() {
+        return activityStatsService.snapshot(60);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.EngagementEvent;
+import com.example.demo.service.EngagementEventService;
+import com.example.demo.service.EngagementEventService.Submission;
+import com.example.demo.util.ReaderKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Beacon for reader engagement events, posted in batches by the article page, usually through
+ * {@code navigator.sendBeacon} as the reader leaves. Accepts a JSON array of events as
+ * {@code application/json} or {@code text/plain} (what a beacon sends without a preflight) and
+ * only queues them; see {@link EngagementEventService}. Bodies over 16 KB are refused from their
+ * {@code Content-Length}, and a body without one is read no further than that. Events are
+ * attributed to the reader's {@value ReaderKeys#COOKIE} cookie, so a reader's repeated
+ * shares of an article count towards trending once a day.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    private static final int MAX_BODY_LENGTH = 16 * 1024;
+    private static final int MAX_EVENTS = 100;
+
+    private final EngagementEventService engagementEventService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public EventController(EngagementEventService engagementEventService, ObjectMapper objectMapper) {
+        this.engagementEventService = engagementEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<Submission> events(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_BODY_LENGTH) {
+            throw tooLarge();
+        }
+        // Chunked bodies carry no length, so the read itself stops one byte past the limit
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_LENGTH + 1);
+        if (body.length > MAX_BODY_LENGTH) {
+            throw tooLarge();
+        }
+        EngagementEvent[] events;
+        try {
+            events = objectMapper.readValue(body, EngagementEvent[].class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of events");
+        }
+        if (events.length > MAX_EVENTS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + MAX_EVENTS + " events");
+        }
+        // A beacon's response is never seen, so it never issues the cookie
+        String readerKey = ReaderKeys.of(request, null, false);
+        return ResponseEntity.accepted().body(engagementEventService.submit(Arrays.asList(events), readerKey));
+    }
+
+    private static ResponseStatusException tooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + MAX_BODY_LENGTH + " bytes");
+    }
+}
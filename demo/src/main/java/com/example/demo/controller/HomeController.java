@@ -2,13 +2,19 @@ package com.example.demo.controller;
 
 import com.example.demo.model.News;
 import com.example.demo.model.Category;
+import com.example.demo.search.SearchSort;
+import com.example.demo.service.ContentVersionService;
 import com.example.demo.service.NewsService;
 import com.example.demo.service.CategoryService;
+import com.example.demo.util.ReaderKeys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,11 +24,15 @@ public class HomeController {
 
     private final NewsService newsService;
     private final CategoryService categoryService;
+    private final ContentVersionService contentVersionService;
 
     @Autowired
-    public HomeController(NewsService newsService, CategoryService categoryService) {
+    public HomeController(NewsService newsService,
+                          CategoryService categoryService,
+                          ContentVersionService contentVersionService) {
         this.newsService = newsService;
         this.categoryService = categoryService;
+        this.contentVersionService = contentVersionService;
     }
 
     @GetMapping("/splash")
@@ -32,9 +42,14 @@ public class HomeController {
 
     @GetMapping("/")
     public String home(Model model,
+                     ServletWebRequest webRequest,
                      @RequestParam(value = "page", defaultValue = "0") int page,
                      @RequestParam(value = "size", defaultValue = "12") int size) {
-        
+
+        if (isNotModified(webRequest, "home", contentVersionService.homeVersion())) {
+            return null;
+        }
+
         // Set page title and active page
         model.addAttribute("pageTitle", "Latest News - Best News Platform");
         model.addAttribute("activePage", "home");
@@ -115,14 +130,20 @@ public class HomeController {
     @GetMapping("/category/{slug}")
     public String categoryNews(@PathVariable String slug,
                                Model model,
+                               ServletWebRequest webRequest,
                                @RequestParam(value = "page", defaultValue = "0") int page,
                                @RequestParam(value = "size", defaultValue = "12") int size) {
 
+        // Slug lookup is served from the categoryBySlug cache
         Category category = categoryService.getCategoryBySlug(slug);
         if (category == null) {
             return "redirect:/";
         }
 
+        if (isNotModified(webRequest, "c" + category.getId(), contentVersionService.categoryVersion(category.getId()))) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
         Page<News> categoryNews = newsService.getNewsByCategory(category, pageable);
 
@@ -130,6 +151,7 @@ public class HomeController {
 
         model.addAttribute("category", category);
         model.addAttribute("categoryNews", categoryNews);
+        model.addAttribute("popularInCategory", newsService.getTrendingNewsByCategory(category));
         model.addAttribute("categories", allCategories);
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", categoryNews.getTotalPages());
@@ -139,14 +161,22 @@ public class HomeController {
     }
 
     @GetMapping("/news/{id}")
-    public String newsDetail(@PathVariable Long id, Model model) {
+    public String newsDetail(@PathVariable Long id, Model model, ServletWebRequest webRequest) {
+        // Revalidations by browsers and the CDN are views too; counting one is in-memory only
+        if (isNotModified(webRequest, "n" + id, contentVersionService.newsVersion(id))) {
+            News cached = newsService.getNewsById(id);
+            if (cached != null && cached.getIsActive()) {
+                newsService.recordView(cached, readerKey(webRequest));
+            }
+            return null;
+        }
+
         News news = newsService.getNewsById(id);
         if (news == null || !news.getIsActive()) {
             return "redirect:/";
         }
 
-        // Increment view count
-        newsService.incrementViewCount(id);
+        newsService.recordView(news, readerKey(webRequest));
 
         // Get related news (same category, excluding current)
         List<News> relatedNews = newsService.getRelatedNews(news, 4);
@@ -155,6 +185,8 @@ public class HomeController {
         List<Category> categories = categoryService.getAllActiveCategories();
 
         model.addAttribute("news", news);
+        model.addAttribute("viewCount", newsService.getViewCount(news));
+        model.addAttribute("newsContent", newsService.getNewsContent(id));
         model.addAttribute("relatedNews", relatedNews);
         model.addAttribute("categories", categories);
         model.addAttribute("pageTitle", news.getTitle());
@@ -165,6 +197,7 @@ public class HomeController {
     @GetMapping("/search")
     public String search(@RequestParam(value = "q", defaultValue = "") String query,
                          @RequestParam(value = "category", required = false) Long categoryId,
+                         @RequestParam(value = "sort", required = false) String sort,
                          @RequestParam(value = "page", defaultValue = "0") int page,
                          @RequestParam(value = "size", defaultValue = "12") int size,
                          Model model) {
@@ -173,8 +206,15 @@ public class HomeController {
             return "redirect:/";
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
-        Page<News> searchResults = newsService.searchNews(query, categoryId, pageable);
+        SearchSort searchSort;
+        try {
+            searchSort = SearchSort.fromParam(sort);
+        } catch (IllegalArgumentException e) {
+            searchSort = SearchSort.RELEVANCE;
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        Page<News> searchResults = newsService.searchNews(query, categoryId, searchSort, pageable);
 
         List<Category> categories = categoryService.getAllActiveCategories();
 
@@ -182,6 +222,7 @@ public class HomeController {
         model.addAttribute("categories", categories);
         model.addAttribute("searchQuery", query);
         model.addAttribute("selectedCategoryId", categoryId);
+        model.addAttribute("sort", searchSort.name().toLowerCase());
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", searchResults.getTotalPages());
         model.addAttribute("pageTitle", "Search Results for: " + query);
@@ -189,4 +230,18 @@ public class HomeController {
         return "news/search";
     }
 
-}
\ No newline at end of file
+    /**
+     * Conditional GET from the content version alone: answers 304 before any service or
+     * template work. Pages are cacheable but must be revalidated on every use.
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, String page, ContentVersionService.Version version) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.noCache().cachePublic().getHeaderValue());
+        return webRequest.checkNotModified(ContentVersionService.etag(page, version), version.lastModified());
+    }
+
+    // Issues the reader cookie on a first visit; see ReaderKeys
+    private static String readerKey(ServletWebRequest webRequest) {
+        return ReaderKeys.of(webRequest.getRequest(), webRequest.getResponse(), true);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.NewsApiResponse;
+import com.example.demo.service.FederatedSearchService;
 import com.example.demo.service.NewsApiService;
 import com.example.demo.service.NewsAggregatorService;
 import com.example.demo.service.NewsService;
@@ -12,21 +13,29 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/news")
 public class NewsApiController {
     private static final Logger logger = LoggerFactory.getLogger(NewsApiController.class);
 
+    private static final int SEARCH_LIMIT = 30;
+
     private final NewsApiService newsApiService;
     private final NewsAggregatorService newsAggregatorService;
     private final NewsService newsService;
+    private final FederatedSearchService federatedSearchService;
 
     @Autowired
-    public NewsApiController(NewsApiService newsApiService, NewsAggregatorService newsAggregatorService, NewsService newsService) {
+    public NewsApiController(NewsApiService newsApiService, NewsAggregatorService newsAggregatorService, NewsService newsService,
+                             FederatedSearchService federatedSearchService) {
         this.newsApiService = newsApiService;
         this.newsAggregatorService = newsAggregatorService;
         this.newsService = newsService;
+        this.federatedSearchService = federatedSearchService;
     }
 
     @GetMapping("/live")
@@ -133,11 +142,18 @@ public class NewsApiController {
         return "news/category-news";
     }
 
+    // Local and NewsAPI results under a deadline; the request thread is released while NewsAPI answers
     @GetMapping("/search")
-    public String searchNews(Model model, @RequestParam String query) {
-        model.addAttribute("searchResults", newsApiService.searchNews(query).block());
-        model.addAttribute("searchQuery", query);
-        return "news/search-results";
+    public CompletableFuture<ModelAndView> searchNews(@RequestParam String query) {
+        if (query.isBlank()) {
+            return CompletableFuture.completedFuture(new ModelAndView("redirect:/"));
+        }
+        return federatedSearchService.search(query, SEARCH_LIMIT).thenApply(results -> {
+            ModelAndView view = new ModelAndView("news/search-results");
+            view.addObject("searchResults", results);
+            view.addObject("searchQuery", query);
+            return view;
+        });
     }
 
     @GetMapping("/refresh")
@@ -1,29 +1,351 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.Category;
+import com.example.demo.repository.FeedQuery;
+import com.example.demo.search.PublishedWithin;
+import com.example.demo.search.SearchFacets;
+import com.example.demo.search.SearchRequest;
+import com.example.demo.search.SearchSort;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.NewsService;
+import com.example.demo.stats.SlidingHeavyHitters;
+import com.example.demo.util.NewsJsonWriter;
+import com.example.demo.util.NewsJsonWriter.Field;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import com.example.demo.service.NewsService;
-import com.example.demo.model.News;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-@Controller
-@RequestMapping("/api/news")
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Versioned JSON read API.
+ *
+ * Listings are read as {@link NewsSummary} projections and written row by row onto a streaming
+ * Jackson generator while the result set is open, so memory use does not grow with the page.
+ * Pagination is keyset based: each page returns an opaque {@code nextCursor} to pass back as
+ * {@code cursor=}. Search can also narrow by facet and return facet counts after the page.
+ */
+@RestController
+@RequestMapping("/api/v1/news")
 public class NewsController {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    // Matches the default news.readers.retention-days
+    private static final int MAX_READER_DAYS = 30;
+    private static final Pattern WINDOW = Pattern.compile("(\\d{1,4})([mh])");
+
+    private final NewsService newsService;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    private NewsService newsService;
+    public NewsController(NewsService newsService, CategoryService categoryService, ObjectMapper objectMapper) {
+        this.newsService = newsService;
+        this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public void latest(@RequestParam(required = false) String cursor,
+                       @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                       @RequestParam(required = false) String fields,
+                       HttpServletResponse response) throws IOException {
+        writeList(response, fields, limit, page(FeedQuery.recent(), cursor));
+    }
+
+    @GetMapping("/category/{slug}")
+    public void category(@PathVariable String slug,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                         @RequestParam(required = false) String fields,
+                         HttpServletResponse response) throws IOException {
+        Category category = requireCategory(slug);
+        writeList(response, fields, limit, page(FeedQuery.recent().category(category.getId()), cursor));
+    }
+
+    /**
+     * Trending articles, the same list as the home page's trending section: highest decayed view
+     * and share score first, topped up with the week's most viewed. A single page; there is no cursor.
+     */
+    @GetMapping("/trending")
+    public void trending(@RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                         @RequestParam(required = false) String fields,
+                         HttpServletResponse response) throws IOException {
+        writeList(response, fields, limit, summary -> null,
+                (rows, sink) -> newsService.forEachTrending(rows, summary -> sink.accept(summary, null)),
+                generator -> { });
+    }
+
+    /**
+     * Most viewed articles over a recent window ({@code 15m}, {@code 1h}, {@code 24h}; minutes or
+     * hours up to a day), live, with their estimated views in the window under {@code views}.
+     * A single page; there is no cursor.
+     */
+    @GetMapping("/most-read")
+    public void mostRead(@RequestParam(defaultValue = "1h") String window,
+                         @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                         @RequestParam(required = false) String fields,
+                         HttpServletResponse response) throws IOException {
+        Duration duration = parseWindow(window);
+        Map<Long, Long> views = new LinkedHashMap<>();
+        writeList(response, fields, limit, summary -> null,
+                (rows, sink) -> newsService.forEachMostRead(duration, rows, (summary, count) -> {
+                    views.put(summary.getId(), count);
+                    sink.accept(summary, null);
+                }),
+                generator -> {
+                    generator.writeStringField("window", window);
+                    generator.writeObjectFieldStart("views");
+                    int written = 0;
+                    for (Map.Entry<Long, Long> entry : views.entrySet()) {
+                        if (written++ == pageSize(limit)) {
+                            break;
+                        }
+                        generator.writeNumberField(String.valueOf(entry.getKey()), entry.getValue());
+                    }
+                    generator.writeEndObject();
+                });
+    }
+
+    @GetMapping("/search")
+    public void search(@RequestParam("q") String query,
+                       @RequestParam(required = false) String category,
+                       @RequestParam(required = false) Long source,
+                       @RequestParam(required = false) String author,
+                       @RequestParam(required = false) String published,
+                       @RequestParam(defaultValue = "false") boolean facets,
+                       @RequestParam(defaultValue = "false") boolean highlight,
+                       @RequestParam(required = false) String sort,
+                       @RequestParam(required = false) String cursor,
+                       @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                       @RequestParam(required = false) String fields,
+                       HttpServletResponse response) throws IOException {
+        if (query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        SearchSort order;
+        PublishedWithin within;
+        try {
+            order = SearchSort.fromParam(sort);
+            within = PublishedWithin.fromParam(published);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Long categoryId = category != null && !category.isBlank() ? requireCategory(category).getId() : null;
+        SearchRequest request = SearchRequest.of(query.trim())
+                .sort(order)
+                .category(categoryId)
+                .source(source)
+                .author(author)
+                .publishedWithin(within)
+                .facets(facets)
+                .snippets(highlight);
+
+        // Relevance has no stable sort key, so its cursor is the offset of the next page
+        FeedCursor after = parseCursor(cursor, order == SearchSort.RELEVANCE);
+        long nextOffset = (after != null ? after.getSortValue() : 0) + pageSize(limit);
+        Function<NewsSummary, FeedCursor> cursorAfter = order == SearchSort.RELEVANCE
+                ? summary -> FeedCursor.after(nextOffset, 0)
+                : FeedQuery.recent()::cursorAfter;
+        SearchFacets[] counts = {SearchFacets.EMPTY};
+        writeList(response, fields, limit, cursorAfter,
+                (rows, sink) -> counts[0] = newsService.forEachSearchSummary(request, after, rows, sink),
+                generator -> {
+                    if (facets) {
+                        NewsJsonWriter.writeFacets(generator, withCategorySlugs(counts[0]));
+                    }
+                });
+    }
 
     @GetMapping("/{id}")
-    public String getNewsDetail(@PathVariable("id") Long id, Model model) {
-        News news = newsService.getNewsById(id);
-        if (news == null) {
-            return "error/404";
+    public void article(@PathVariable Long id,
+                        @RequestParam(required = false) String fields,
+                        HttpServletResponse response) throws IOException {
+        Set<Field> selected = parseFields(fields, true);
+        NewsSummary summary = newsService.getNewsSummary(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found"));
+        String content = selected.contains(Field.CONTENT) ? newsService.getNewsContent(id) : null;
+
+        try (JsonGenerator generator = openGenerator(response)) {
+            generator.writeStartObject();
+            generator.writeFieldName("data");
+            NewsJsonWriter.write(generator, summary, selected, content);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Estimated distinct readers of an article over the last {@code days} days (at most 30), live.
+     */
+    @GetMapping("/{id}/readers")
+    public void readers(@PathVariable Long id,
+                        @RequestParam(defaultValue = "7") int days,
+                        HttpServletResponse response) throws IOException {
+        if (newsService.getNewsSummary(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found");
+        }
+        int window = Math.max(1, Math.min(days, MAX_READER_DAYS));
+        long uniqueReaders = newsService.getUniqueReaders(id, window);
+
+        try (JsonGenerator generator = openGenerator(response)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeNumberField("days", window);
+            generator.writeNumberField("uniqueReaders", uniqueReaders);
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeList(HttpServletResponse response, String fields, int limit, FeedQuery query) throws IOException {
+        writeList(response, fields, limit, query::cursorAfter,
+                (rows, sink) -> newsService.forEachSummary(query.limit(rows), summary -> sink.accept(summary, null)),
+                generator -> { });
+    }
+
+    // Produces up to the requested number of rows, in page order, each with its snippet if any
+    private interface PageSource {
+        void fetch(int rows, BiConsumer<NewsSummary, String> sink);
+    }
+
+    // Writes any extra top-level fields once the page is out
+    private interface Trailer {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    // Streams one page of summaries, fetching a single extra row to learn whether another page exists
+    private void writeList(HttpServletResponse response, String fields, int limit,
+                           Function<NewsSummary, FeedCursor> cursorAfter, PageSource source,
+                           Trailer trailer) throws IOException {
+        Set<Field> selected = parseFields(fields, false);
+        int pageSize = pageSize(limit);
+
+        try (JsonGenerator generator = openGenerator(response)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+
+            NewsSummary[] last = new NewsSummary[1];
+            int[] count = new int[1];
+            boolean[] hasMore = new boolean[1];
+            try {
+                source.fetch(pageSize + 1, (summary, snippet) -> {
+                    if (count[0] == pageSize) {
+                        hasMore[0] = true;
+                        return;
+                    }
+                    try {
+                        NewsJsonWriter.write(generator, summary, selected, null, snippet);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    last[0] = summary;
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeNumberField("count", count[0]);
+            FeedCursor next = hasMore[0] && last[0] != null ? cursorAfter.apply(last[0]) : null;
+            generator.writeStringField("nextCursor", next != null ? next.encode() : null);
+            trailer.write(generator);
+            generator.writeEndObject();
         }
-        model.addAttribute("news", news);
-        return "news/detail";
     }
 
-    // News related endpoints will be added here
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private JsonGenerator openGenerator(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        return objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+
+    private Category requireCategory(String slug) {
+        Category category = categoryService.getCategoryBySlug(slug);
+        if (category == null || !Boolean.TRUE.equals(category.getIsActive())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found");
+        }
+        return category;
+    }
+
+    // The index knows categories by id; clients filter by slug
+    private SearchFacets withCategorySlugs(SearchFacets facets) {
+        Map<String, String> slugs = categoryService.getAllActiveCategories().stream()
+                .collect(Collectors.toMap(c -> String.valueOf(c.getId()), Category::getSlug));
+        List<SearchFacets.Count> categories = facets.categories().stream()
+                .filter(count -> slugs.containsKey(count.value()))
+                .map(count -> new SearchFacets.Count(slugs.get(count.value()), count.label(), count.count()))
+                .toList();
+        return new SearchFacets(categories, facets.sources(), facets.authors(), facets.published());
+    }
+
+    private static Set<Field> parseFields(String fields, boolean allowContent) {
+        try {
+            return NewsJsonWriter.parseFields(fields, allowContent);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static Duration parseWindow(String window) {
+        Matcher matcher = WINDOW.matcher(window.trim());
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            Duration duration = matcher.group(2).equals("m") ? Duration.ofMinutes(amount) : Duration.ofHours(amount);
+            if (amount > 0 && duration.compareTo(SlidingHeavyHitters.MAX_WINDOW) <= 0) {
+                return duration;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must be minutes or hours up to 24h, e.g. 15m");
+    }
+
+    private static FeedQuery page(FeedQuery query, String cursor) {
+        FeedCursor after = parseCursor(cursor, query.getSort() == FeedQuery.Sort.VIEWS);
+        return after != null ? query.after(after) : query;
+    }
+
+    // Decode eagerly so a bad cursor is a 400 before any output is written
+    private static FeedCursor parseCursor(String cursor, boolean numeric) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            FeedCursor decoded = FeedCursor.decode(cursor);
+            if (numeric) {
+                decoded.getSortValue();
+            } else {
+                decoded.getPublishedAt();
+            }
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
 }
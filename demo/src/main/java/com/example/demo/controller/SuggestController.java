@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.search.Suggester;
+import com.example.demo.search.Suggestion;
+import com.example.demo.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead for the header search box. Answers straight from the in-memory suggester; nothing
+ * here touches the database.
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final SearchIndexService searchIndexService;
+
+    @Autowired
+    public SuggestController(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam(defaultValue = "") String q,
+                                                       @RequestParam(defaultValue = "8") int limit) {
+        String query = q.length() > MAX_QUERY_LENGTH ? q.substring(0, MAX_QUERY_LENGTH) : q;
+        List<Suggestion> suggestions = searchIndexService.suggest(query,
+                Math.max(1, Math.min(limit, Suggester.MAX_SUGGESTIONS)));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("suggestions", suggestions.stream()
+                .map(suggestion -> new Item(suggestion.text(), suggestion.type().name().toLowerCase(Locale.ROOT)))
+                .toList());
+        // Completions for a prefix barely move between refreshes, so let browsers reuse them briefly
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(body);
+    }
+
+    private record Item(String text, String type) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+/**
+ * One reader engagement event from the page beacon: {@code dwell} (value in ms on the page),
+ * {@code scroll} (value is the deepest scroll, in percent) or {@code share} (no value).
+ */
+public record EngagementEvent(String type, Long newsId, Long value) {
+}
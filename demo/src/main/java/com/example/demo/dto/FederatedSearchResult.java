@@ -0,0 +1,100 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Merged results of a search over the local index and NewsAPI, best first, with whether the
+ * remote side made it in time.
+ */
+public class FederatedSearchResult {
+
+    public enum RemoteStatus {
+        INCLUDED,
+        LATE,
+        FAILED
+    }
+
+    private final List<Hit> hits;
+    private final RemoteStatus remoteStatus;
+
+    public FederatedSearchResult(List<Hit> hits, RemoteStatus remoteStatus) {
+        this.hits = hits;
+        this.remoteStatus = remoteStatus;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public RemoteStatus getRemoteStatus() {
+        return remoteStatus;
+    }
+
+    public boolean isRemoteIncluded() {
+        return remoteStatus == RemoteStatus.INCLUDED;
+    }
+
+    /**
+     * One article from either side. {@code url} is where it is read: the detail page for local
+     * articles, the publisher for remote ones. {@code canonicalUrl} identifies the story for dedupe.
+     */
+    public static class Hit {
+        private final Long newsId;
+        private final String title;
+        private final String description;
+        private final String url;
+        private final String canonicalUrl;
+        private final String imageUrl;
+        private final String sourceName;
+        private final LocalDateTime publishedAt;
+
+        public Hit(Long newsId, String title, String description, String url, String canonicalUrl,
+                   String imageUrl, String sourceName, LocalDateTime publishedAt) {
+            this.newsId = newsId;
+            this.title = title;
+            this.description = description;
+            this.url = url;
+            this.canonicalUrl = canonicalUrl;
+            this.imageUrl = imageUrl;
+            this.sourceName = sourceName;
+            this.publishedAt = publishedAt;
+        }
+
+        public Long getNewsId() {
+            return newsId;
+        }
+
+        public boolean isLocal() {
+            return newsId != null;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getCanonicalUrl() {
+            return canonicalUrl;
+        }
+
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        public LocalDateTime getPublishedAt() {
+            return publishedAt;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor: the sort key and id of the last row of the previous page.
+ * Encoded as opaque URL-safe base64 so clients cannot depend on its layout.
+ */
+public final class FeedCursor {
+
+    private final String sortValue;
+    private final long id;
+
+    private FeedCursor(String sortValue, long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static FeedCursor after(LocalDateTime publishedAt, long id) {
+        return new FeedCursor(publishedAt.toString(), id);
+    }
+
+    public static FeedCursor after(long sortValue, long id) {
+        return new FeedCursor(Long.toString(sortValue), id);
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static FeedCursor decode(String encoded) {
+        String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new FeedCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortValue + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return LocalDateTime.parse(sortValue);
+    }
+
+    public long getSortValue() {
+        return Long.parseLong(sortValue);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedCursor{" + sortValue + ", id=" + id + '}';
+    }
+}
@@ -19,6 +19,7 @@ public class NewsDto {
     private String author;
     private LocalDateTime publishedAt;
     private Long viewCount;
+    private Long uniqueReaders;
     private Boolean isFeatured;
     private Boolean isTrending;
     private Boolean isActive;
@@ -41,6 +42,7 @@ public class NewsDto {
         this.author = news.getAuthor();
         this.publishedAt = news.getPublishedAt();
         this.viewCount = news.getViewCount();
+        this.uniqueReaders = news.getUniqueReaders();
         this.isFeatured = news.getIsFeatured();
         this.isTrending = news.getIsTrending();
         this.isActive = news.getIsActive();
@@ -79,6 +81,9 @@ public class NewsDto {
     public Long getViewCount() { return viewCount; }
     public void setViewCount(Long viewCount) { this.viewCount = viewCount; }
 
+    public Long getUniqueReaders() { return uniqueReaders; }
+    public void setUniqueReaders(Long uniqueReaders) { this.uniqueReaders = uniqueReaders; }
+
     public Boolean getIsFeatured() { return isFeatured; }
     public void setIsFeatured(Boolean isFeatured) { this.isFeatured = isFeatured; }
 
@@ -0,0 +1,128 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only listing projection of a news article, selected directly with a JPQL constructor
+ * expression so API listings never hydrate entities or touch the article body.
+ */
+public class NewsSummary {
+    private final Long id;
+    private final String title;
+    private final String slug;
+    private final String description;
+    private final String imageUrl;
+    private final String sourceUrl;
+    private final String author;
+    private final LocalDateTime publishedAt;
+    private final Long viewCount;
+    private final Long uniqueReaders;
+    private final Integer readingTime;
+    private final Boolean isFeatured;
+    private final Boolean isTrending;
+    private final Long categoryId;
+    private final String categoryName;
+    private final String categorySlug;
+    private final String sourceName;
+
+    public NewsSummary(Long id, String title, String slug, String description, String imageUrl,
+                       String sourceUrl, String author, LocalDateTime publishedAt, Long viewCount,
+                       Long uniqueReaders, Integer readingTime, Boolean isFeatured, Boolean isTrending, Long categoryId,
+                       String categoryName, String categorySlug, String sourceName) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.sourceUrl = sourceUrl;
+        this.author = author;
+        this.publishedAt = publishedAt;
+        this.viewCount = viewCount;
+        this.uniqueReaders = uniqueReaders;
+        this.readingTime = readingTime;
+        this.isFeatured = isFeatured;
+        this.isTrending = isTrending;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.categorySlug = categorySlug;
+        this.sourceName = sourceName;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public Long getUniqueReaders() {
+        return uniqueReaders;
+    }
+
+    public Integer getReadingTime() {
+        return readingTime;
+    }
+
+    public Boolean getIsFeatured() {
+        return isFeatured;
+    }
+
+    public Boolean getIsTrending() {
+        return isTrending;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getCategorySlug() {
+        return categorySlug;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public String toString() {
+        return "NewsSummary{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", publishedAt=" + publishedAt +
+                '}';
+    }
+}
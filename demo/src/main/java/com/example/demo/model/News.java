@@ -15,7 +15,11 @@ import java.util.Objects;
         @Index(name = "idx_news_category", columnList = "category_id"),
         @Index(name = "idx_news_source", columnList = "source_id"),
         @Index(name = "idx_news_trending", columnList = "is_trending, view_count"),
-        @Index(name = "idx_news_slug", columnList = "slug", unique = true)
+        @Index(name = "idx_news_slug", columnList = "slug", unique = true),
+        @Index(name = "idx_news_active_published", columnList = "is_active, published_at"),
+        @Index(name = "idx_news_view_count", columnList = "view_count"),
+        @Index(name = "idx_news_featured", columnList = "is_featured, published_at"),
+        @Index(name = "idx_news_author", columnList = "author")
 })
 public class News {
 
@@ -32,7 +36,8 @@ public class News {
     @Column(name = "description", length = 500)
     private String description;
 
-    @Column(name = "content", columnDefinition = "TEXT")
+    // Article bodies live in news_body (see NewsBody) and are only loaded by the detail page
+    @Transient
     private String content;
 
     @Column(name = "image_url", length = 500)
@@ -50,6 +55,14 @@ public class News {
     @Column(name = "view_count", columnDefinition = "BIGINT DEFAULT 0")
     private Long viewCount = 0L;
 
+    // Estimated distinct readers over the last few days; maintained by UniqueReaderService
+    @Column(name = "unique_readers", columnDefinition = "BIGINT DEFAULT 0")
+    private Long uniqueReaders = 0L;
+
+    // Comma-separated ids of the most similar articles; maintained by RelatedNewsService only
+    @Column(name = "related_ids", insertable = false, updatable = false)
+    private String relatedIds;
+
     @Column(name = "is_featured", columnDefinition = "BOOLEAN DEFAULT FALSE")
     private Boolean isFeatured = false;
 
@@ -125,6 +138,12 @@ public class News {
     public Long getViewCount() { return viewCount; }
     public void setViewCount(Long viewCount) { this.viewCount = viewCount; }
 
+    public Long getUniqueReaders() { return uniqueReaders; }
+    public void setUniqueReaders(Long uniqueReaders) { this.uniqueReaders = uniqueReaders; }
+
+    public String getRelatedIds() { return relatedIds; }
+    public void setRelatedIds(String relatedIds) { this.relatedIds = relatedIds; }
+
     public Boolean getIsFeatured() { return isFeatured; }
     public void setIsFeatured(Boolean isFeatured) { this.isFeatured = isFeatured; }
 
@@ -0,0 +1,67 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Full article body, stored apart from the {@code news} row so that listing,
+ * trending and search-result queries only ever touch the narrow columns.
+ * Shares its primary key with the owning {@link News} row.
+ */
+@Entity
+@Table(name = "news_body")
+public class NewsBody {
+
+    @Id
+    @Column(name = "news_id")
+    private Long newsId;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public NewsBody() {}
+
+    public NewsBody(Long newsId, String content) {
+        this.newsId = newsId;
+        this.content = content;
+    }
+
+    // Getters and Setters
+    public Long getNewsId() { return newsId; }
+    public void setNewsId(Long newsId) { this.newsId = newsId; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NewsBody that = (NewsBody) o;
+        return Objects.equals(newsId, that.newsId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(newsId);
+    }
+
+    @Override
+    public String toString() {
+        return "NewsBody{" +
+                "newsId=" + newsId +
+                ", length=" + (content == null ? 0 : content.length()) +
+                '}';
+    }
+}
@@ -10,11 +10,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category>,
+        CategoryRepositoryCustom {
 
     // Basic finders
     Optional<Category> findByName(String name);
@@ -65,6 +67,17 @@ public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSp
     @Query("UPDATE Category c SET c.isFeatured = :featured WHERE c.id = :categoryId")
     void updateFeaturedStatus(@Param("categoryId") Long categoryId, @Param("featured") boolean featured);
 
+    @Query("SELECT c.id FROM Category c WHERE c.isFeatured = true")
+    List<Long> findFeaturedIds();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Category c SET c.isFeatured = :featured WHERE c.id IN :ids")
+    int updateFeaturedStatusByIds(@Param("ids") Collection<Long> ids, @Param("featured") boolean featured);
+
+    @Query("SELECT c.id, c.displayOrder FROM Category c WHERE c.id IN :ids")
+    List<Object[]> findDisplayOrders(@Param("ids") Collection<Long> ids);
+
     @Modifying
     @Transactional
     @Query("UPDATE Category c SET c.displayOrder = :displayOrder WHERE c.id = :categoryId")
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import java.util.Map;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Sets the display order of every category in {@code orders} (id to order) in one statement.
+     * @return the number of rows updated
+     */
+    int updateDisplayOrders(Map<Long, Integer> orders);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class CategoryRepositoryCustomImpl implements CategoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateDisplayOrders(Map<Long, Integer> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE Category c SET c.displayOrder = CASE c.id");
+        List<Long> ids = new ArrayList<>(orders.keySet());
+        for (int i = 0; i < ids.size(); i++) {
+            jpql.append(" WHEN :id").append(i).append(" THEN :order").append(i);
+        }
+        jpql.append(" ELSE c.displayOrder END WHERE c.id IN :ids");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < ids.size(); i++) {
+            query.setParameter("id" + i, ids.get(i));
+            query.setParameter("order" + i, orders.get(ids.get(i)));
+        }
+        return query.setParameter("ids", ids).executeUpdate();
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.News;
+
+import java.time.LocalDateTime;
+
+/**
+ * Composable description of a news feed: which active articles to include, how to order them
+ * and how many to return. {@link NewsRepositoryCustom} compiles it into a single JPQL query
+ * with the limit pushed into the database.
+ *
+ * <pre>
+ * FeedQuery.recent().category(categoryId).since(LocalDateTime.now().minusHours(2)).limit(5)
+ * </pre>
+ *
+ * Instances are immutable; every method returns a modified copy, so shared base queries are safe.
+ */
+public final class FeedQuery {
+
+    public enum Sort {
+        /** Newest first; keyset-paged on (publishedAt, id). */
+        RECENCY,
+        /** Most viewed first; keyset-paged on (viewCount, id). */
+        VIEWS,
+        /** Views weighted with the featured flag, the same score the trending job uses. Offset paging only. */
+        TRENDING_SCORE
+    }
+
+    private Sort sort = Sort.RECENCY;
+    private Long categoryId;
+    private Long sourceId;
+    private String author;
+    private String keyword;
+    private LocalDateTime since;
+    private LocalDateTime until;
+    private Boolean featured;
+    private Boolean trending;
+    private Long excludeId;
+    private FeedCursor after;
+    private long offset;
+    private int limit = 20;
+
+    private FeedQuery() {
+    }
+
+    public static FeedQuery recent() {
+        return new FeedQuery();
+    }
+
+    public static FeedQuery mostViewed() {
+        return recent().sort(Sort.VIEWS);
+    }
+
+    public static FeedQuery byTrendingScore() {
+        return recent().sort(Sort.TRENDING_SCORE);
+    }
+
+    // Filters
+    public FeedQuery category(Long categoryId) {
+        FeedQuery copy = copy();
+        copy.categoryId = categoryId;
+        return copy;
+    }
+
+    public FeedQuery source(Long sourceId) {
+        FeedQuery copy = copy();
+        copy.sourceId = sourceId;
+        return copy;
+    }
+
+    public FeedQuery author(String author) {
+        FeedQuery copy = copy();
+        copy.author = author;
+        return copy;
+    }
+
+    /**
+     * Case-insensitive substring match on title, description and article body.
+     */
+    public FeedQuery keyword(String keyword) {
+        FeedQuery copy = copy();
+        copy.keyword = keyword;
+        return copy;
+    }
+
+    public FeedQuery since(LocalDateTime since) {
+        FeedQuery copy = copy();
+        copy.since = since;
+        return copy;
+    }
+
+    public FeedQuery until(LocalDateTime until) {
+        FeedQuery copy = copy();
+        copy.until = until;
+        return copy;
+    }
+
+    public FeedQuery featured(Boolean featured) {
+        FeedQuery copy = copy();
+        copy.featured = featured;
+        return copy;
+    }
+
+    public FeedQuery trending(Boolean trending) {
+        FeedQuery copy = copy();
+        copy.trending = trending;
+        return copy;
+    }
+
+    public FeedQuery excluding(Long newsId) {
+        FeedQuery copy = copy();
+        copy.excludeId = newsId;
+        return copy;
+    }
+
+    // Ordering and paging
+    public FeedQuery sort(Sort sort) {
+        FeedQuery copy = copy();
+        copy.sort = sort;
+        return copy;
+    }
+
+    /**
+     * Continues after the given cursor. Not supported for {@link Sort#TRENDING_SCORE}.
+     */
+    public FeedQuery after(FeedCursor cursor) {
+        if (cursor != null && sort == Sort.TRENDING_SCORE) {
+            throw new IllegalArgumentException("Cursor paging is not supported for " + sort);
+        }
+        FeedQuery copy = copy();
+        copy.after = cursor;
+        return copy;
+    }
+
+    public FeedQuery offset(long offset) {
+        FeedQuery copy = copy();
+        copy.offset = Math.max(0, offset);
+        return copy;
+    }
+
+    public FeedQuery limit(int limit) {
+        FeedQuery copy = copy();
+        copy.limit = Math.max(1, limit);
+        return copy;
+    }
+
+    /**
+     * Builds the cursor that continues this feed after the given row, or null if the row
+     * has no sort key (or the sort has no keyset form).
+     */
+    public FeedCursor cursorAfter(NewsSummary last) {
+        return cursorAfter(last.getId(), last.getPublishedAt(), last.getViewCount());
+    }
+
+    public FeedCursor cursorAfter(News last) {
+        return cursorAfter(last.getId(), last.getPublishedAt(), last.getViewCount());
+    }
+
+    private FeedCursor cursorAfter(Long id, LocalDateTime publishedAt, Long viewCount) {
+        return switch (sort) {
+            case RECENCY -> publishedAt != null ? FeedCursor.after(publishedAt, id) : null;
+            case VIEWS -> FeedCursor.after(viewCount != null ? viewCount : 0L, id);
+            case TRENDING_SCORE -> null;
+        };
+    }
+
+    // Accessors used by the query compiler
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public Boolean getFeatured() {
+        return featured;
+    }
+
+    public Boolean getTrending() {
+        return trending;
+    }
+
+    public Long getExcludeId() {
+        return excludeId;
+    }
+
+    public FeedCursor getAfter() {
+        return after;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private FeedQuery copy() {
+        FeedQuery copy = new FeedQuery();
+        copy.sort = sort;
+        copy.categoryId = categoryId;
+        copy.sourceId = sourceId;
+        copy.author = author;
+        copy.keyword = keyword;
+        copy.since = since;
+        copy.until = until;
+        copy.featured = featured;
+        copy.trending = trending;
+        copy.excludeId = excludeId;
+        copy.after = after;
+        copy.offset = offset;
+        copy.limit = limit;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedQuery{" +
+                "sort=" + sort +
+                ", categoryId=" + categoryId +
+                ", sourceId=" + sourceId +
+                ", author='" + author + '\'' +
+                ", keyword='" + keyword + '\'' +
+                ", since=" + since +
+                ", until=" + until +
+                ", featured=" + featured +
+                ", trending=" + trending +
+                ", excludeId=" + excludeId +
+                ", after=" + after +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                '}';
+    }
+}
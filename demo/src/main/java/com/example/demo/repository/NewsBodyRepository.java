@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.NewsBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NewsBodyRepository extends JpaRepository<NewsBody, Long> {
+
+    /**
+     * Loads only the body text for an article, without materialising the entity
+     * @param newsId The id of the owning news row
+     * @return The article body, if one has been stored
+     */
+    @Query("SELECT b.content FROM NewsBody b WHERE b.newsId = :newsId")
+    Optional<String> findContentByNewsId(@Param("newsId") Long newsId);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.News;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Feed queries compiled from a {@link FeedQuery}. Each call issues exactly one select with the
+ * query's limit applied in the database.
+ */
+public interface NewsRepositoryCustom {
+
+    /**
+     * Loads the matching articles with their category and source fetched in the same select.
+     */
+    List<News> findFeed(FeedQuery query);
+
+    /**
+     * Counts every match of the query, ignoring its cursor, offset and limit.
+     */
+    long countFeed(FeedQuery query);
+
+    /**
+     * Streams the matching articles as listing projections straight from the result set.
+     * Callers must consume the stream inside a transaction and close it.
+     */
+    Stream<NewsSummary> streamFeedSummaries(FeedQuery query);
+
+    /**
+     * Loads active articles by id, returned in the order of {@code ids}. Missing or inactive ids are skipped.
+     */
+    List<News> findAllByIdInOrder(List<Long> ids);
+
+    List<NewsSummary> findSummariesByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,182 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.News;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+class NewsRepositoryCustomImpl implements NewsRepositoryCustom {
+
+    private static final String ENTITY_SELECT = "SELECT n FROM News n JOIN FETCH n.category c LEFT JOIN FETCH n.source s";
+
+    private static final String SUMMARY_SELECT = "SELECT new com.example.demo.dto.NewsSummary(" +
+            "n.id, n.title, n.slug, n.description, n.imageUrl, n.sourceUrl, n.author, n.publishedAt, " +
+            "n.viewCount, n.uniqueReaders, n.readingTime, n.isFeatured, n.isTrending, c.id, c.name, c.slug, s.name) " +
+            "FROM News n JOIN n.category c LEFT JOIN n.source s";
+
+    private static final String COUNT_SELECT = "SELECT COUNT(n) FROM News n";
+
+    // Same weighting as the trending job has always used, on distinct readers rather than raw
+    // views; articles nobody has read since readers were tracked fall back to their view count
+    private static final String TRENDING_SCORE =
+            "((CASE WHEN n.uniqueReaders > 0 THEN n.uniqueReaders ELSE n.viewCount END) * 0.7" +
+            " + (CASE WHEN n.isFeatured = true THEN 100 ELSE 0 END) * 0.3)";
+
+    private static final int FETCH_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<News> findFeed(FeedQuery query) {
+        return page(compile(ENTITY_SELECT, query, true), News.class, query).getResultList();
+    }
+
+    @Override
+    public long countFeed(FeedQuery query) {
+        Compiled compiled = compile(COUNT_SELECT, query, false);
+        TypedQuery<Long> count = entityManager.createQuery(compiled.jpql, Long.class);
+        compiled.parameters.forEach(count::setParameter);
+        return count.getSingleResult();
+    }
+
+    @Override
+    public Stream<NewsSummary> streamFeedSummaries(FeedQuery query) {
+        return page(compile(SUMMARY_SELECT, query, true), NewsSummary.class, query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(query.getLimit(), FETCH_SIZE))
+                .getResultStream();
+    }
+
+    @Override
+    public List<News> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<News> news = entityManager.createQuery(ENTITY_SELECT + " WHERE n.isActive = true AND n.id IN :ids", News.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        return inOrder(ids, news, News::getId);
+    }
+
+    @Override
+    public List<NewsSummary> findSummariesByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<NewsSummary> summaries = entityManager.createQuery(
+                        SUMMARY_SELECT + " WHERE n.isActive = true AND n.id IN :ids", NewsSummary.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        return inOrder(ids, summaries, NewsSummary::getId);
+    }
+
+    private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> byId.put(idOf.apply(row), row));
+        List<T> ordered = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private record Compiled(String jpql, Map<String, Object> parameters) {
+    }
+
+    private <T> TypedQuery<T> page(Compiled compiled, Class<T> type, FeedQuery query) {
+        TypedQuery<T> typed = entityManager.createQuery(compiled.jpql, type)
+                .setFirstResult((int) Math.min(query.getOffset(), Integer.MAX_VALUE))
+                .setMaxResults(query.getLimit());
+        compiled.parameters.forEach(typed::setParameter);
+        return typed;
+    }
+
+    /**
+     * Translates the filters into a WHERE clause. Every predicate is a plain column comparison
+     * so the (is_active, published_at), category, source and view_count indexes stay usable.
+     */
+    private static Compiled compile(String select, FeedQuery query, boolean ordered) {
+        StringBuilder jpql = new StringBuilder(select).append(" WHERE n.isActive = true");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (query.getCategoryId() != null) {
+            jpql.append(" AND n.category.id = :categoryId");
+            parameters.put("categoryId", query.getCategoryId());
+        }
+        if (query.getSourceId() != null) {
+            jpql.append(" AND n.source.id = :sourceId");
+            parameters.put("sourceId", query.getSourceId());
+        }
+        if (query.getAuthor() != null) {
+            jpql.append(" AND n.author = :author");
+            parameters.put("author", query.getAuthor());
+        }
+        if (query.getSince() != null) {
+            jpql.append(" AND n.publishedAt >= :since");
+            parameters.put("since", query.getSince());
+        }
+        if (query.getUntil() != null) {
+            jpql.append(" AND n.publishedAt < :until");
+            parameters.put("until", query.getUntil());
+        }
+        if (query.getFeatured() != null) {
+            jpql.append(" AND n.isFeatured = :featured");
+            parameters.put("featured", query.getFeatured());
+        }
+        if (query.getTrending() != null) {
+            jpql.append(" AND n.isTrending = :trending");
+            parameters.put("trending", query.getTrending());
+        }
+        if (query.getExcludeId() != null) {
+            jpql.append(" AND n.id <> :excludeId");
+            parameters.put("excludeId", query.getExcludeId());
+        }
+        if (query.getKeyword() != null) {
+            jpql.append(" AND (LOWER(n.title) LIKE :pattern OR LOWER(n.description) LIKE :pattern OR " +
+                    "EXISTS (SELECT b FROM NewsBody b WHERE b.newsId = n.id AND LOWER(b.content) LIKE :pattern))");
+            parameters.put("pattern", "%" + query.getKeyword().toLowerCase() + "%");
+        }
+
+        if (ordered) {
+            appendKeyset(jpql, parameters, query);
+            jpql.append(switch (query.getSort()) {
+                case RECENCY -> " ORDER BY n.publishedAt DESC, n.id DESC";
+                case VIEWS -> " ORDER BY n.viewCount DESC, n.id DESC";
+                case TRENDING_SCORE -> " ORDER BY " + TRENDING_SCORE + " DESC, n.publishedAt DESC, n.id DESC";
+            });
+        }
+        return new Compiled(jpql.toString(), parameters);
+    }
+
+    private static void appendKeyset(StringBuilder jpql, Map<String, Object> parameters, FeedQuery query) {
+        FeedCursor after = query.getAfter();
+        if (after == null) {
+            return;
+        }
+        switch (query.getSort()) {
+            case RECENCY -> {
+                jpql.append(" AND (n.publishedAt < :afterKey OR (n.publishedAt = :afterKey AND n.id < :afterId))");
+                parameters.put("afterKey", after.getPublishedAt());
+            }
+            case VIEWS -> {
+                jpql.append(" AND (n.viewCount < :afterKey OR (n.viewCount = :afterKey AND n.id < :afterId))");
+                parameters.put("afterKey", after.getSortValue());
+            }
+            case TRENDING_SCORE -> throw new IllegalArgumentException("Cursor paging is not supported for TRENDING_SCORE");
+        }
+        parameters.put("afterId", after.getId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns text into index terms: splits on anything that is not a letter or digit, lowercases,
+ * drops stopwords and single characters, and folds plurals ("markets" to "market").
+ * Queries and documents go through the same analysis.
+ *
+ * Every word, including dropped ones, takes a position, so a phrase with a stopword in the
+ * middle ("bank of england") only matches with the same gap in the text.
+ */
+public final class Analyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "he",
+            "her", "his", "if", "in", "into", "is", "it", "its", "of", "on", "or", "she", "so", "than",
+            "that", "the", "their", "them", "then", "there", "these", "they", "this", "to", "was", "we",
+            "were", "what", "when", "which", "who", "will", "with", "would", "you", "your"
+    );
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private Analyzer() {
+    }
+
+    /**
+     * Receives each kept term with its word position and character range in the text.
+     */
+    public interface TokenHandler {
+        void token(String term, int position, int start, int end);
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        analyze(text, true, false, (term, position, start, end) -> tokens.add(term));
+        return tokens;
+    }
+
+    /**
+     * Same as {@link #tokens} without plural folding: the lowercased words as written, for display.
+     */
+    public static List<String> words(String text) {
+        List<String> tokens = new ArrayList<>();
+        analyze(text, false, false, (term, position, start, end) -> tokens.add(term));
+        return tokens;
+    }
+
+    /**
+     * Same terms as {@link #tokens}, with positions.
+     * @return the number of word positions used, kept or not
+     */
+    public static int analyze(String text, TokenHandler handler) {
+        return analyze(text, true, false, handler);
+    }
+
+    /**
+     * Like {@link #analyze}, but reports dropped words too, with a null term.
+     */
+    static int analyzeAll(String text, TokenHandler handler) {
+        return analyze(text, true, true, handler);
+    }
+
+    private static int analyze(String text, boolean stem, boolean all, TokenHandler handler) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int length = text.length();
+        int start = -1;
+        int position = 0;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = term(text, start, i, stem);
+                if (term != null || all) {
+                    handler.token(term, position, start, i);
+                }
+                position++;
+                start = -1;
+            }
+        }
+        return position;
+    }
+
+    public static boolean isStopword(String term) {
+        return STOPWORDS.contains(term);
+    }
+
+    // The index term for a word, or null if the word is not indexed
+    private static String term(String text, int start, int end, boolean stem) {
+        if (end - start < 2 || end - start > MAX_TERM_LENGTH) {
+            return null;
+        }
+        String term = text.substring(start, end).toLowerCase(Locale.ROOT);
+        if (STOPWORDS.contains(term)) {
+            return null;
+        }
+        return stem ? stem(term) : term;
+    }
+
+    // Plural folding only (Harman's S-stemmer); anything more aggressive hurts headline precision
+    static String stem(String term) {
+        int length = term.length();
+        if (length < 4 || term.charAt(length - 1) != 's') {
+            return term;
+        }
+        if (term.endsWith("ies") && !term.endsWith("eies") && !term.endsWith("aies")) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (term.endsWith("es") && !term.endsWith("aes") && !term.endsWith("ees") && !term.endsWith("oes")) {
+            return term.substring(0, length - 1);
+        }
+        if (!term.endsWith("us") && !term.endsWith("ss")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte array holding variable-length ints: seven bits per byte, low bits first, the
+ * high bit set on every byte but the last. Small numbers, such as the gaps between a term's
+ * positions in a doc, take a single byte.
+ */
+final class ByteList {
+
+    private byte[] bytes;
+    private int size;
+
+    ByteList() {
+        this(16);
+    }
+
+    ByteList(int capacity) {
+        this.bytes = new byte[Math.max(1, capacity)];
+    }
+
+    void writeVarInt(int value) {
+        ensureCapacity(size + 5);
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    void write(byte[] source, int from, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(source, from, bytes, size, length);
+        size += length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The backing array; only the first {@link #size()} bytes are meaningful.
+     */
+    byte[] array() {
+        return bytes;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Decodes the ints stored in {@code bytes[from, to)} as deltas, returning their running sums.
+     */
+    static int[] readDeltas(byte[] bytes, int from, int to) {
+        int[] values = new int[to - from];
+        int count = 0;
+        int value = 0;
+        int at = from;
+        while (at < to) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[at++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            values[count++] = value;
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable bitset over doc ids. Unlike {@link java.util.BitSet} it can count an intersection
+ * without materializing it, which is what facet counting does for every facet value.
+ */
+final class DocSet {
+
+    private long[] words;
+
+    DocSet() {
+        this(64);
+    }
+
+    DocSet(int capacity) {
+        words = new long[Math.max(1, (capacity + 63) >>> 6)];
+    }
+
+    private DocSet(long[] words) {
+        this.words = words;
+    }
+
+    void add(int doc) {
+        int word = doc >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << doc;
+    }
+
+    void remove(int doc) {
+        int word = doc >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << doc);
+        }
+    }
+
+    boolean contains(int doc) {
+        int word = doc >>> 6;
+        return word < words.length && (words[word] & (1L << doc)) != 0;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    int intersectionCount(DocSet other) {
+        int length = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    DocSet and(DocSet other) {
+        long[] result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new DocSet(result);
+    }
+
+    /**
+     * The first doc at or after {@code from}, or -1 if there is none.
+     */
+    int nextDoc(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * Number of 64-bit words scanned by a full pass, the unit facet counting costs are compared in.
+     */
+    int wordCount() {
+        return words.length;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One facet of the index (category, source or author). Every distinct value gets an ordinal and
+ * a {@link DocSet} of the docs carrying it; each doc also records its ordinal.
+ *
+ * Counting against a match set picks the cheaper of two equivalent strategies: intersecting the
+ * match set with every value's bitset (a pass of popcounts per value, good for few values), or
+ * walking the matches once and tallying their ordinals (good for many values, such as authors).
+ *
+ * Not thread-safe; {@link SearchIndex} guards it.
+ */
+final class FacetField<K> {
+
+    private static final int NONE = -1;
+
+    private final Map<K, Integer> ordinals = new HashMap<>();
+    private final List<K> keys = new ArrayList<>();
+    private final List<String> labels = new ArrayList<>();
+    private final List<DocSet> docs = new ArrayList<>();
+    private int[] docOrdinals = new int[0];
+
+    void add(int doc, K key, String label) {
+        if (doc >= docOrdinals.length) {
+            int from = docOrdinals.length;
+            docOrdinals = Arrays.copyOf(docOrdinals, Math.max(doc + 1, Math.max(1024, from * 2)));
+            Arrays.fill(docOrdinals, from, docOrdinals.length, NONE);
+        }
+        if (key == null) {
+            docOrdinals[doc] = NONE;
+            return;
+        }
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = keys.size();
+            ordinals.put(key, ordinal);
+            keys.add(key);
+            labels.add(label != null ? label : String.valueOf(key));
+            docs.add(new DocSet());
+        } else if (label != null) {
+            // The newest spelling wins, e.g. after a category is renamed
+            labels.set(ordinal, label);
+        }
+        docOrdinals[doc] = ordinal;
+        docs.get(ordinal).add(doc);
+    }
+
+    /**
+     * The doc's value, or null if it has none.
+     */
+    K keyOf(int doc) {
+        int ordinal = doc < docOrdinals.length ? docOrdinals[doc] : NONE;
+        return ordinal != NONE ? keys.get(ordinal) : null;
+    }
+
+    String labelOf(int doc) {
+        int ordinal = doc < docOrdinals.length ? docOrdinals[doc] : NONE;
+        return ordinal != NONE ? labels.get(ordinal) : null;
+    }
+
+    /**
+     * Docs carrying the value, or an empty set if no doc ever did.
+     */
+    DocSet docsWith(K key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal != null ? docs.get(ordinal) : new DocSet();
+    }
+
+    /**
+     * Top values by count among {@code matches}. {@code matchList} is the same docs as an array
+     * when the caller has one at hand, which makes tallying cheaper; otherwise null.
+     */
+    List<SearchFacets.Count> count(DocSet matches, int[] matchList, int matchCount, int limit) {
+        int values = keys.size();
+        if (values == 0 || matchCount == 0) {
+            return List.of();
+        }
+        long[] counts = new long[values];
+        if ((long) values * matches.wordCount() <= (long) matchCount + matches.wordCount()) {
+            for (int ordinal = 0; ordinal < values; ordinal++) {
+                counts[ordinal] = matches.intersectionCount(docs.get(ordinal));
+            }
+        } else if (matchList != null) {
+            for (int doc : matchList) {
+                tally(counts, doc);
+            }
+        } else {
+            for (int doc = matches.nextDoc(0); doc >= 0; doc = matches.nextDoc(doc + 1)) {
+                tally(counts, doc);
+            }
+        }
+        return top(counts, limit);
+    }
+
+    private void tally(long[] counts, int doc) {
+        int ordinal = doc < docOrdinals.length ? docOrdinals[doc] : NONE;
+        if (ordinal != NONE) {
+            counts[ordinal]++;
+        }
+    }
+
+    // Keeps the best few ordinals in a small sorted array; no boxing however many values there are
+    private List<SearchFacets.Count> top(long[] counts, int limit) {
+        int[] best = new int[Math.min(limit, counts.length)];
+        int size = 0;
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] == 0 || (size == best.length && !ranksAbove(ordinal, best[size - 1], counts))) {
+                continue;
+            }
+            int at = size < best.length ? size++ : size - 1;
+            while (at > 0 && ranksAbove(ordinal, best[at - 1], counts)) {
+                best[at] = best[at - 1];
+                at--;
+            }
+            best[at] = ordinal;
+        }
+        List<SearchFacets.Count> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int ordinal = best[i];
+            result.add(new SearchFacets.Count(String.valueOf(keys.get(ordinal)), labels.get(ordinal), counts[ordinal]));
+        }
+        return result;
+    }
+
+    // Higher count first, then alphabetically
+    private boolean ranksAbove(int a, int b, long[] counts) {
+        return counts[a] != counts[b]
+                ? counts[a] > counts[b]
+                : labels.get(a).compareToIgnoreCase(labels.get(b)) < 0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every distinct term in the index with a trigram index over them, for typo-tolerant lookup.
+ *
+ * A lookup first gathers terms sharing trigrams with the query term (each edit destroys at most
+ * three of them, so a term within k edits shares all but 3k), then verifies the best-overlapping
+ * candidates with a bounded edit distance that counts a transposition as one edit. Both stages are
+ * capped: trigram lists are visited rarest first until {@link #MAX_GRAM_POSTINGS} ids have been
+ * read, and at most {@link #MAX_CANDIDATES} terms are verified. A pathological term therefore
+ * costs the same bounded work as any other, at worst missing some distant matches.
+ *
+ * Not thread-safe; {@link SearchIndex} guards it.
+ */
+final class FuzzyTermIndex {
+
+    static final int MAX_GRAM_POSTINGS = 200_000;
+    static final int MAX_CANDIDATES = 256;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, GramList> grams = new HashMap<>();
+
+    record Match(String term, int edits) {
+    }
+
+    /**
+     * Edits tolerated for a term of this length: none for very short terms, where almost
+     * everything is one edit away, up to three for long ones.
+     */
+    static int maxEdits(String term) {
+        int length = term.length();
+        if (length < 4) {
+            return 0;
+        }
+        return length < 6 ? 1 : length < 8 ? 2 : 3;
+    }
+
+    void add(String term) {
+        if (ids.containsKey(term)) {
+            return;
+        }
+        int id = terms.size();
+        ids.put(term, id);
+        terms.add(term);
+        for (String gram : grams(term)) {
+            grams.computeIfAbsent(gram, g -> new GramList()).add(id);
+        }
+    }
+
+    int size() {
+        return terms.size();
+    }
+
+    /**
+     * Terms within {@code maxEdits} of {@code term}, closest first; includes the term itself if known.
+     */
+    List<Match> lookup(String term, int maxEdits) {
+        if (maxEdits == 0) {
+            return ids.containsKey(term) ? List.of(new Match(term, 0)) : List.of();
+        }
+
+        // Rarest trigrams first, so the budget goes where it discriminates most
+        Set<String> queryGrams = grams(term);
+        List<GramList> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            GramList list = grams.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] collected = new int[64];
+        int count = 0;
+        int visited = 0;
+        for (GramList list : lists) {
+            visited += list.size;
+            if (visited > MAX_GRAM_POSTINGS) {
+                break;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if (Math.abs(terms.get(id).length() - term.length()) <= maxEdits) {
+                    if (count == collected.length) {
+                        collected = Arrays.copyOf(collected, count * 2);
+                    }
+                    collected[count++] = id;
+                }
+            }
+        }
+
+        // Each id appears once per shared trigram; keep those sharing enough, best overlap first
+        Arrays.sort(collected, 0, count);
+        int minShared = Math.max(1, queryGrams.size() - 3 * maxEdits);
+        List<long[]> candidates = new ArrayList<>();
+        for (int i = 0; i < count; ) {
+            int j = i;
+            while (j < count && collected[j] == collected[i]) {
+                j++;
+            }
+            if (j - i >= minShared) {
+                candidates.add(new long[]{collected[i], j - i});
+            }
+            i = j;
+        }
+        candidates.sort((a, b) -> Long.compare(b[1], a[1]));
+
+        List<Match> matches = new ArrayList<>();
+        for (int c = 0; c < Math.min(MAX_CANDIDATES, candidates.size()); c++) {
+            String candidate = terms.get((int) candidates.get(c)[0]);
+            int edits = distance(term, candidate, maxEdits);
+            if (edits <= maxEdits) {
+                matches.add(new Match(candidate, edits));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::edits).thenComparing(Match::term));
+        return matches;
+    }
+
+    // "$bitcoin$" gives $bi, bit, itc, tco, coi, oin, in$
+    private static Set<String> grams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance, or {@code max + 1} as soon as it must exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static final class GramList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
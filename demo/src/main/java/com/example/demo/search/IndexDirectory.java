@@ -0,0 +1,189 @@
+package com.example.demo.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The files of a persistent {@link SearchIndex}: immutable segment files, a deleted-docs file
+ * and {@code commit.properties}, which names the segments making up the index. A commit is
+ * written to a temporary file and moved into place, so a crash leaves the previous commit
+ * intact; files it no longer references are removed afterwards.
+ */
+final class IndexDirectory {
+
+    static final String COMMIT_FILE = "commit.properties";
+
+    private static final String USER_PREFIX = "user.";
+
+    private final Path path;
+    private long generation;
+    private long nextFileNumber;
+    // Files referenced by the last commit read or written
+    private Set<String> committedFiles = Set.of();
+
+    IndexDirectory(Path path) throws IOException {
+        this.path = Files.createDirectories(path);
+    }
+
+    record Commit(long generation, List<String> segments, String deletes, Map<String, String> userData) {
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * The last commit, or null if nothing was ever committed here.
+     */
+    Commit readCommit() throws IOException {
+        Path file = path.resolve(COMMIT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        generation = Long.parseLong(properties.getProperty("generation"));
+        String segmentList = properties.getProperty("segments", "");
+        List<String> segments = segmentList.isEmpty() ? List.of() : List.of(segmentList.split(","));
+        Map<String, String> userData = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(USER_PREFIX)) {
+                userData.put(key.substring(USER_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        nextFileNumber = Math.max(nextFileNumber, Long.parseLong(properties.getProperty("nextFileNumber", "0")));
+        Commit commit = new Commit(generation, segments, properties.getProperty("deletes"), userData);
+        committedFiles = filesOf(commit.segments(), commit.deletes());
+        return commit;
+    }
+
+    /**
+     * Removes files no commit refers to, such as segments half-written when the process died.
+     * Only safe before anything new is written.
+     */
+    void removeUnreferencedFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "{seg_*,deletes_*,commit.properties.tmp}")) {
+            for (Path file : files) {
+                if (!committedFiles.contains(file.getFileName().toString())) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    Path newSegmentPath() {
+        return path.resolve("seg_" + nextFileNumber++ + ".idx");
+    }
+
+    BitSet readDeletes(String name) throws IOException {
+        if (name == null) {
+            return new BitSet();
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path.resolve(name)))) {
+            long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            return BitSet.valueOf(words);
+        }
+    }
+
+    /**
+     * Makes the given segments and deletions the current state of the index.
+     */
+    void writeCommit(List<Segment> segments, BitSet deleted, Map<String, String> userData) throws IOException {
+        generation++;
+        String deletes = "deletes_" + nextFileNumber++ + ".bin";
+        writeDurably(path.resolve(deletes), out -> {
+            long[] words = deleted.toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        });
+
+        List<String> names = new ArrayList<>();
+        segments.forEach(segment -> names.add(segment.path().getFileName().toString()));
+        Properties properties = new Properties();
+        properties.setProperty("generation", Long.toString(generation));
+        properties.setProperty("segments", String.join(",", names));
+        properties.setProperty("deletes", deletes);
+        properties.setProperty("nextFileNumber", Long.toString(nextFileNumber));
+        userData.forEach((key, value) -> properties.setProperty(USER_PREFIX + key, value));
+        writeDurably(path.resolve(COMMIT_FILE), out -> properties.store((OutputStream) out, null));
+
+        // Only files the previous commit owned are dropped; segments being merged are not touched
+        Set<String> live = filesOf(names, deletes);
+        for (String name : committedFiles) {
+            if (!live.contains(name)) {
+                delete(path.resolve(name));
+            }
+        }
+        committedFiles = live;
+    }
+
+    /**
+     * Removes every index file, e.g. when the database it was built from has been reset.
+     */
+    void clear() throws IOException {
+        committedFiles = Set.of();
+        removeUnreferencedFiles();
+        Files.deleteIfExists(path.resolve(COMMIT_FILE));
+        generation = 0;
+        nextFileNumber = 0;
+    }
+
+    private static Set<String> filesOf(List<String> segments, String deletes) {
+        Set<String> files = new HashSet<>(segments);
+        if (deletes != null) {
+            files.add(deletes);
+        }
+        return files;
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void writeDurably(Path target, Body body) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            body.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // A segment still mapped by a search can be unlinked on POSIX systems; elsewhere the delete
+    // fails and the file is picked up as unreferenced at the next start
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left for removeUnreferencedFiles
+        }
+    }
+}
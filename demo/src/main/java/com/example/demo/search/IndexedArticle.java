@@ -0,0 +1,24 @@
+package com.example.demo.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * The searchable view of an article, as read from the news and news_body tables. Category and
+ * source names are carried along as facet labels.
+ */
+public record IndexedArticle(long newsId,
+                             String title,
+                             String description,
+                             String content,
+                             Long categoryId,
+                             LocalDateTime publishedAt,
+                             String categoryName,
+                             Long sourceId,
+                             String sourceName,
+                             String author) {
+
+    public IndexedArticle(long newsId, String title, String description, String content, Long categoryId,
+                          LocalDateTime publishedAt) {
+        this(newsId, title, description, content, categoryId, publishedAt, null, null, null, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.search;
+
+/**
+ * Read access to one term's postings: global doc ids in ascending order, each with its packed
+ * per-field frequencies and its positions (see {@link PostingsList}). Implemented by the
+ * in-memory buffer and by memory-mapped segments.
+ */
+interface Postings {
+
+    int size();
+
+    int doc(int index);
+
+    int packedFreq(int index);
+
+    /**
+     * The term's positions in the doc at {@code index}, ascending.
+     */
+    int[] positions(int index);
+
+    /**
+     * Appends the doc's encoded positions to {@code out} as they are, for writing a new segment.
+     */
+    void copyPositions(int index, ByteList out);
+
+    default int freq(int index, int field) {
+        return PostingsList.unpack(packedFreq(index), field);
+    }
+
+    /**
+     * Returns the first index at or after {@code from} whose doc is {@code >= target}, or size()
+     * if there is none. Gallops forward, so walking a long list with increasing targets is cheap.
+     */
+    default int advance(int from, int target) {
+        int size = size();
+        int bound = 1;
+        int low = from;
+        while (low + bound < size && doc(low + bound) < target) {
+            low += bound;
+            bound <<= 1;
+        }
+        int high = Math.min(size - 1, low + bound);
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (doc(mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Doc ids containing one term, in ascending order, with per-field term frequencies packed
+ * into a single int (title: 8 bits, description: 8 bits, content: 16 bits, all saturating).
+ * This is the growable in-memory form; flushed segments store the same two int arrays.
+ *
+ * Each doc also has the term's positions, delta and varint encoded (see {@link ByteList}) into
+ * one byte array shared by the whole list. A position carries its field in the top bits (see
+ * {@link #position}), so positions in different fields are never adjacent.
+ */
+final class PostingsList implements Postings {
+
+    static final int TITLE = 0;
+    static final int DESCRIPTION = 1;
+    static final int CONTENT = 2;
+
+    private static final int[] SHIFT = {24, 16, 0};
+    private static final int[] MAX = {0xFF, 0xFF, 0xFFFF};
+
+    private static final int FIELD_SHIFT = 24;
+    private static final int OFFSET_MASK = (1 << FIELD_SHIFT) - 1;
+
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int[] positionStarts = new int[4];
+    private final ByteList positions = new ByteList();
+    private int lastPosition;
+    private int size;
+
+    /**
+     * The position of the {@code offset}-th word of a field, as stored in postings.
+     */
+    static int position(int field, int offset) {
+        return field << FIELD_SHIFT | Math.min(offset, OFFSET_MASK);
+    }
+
+    static int fieldOf(int position) {
+        return position >>> FIELD_SHIFT;
+    }
+
+    static int offsetOf(int position) {
+        return position & OFFSET_MASK;
+    }
+
+    /**
+     * Records one occurrence of the term at the given position. Documents must be added in
+     * ascending doc id order, and a document's positions in ascending order.
+     */
+    void add(int doc, int position) {
+        if (size == 0 || docs[size - 1] != doc) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                freqs = Arrays.copyOf(freqs, capacity);
+                positionStarts = Arrays.copyOf(positionStarts, capacity);
+            }
+            docs[size] = doc;
+            freqs[size] = 0;
+            positionStarts[size] = positions.size();
+            lastPosition = 0;
+            size++;
+        }
+        positions.writeVarInt(position - lastPosition);
+        lastPosition = position;
+        int field = fieldOf(position);
+        int packed = freqs[size - 1];
+        int current = (packed >>> SHIFT[field]) & MAX[field];
+        if (current < MAX[field]) {
+            freqs[size - 1] = packed + (1 << SHIFT[field]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int doc(int index) {
+        return docs[index];
+    }
+
+    @Override
+    public int packedFreq(int index) {
+        return freqs[index];
+    }
+
+    @Override
+    public int[] positions(int index) {
+        return ByteList.readDeltas(positions.array(), positionStarts[index], positionsEnd(index));
+    }
+
+    @Override
+    public void copyPositions(int index, ByteList out) {
+        out.write(positions.array(), positionStarts[index], positionsEnd(index) - positionStarts[index]);
+    }
+
+    private int positionsEnd(int index) {
+        return index + 1 < size ? positionStarts[index + 1] : positions.size();
+    }
+
+    static int unpack(int packed, int field) {
+        return (packed >>> SHIFT[field]) & MAX[field];
+    }
+}
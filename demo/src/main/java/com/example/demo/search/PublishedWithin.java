@@ -0,0 +1,52 @@
+package com.example.demo.search;
+
+import java.util.Locale;
+
+/**
+ * Publish-date facet buckets. They nest: everything from the past day is also in the past week.
+ */
+public enum PublishedWithin {
+
+    PAST_DAY("24h", "Past 24 hours", 24),
+    PAST_WEEK("7d", "Past week", 24 * 7),
+    PAST_MONTH("30d", "Past month", 24 * 30);
+
+    private final String param;
+    private final String label;
+    private final int hours;
+
+    PublishedWithin(String param, String label, int hours) {
+        this.param = param;
+        this.label = label;
+        this.hours = hours;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    /**
+     * Parses a {@code published=} value. Blank means no restriction and returns null.
+     * @throws IllegalArgumentException on an unknown value
+     */
+    public static PublishedWithin fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return null;
+        }
+        String value = param.trim().toLowerCase(Locale.ROOT);
+        for (PublishedWithin bucket : values()) {
+            if (bucket.param.equals(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unknown publish date bucket: " + param);
+    }
+}
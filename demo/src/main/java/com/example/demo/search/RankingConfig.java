@@ -0,0 +1,28 @@
+package com.example.demo.search;
+
+/**
+ * Tuning for relevance ranking.
+ *
+ * Scores are BM25F: per-field term frequencies are length-normalised, weighted by the field
+ * boost and summed before saturation with {@code k1}. The result is then multiplied by
+ * {@code (1 - recencyWeight) + recencyWeight * 2^(-age / recencyHalfLifeHours)}, so a
+ * weight of 0 disables the decay and a weight of 1 halves the score every half-life.
+ */
+public record RankingConfig(double titleBoost,
+                            double descriptionBoost,
+                            double contentBoost,
+                            double k1,
+                            double b,
+                            double recencyHalfLifeHours,
+                            double recencyWeight) {
+
+    public static final RankingConfig DEFAULT = new RankingConfig(3.0, 1.5, 1.0, 1.2, 0.75, 48, 0.3);
+
+    double boost(int field) {
+        return switch (field) {
+            case PostingsList.TITLE -> titleBoost;
+            case PostingsList.DESCRIPTION -> descriptionBoost;
+            default -> contentBoost;
+        };
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content-based nearest neighbours between articles, maintained incrementally.
+ *
+ * Each article is an L2-normalised TF-IDF vector over its {@code termsPerArticle} strongest
+ * terms, with title words counting double, and keeps the {@code neighbors} articles with the
+ * highest cosine similarity. Adding an article scores it only against the articles that share one
+ * of those terms, through an inverted index, and offers it to each of their neighbour lists; the
+ * rest of the corpus is not touched. Removing an article refills just the lists that held it.
+ *
+ * Term weights use the document frequencies at the time an article is added, so the weights of
+ * older articles drift a little as the corpus grows. That only reorders close neighbours.
+ * Not thread-safe; callers synchronise.
+ */
+public final class RelatedIndex {
+
+    public record Neighbor(long id, float score) {
+    }
+
+    private static final int TITLE_BOOST = 2;
+
+    private final int neighbors;
+    private final int termsPerArticle;
+    private final float minScore;
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] documentFrequency = new int[1024];
+    private final Map<Integer, Postings> postings = new HashMap<>();
+    private final Map<Long, Vector> vectors = new HashMap<>();
+    private final Map<Long, Neighbor[]> lists = new HashMap<>();
+
+    public RelatedIndex(int neighbors, int termsPerArticle, float minScore) {
+        this.neighbors = neighbors;
+        this.termsPerArticle = termsPerArticle;
+        this.minScore = minScore;
+    }
+
+    /**
+     * Adds an article, or replaces it if already present, and links it to its neighbours.
+     * @return the articles whose neighbour lists changed, this one included
+     */
+    public Set<Long> add(long id, String title, String text) {
+        // A replaced article leaves every list first, since its new text may match other articles
+        Set<Long> changed = new LinkedHashSet<>(remove(id));
+        index(id, vectorize(title, text));
+        changed.addAll(link(id));
+        return changed;
+    }
+
+    /**
+     * Adds an article without linking it, for loading a corpus whose neighbour lists are already
+     * known; call {@link #restore} once every article is loaded.
+     */
+    public void load(long id, String title, String text) {
+        if (vectors.containsKey(id)) {
+            unindex(id);
+        }
+        index(id, vectorize(title, text));
+    }
+
+    /**
+     * Sets an article's neighbour list to previously computed ids, rescored against the loaded
+     * vectors. Ids that are not loaded are dropped.
+     */
+    public void restore(long id, long[] neighborIds) {
+        Vector vector = vectors.get(id);
+        if (vector == null) {
+            return;
+        }
+        List<Neighbor> restored = new ArrayList<>(neighborIds.length);
+        for (long neighborId : neighborIds) {
+            Vector other = vectors.get(neighborId);
+            if (other != null && neighborId != id) {
+                restored.add(new Neighbor(neighborId, vector.dot(other)));
+            }
+        }
+        lists.put(id, top(restored));
+    }
+
+    /**
+     * Links a loaded article to its neighbours, as {@link #add} does.
+     * @return the articles whose neighbour lists changed
+     */
+    public Set<Long> link(long id) {
+        Vector vector = vectors.get(id);
+        if (vector == null) {
+            return Set.of();
+        }
+        Set<Long> changed = new LinkedHashSet<>();
+        List<Neighbor> scored = score(vector, id);
+        lists.put(id, top(scored));
+        changed.add(id);
+        for (Neighbor neighbor : scored) {
+            if (offer(neighbor.id(), new Neighbor(id, neighbor.score()))) {
+                changed.add(neighbor.id());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes an article and refills the neighbour lists it was on.
+     * @return the articles whose neighbour lists changed
+     */
+    public Set<Long> remove(long id) {
+        Vector vector = vectors.get(id);
+        if (vector == null) {
+            return Set.of();
+        }
+        // Every list holding this article belongs to an article sharing one of its terms
+        Set<Long> holders = new LinkedHashSet<>();
+        for (int term : vector.terms) {
+            Postings list = postings.get(term);
+            for (int i = 0; i < list.size; i++) {
+                if (list.ids[i] != id && contains(lists.get(list.ids[i]), id)) {
+                    holders.add(list.ids[i]);
+                }
+            }
+        }
+        unindex(id);
+        lists.remove(id);
+        for (long holder : holders) {
+            lists.put(holder, top(score(vectors.get(holder), holder)));
+        }
+        return holders;
+    }
+
+    public long[] neighbors(long id) {
+        Neighbor[] list = lists.get(id);
+        return list == null ? new long[0] : Arrays.stream(list).mapToLong(Neighbor::id).toArray();
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+
+    // Cosine similarity of the vector with every article sharing a term, best first
+    private List<Neighbor> score(Vector vector, long self) {
+        Map<Long, float[]> sums = new HashMap<>();
+        for (int t = 0; t < vector.terms.length; t++) {
+            Postings list = postings.get(vector.terms[t]);
+            if (list == null) {
+                continue;
+            }
+            float weight = vector.weights[t];
+            for (int i = 0; i < list.size; i++) {
+                if (list.ids[i] != self) {
+                    sums.computeIfAbsent(list.ids[i], k -> new float[1])[0] += weight * list.weights[i];
+                }
+            }
+        }
+        List<Neighbor> scored = new ArrayList<>();
+        sums.forEach((id, sum) -> {
+            if (sum[0] >= minScore) {
+                scored.add(new Neighbor(id, sum[0]));
+            }
+        });
+        scored.sort(RelatedIndex::byScore);
+        return scored;
+    }
+
+    private Neighbor[] top(List<Neighbor> scored) {
+        List<Neighbor> sorted = new ArrayList<>(scored);
+        sorted.sort(RelatedIndex::byScore);
+        return sorted.subList(0, Math.min(neighbors, sorted.size())).toArray(new Neighbor[0]);
+    }
+
+    // Puts the candidate on the article's list if it makes the cut; true if the list changed
+    private boolean offer(long id, Neighbor candidate) {
+        Neighbor[] list = lists.getOrDefault(id, new Neighbor[0]);
+        List<Neighbor> updated = new ArrayList<>(list.length + 1);
+        for (Neighbor neighbor : list) {
+            if (neighbor.id() != candidate.id()) {
+                updated.add(neighbor);
+            }
+        }
+        updated.add(candidate);
+        Neighbor[] top = top(updated);
+        if (Arrays.equals(top, list)) {
+            return false;
+        }
+        lists.put(id, top);
+        return true;
+    }
+
+    private static int byScore(Neighbor a, Neighbor b) {
+        int order = Float.compare(b.score(), a.score());
+        return order != 0 ? order : Long.compare(a.id(), b.id());
+    }
+
+    private static boolean contains(Neighbor[] list, long id) {
+        if (list != null) {
+            for (Neighbor neighbor : list) {
+                if (neighbor.id() == id) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Vector vectorize(String title, String text) {
+        Map<Integer, int[]> frequencies = new HashMap<>();
+        for (String term : Analyzer.tokens(title)) {
+            frequencies.computeIfAbsent(termId(term), k -> new int[1])[0] += TITLE_BOOST;
+        }
+        for (String term : Analyzer.tokens(text)) {
+            frequencies.computeIfAbsent(termId(term), k -> new int[1])[0]++;
+        }
+        int documents = vectors.size() + 1;
+        List<Map.Entry<Integer, Float>> weighted = new ArrayList<>(frequencies.size());
+        frequencies.forEach((term, frequency) -> {
+            double idf = Math.log(1 + (double) documents / (documentFrequency[term] + 1));
+            weighted.add(Map.entry(term, (float) ((1 + Math.log(frequency[0])) * idf)));
+        });
+        weighted.sort((a, b) -> Float.compare(b.getValue(), a.getValue()));
+
+        int length = Math.min(termsPerArticle, weighted.size());
+        Vector vector = new Vector(new int[length], new float[length], frequencies.keySet().stream()
+                .mapToInt(Integer::intValue).toArray());
+        double norm = 0;
+        for (int i = 0; i < length; i++) {
+            norm += weighted.get(i).getValue() * weighted.get(i).getValue();
+        }
+        for (int i = 0; i < length; i++) {
+            vector.terms[i] = weighted.get(i).getKey();
+            vector.weights[i] = (float) (weighted.get(i).getValue() / Math.sqrt(norm));
+        }
+        return vector;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            id = termIds.size();
+            termIds.put(term, id);
+            if (id == documentFrequency.length) {
+                documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+            }
+        }
+        return id;
+    }
+
+    private void index(long id, Vector vector) {
+        vectors.put(id, vector);
+        for (int term : vector.allTerms) {
+            documentFrequency[term]++;
+        }
+        for (int t = 0; t < vector.terms.length; t++) {
+            postings.computeIfAbsent(vector.terms[t], k -> new Postings()).add(id, vector.weights[t]);
+        }
+    }
+
+    private void unindex(long id) {
+        Vector vector = vectors.remove(id);
+        for (int term : vector.allTerms) {
+            documentFrequency[term]--;
+        }
+        for (int term : vector.terms) {
+            Postings list = postings.get(term);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // The strongest terms with their normalised weights, plus every distinct term for the frequencies
+    private record Vector(int[] terms, float[] weights, int[] allTerms) {
+
+        float dot(Vector other) {
+            float sum = 0;
+            for (int i = 0; i < terms.length; i++) {
+                for (int j = 0; j < other.terms.length; j++) {
+                    if (terms[i] == other.terms[j]) {
+                        sum += weights[i] * other.weights[j];
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static final class Postings {
+        long[] ids = new long[4];
+        float[] weights = new float[4];
+        int size;
+
+        void add(long id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size++] = weight;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+}
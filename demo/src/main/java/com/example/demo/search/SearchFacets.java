@@ -0,0 +1,22 @@
+package com.example.demo.search;
+
+import java.util.List;
+
+/**
+ * Match counts per facet value, largest first. Each facet is counted with every other selected
+ * facet applied but not its own, so the alternatives to the current selection keep their counts.
+ */
+public record SearchFacets(List<Count> categories,
+                           List<Count> sources,
+                           List<Count> authors,
+                           List<Count> published) {
+
+    public static final SearchFacets EMPTY = new SearchFacets(List.of(), List.of(), List.of(), List.of());
+
+    /**
+     * One facet value: {@code value} is what to filter on (an id, author name or date bucket
+     * parameter), {@code label} what to show.
+     */
+    public record Count(String value, String label, long count) {
+    }
+}
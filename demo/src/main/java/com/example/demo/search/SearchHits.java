@@ -0,0 +1,13 @@
+package com.example.demo.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search results: matching news ids in rank order, the total number of matches and,
+ * when requested, facet counts and highlighted snippets by news id.
+ */
+public record SearchHits(long total, List<Long> newsIds, SearchFacets facets, Map<Long, String> snippets) {
+
+    public static final SearchHits EMPTY = new SearchHits(0, List.of(), SearchFacets.EMPTY, Map.of());
+}
@@ -0,0 +1,1246 @@
+package com.example.demo.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * In-memory inverted index over article title, description and content.
+ *
+ * Results are ranked by BM25F relevance (see {@link RankingConfig}) or by recency; either way
+ * only the requested page is kept, in a bounded heap.
+ *
+ * Each indexed article gets an internal doc id in insertion order; postings are therefore
+ * appended already sorted and intersect with a simple galloping merge. Per-doc values needed
+ * for ordering (news id, publication time) live in parallel arrays. Re-indexing an article marks
+ * its previous doc deleted and appends a new one, so deleted docs linger in the postings until
+ * the index is rebuilt.
+ *
+ * Category, source, author and publish date are facets: each value keeps a {@link DocSet} of its
+ * docs. The docs matching a query's text, with their text scores, are cached as a bitset, so
+ * filtering on facets and counting them are bitset intersections that never revisit postings.
+ *
+ * Opened on a directory, the index is persistent: {@link #commit} writes the docs added since
+ * the last commit as a small immutable {@link Segment} and records the segment list, and
+ * {@link #maybeMerge} combines runs of similar-sized segments in the background. Postings and
+ * term dictionaries are read from the memory-mapped segments; per-doc values and facets are
+ * loaded onto the heap when the index is opened. Deleted docs keep their slot in merged segments
+ * so doc ids never change. Without a directory everything stays in memory.
+ *
+ * Queries that match fewer than {@link #setFuzzyMinHits fuzzyMinHits} docs are retried with their
+ * rare or unknown terms expanded to similarly spelled terms from the dictionary (see
+ * {@link FuzzyTermIndex}); closer spellings score higher, and the exact term still wins.
+ *
+ * Postings also hold each term's positions, for phrase and proximity queries (see
+ * {@link SearchQuery}) and for picking snippets. The description and content are kept
+ * compressed alongside (see {@link StoredText}), so snippets never go back to the database.
+ *
+ * Thread-safe: any number of concurrent searches, writers are serialized.
+ */
+public class SearchIndex {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final double MICROS_PER_HOUR = 3_600_000_000.0;
+
+    private static final int FACET_LIMIT = 10;
+    // Spellings a fuzzy query term may expand to
+    private static final int MAX_EXPANSIONS = 4;
+    // Words in a snippet, and how many of them come before its first hit
+    private static final int SNIPPET_WORDS = 30;
+    private static final int SNIPPET_LEAD = 5;
+    // Upper bound on docs held across cached match sets (about 12 bytes each)
+    private static final int MATCH_CACHE_DOCS = 2_000_000;
+    // How long the publish-date buckets are reused before being recomputed against the clock
+    private static final long DATE_BUCKET_TTL_MICROS = 60_000_000L;
+
+    private final RankingConfig ranking;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Postings of docs added since the last flush; older docs live in segments
+    private final Map<String, PostingsList> buffer = new HashMap<>();
+    private int bufferBase;
+    private List<Segment> segments = List.of();
+    private IndexDirectory directory;
+    private Map<String, String> commitData = Map.of();
+    private boolean changedSinceCommit;
+    private final Object mergeLock = new Object();
+    private final Map<Long, Integer> docByNewsId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    // Doc values, indexed by doc id
+    private long[] newsIds = new long[1024];
+    private long[] publishedAt = new long[1024];
+    private int[][] fieldLengths = {new int[1024], new int[1024], new int[1024]};
+    // Compressed text of buffered docs; flushed docs' text is read from their segment
+    private byte[][] storedText = new byte[1024][];
+    // Token totals over live docs, for average field lengths
+    private final long[] liveFieldLengths = new long[3];
+    private int maxDoc;
+
+    private final FuzzyTermIndex dictionary = new FuzzyTermIndex();
+    private volatile int fuzzyMinHits = 3;
+
+    private final DocSet live = new DocSet();
+    private final FacetField<Long> categories = new FacetField<>();
+    private final FacetField<Long> sources = new FacetField<>();
+    private final FacetField<String> authors = new FacetField<>();
+    private volatile DateBuckets dateBuckets;
+
+    // Keyed by the query's distinct terms, in sorted order; emptied by every write
+    private final Map<String, MatchSet> matchCache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedDocs;
+
+    public SearchIndex() {
+        this(RankingConfig.DEFAULT);
+    }
+
+    public SearchIndex(RankingConfig ranking) {
+        this.ranking = ranking;
+    }
+
+    /**
+     * Queries whose terms match fewer docs than this are retried with typo tolerance; 0 turns it off.
+     */
+    public void setFuzzyMinHits(int fuzzyMinHits) {
+        this.fuzzyMinHits = fuzzyMinHits;
+    }
+
+    /**
+     * Adds an article, replacing any previously indexed version of it.
+     */
+    public void index(IndexedArticle article) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = docByNewsId.remove(article.newsId());
+            if (previous != null) {
+                markDeleted(previous);
+            }
+            int doc = maxDoc++;
+            ensureCapacity(doc + 1);
+            newsIds[doc] = article.newsId();
+            publishedAt[doc] = timeKey(article.publishedAt());
+            live.add(doc);
+            categories.add(doc, article.categoryId(), article.categoryName());
+            sources.add(doc, article.sourceId(), article.sourceName());
+            authors.add(doc, blankToNull(article.author()), null);
+            DateBuckets buckets = dateBuckets;
+            if (buckets != null) {
+                buckets.add(doc, publishedAt[doc]);
+            }
+            addField(doc, article.title(), PostingsList.TITLE);
+            addField(doc, article.description(), PostingsList.DESCRIPTION);
+            addField(doc, article.content(), PostingsList.CONTENT);
+            storedText[doc] = StoredText.compress(article.description(), article.content());
+            for (int field = 0; field < liveFieldLengths.length; field++) {
+                liveFieldLengths[field] += fieldLengths[field][doc];
+            }
+            docByNewsId.put(article.newsId(), doc);
+            changedSinceCommit = true;
+            clearMatchCache();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an article from search results.
+     * @return true if the article was indexed
+     */
+    public boolean delete(long newsId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByNewsId.remove(newsId);
+            if (doc == null) {
+                return false;
+            }
+            markDeleted(doc);
+            changedSinceCommit = true;
+            clearMatchCache();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every article published before {@code cutoff}; articles without a publication time are kept.
+     * @return the number of articles removed
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff) {
+        long cutoffKey = timeKey(cutoff);
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int doc = live.nextDoc(0); doc >= 0; doc = live.nextDoc(doc + 1)) {
+                if (publishedAt[doc] != NO_TIME && publishedAt[doc] < cutoffKey) {
+                    docByNewsId.remove(newsIds[doc]);
+                    markDeleted(doc);
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                changedSinceCommit = true;
+                clearMatchCache();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long newsId) {
+        lock.readLock().lock();
+        try {
+            return docByNewsId.containsKey(newsId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the indexed articles in a category.
+     */
+    public List<Long> newsIdsInCategory(long categoryId) {
+        lock.readLock().lock();
+        try {
+            DocSet docs = categories.docsWith(categoryId).and(live);
+            List<Long> ids = new ArrayList<>(docs.cardinality());
+            for (int doc = docs.nextDoc(0); doc >= 0; doc = docs.nextDoc(doc + 1)) {
+                ids.add(newsIds[doc]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds articles containing every query term and satisfying its phrases and proximity
+     * operators, narrowed by the request's facet filters and ranked by its sort. Facet counts and
+     * snippets are only computed when the request asks for them.
+     */
+    public SearchHits search(SearchRequest request) {
+        SearchQuery query = SearchQuery.parse(request.getText());
+        TreeSet<String> terms = query.terms();
+        if (terms.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            MatchSet matches = matches(query);
+            int exactCount = matches != null ? matches.docList.length : 0;
+            // A misspelled phrase is left alone: the user asked for those exact words
+            if (exactCount < fuzzyMinHits && !query.isPositional()) {
+                MatchSet fuzzy = fuzzyMatches(terms);
+                if (fuzzy != null && fuzzy.docList.length > exactCount) {
+                    matches = fuzzy;
+                }
+            }
+            if (matches == null) {
+                return SearchHits.EMPTY;
+            }
+
+            DocSet[] filters = {
+                    request.getCategoryId() != null ? categories.docsWith(request.getCategoryId()) : null,
+                    request.getSourceId() != null ? sources.docsWith(request.getSourceId()) : null,
+                    request.getAuthor() != null ? authors.docsWith(request.getAuthor()) : null,
+                    request.getPublishedWithin() != null ? dateBuckets().docs(request.getPublishedWithin()) : null
+            };
+            DocSet selected = narrow(matches.docs, filters, -1);
+
+            boolean byRelevance = request.getSort() == SearchSort.RELEVANCE;
+            long now = timeKey(LocalDateTime.now());
+            long afterTime = request.getAfterPublishedAt() != null ? timeKey(request.getAfterPublishedAt()) : NO_TIME;
+            // Never larger than the number of matches, however deep the page
+            TopDocs top = new TopDocs(Math.min(request.getOffset() + request.getLimit(), matches.docList.length));
+            long total = 0;
+
+            for (int i = 0; i < matches.docList.length; i++) {
+                int doc = matches.docList[i];
+                if ((selected != matches.docs && !selected.contains(doc))
+                        || (afterTime != NO_TIME && !isOlderThan(doc, afterTime, request.getAfterNewsId()))) {
+                    continue;
+                }
+                total++;
+                if (byRelevance) {
+                    // Recency can only lower a score, so docs already below the cut skip it
+                    if (matches.scores[i] >= top.threshold()) {
+                        top.offer(doc, matches.scores[i] * recencyFactor(doc, now), newsIds[doc]);
+                    }
+                } else {
+                    top.offer(doc, publishedAt[doc], newsIds[doc]);
+                }
+            }
+
+            int[] ranked = top.drainBestFirst();
+            List<Long> ids = new ArrayList<>(Math.max(0, ranked.length - request.getOffset()));
+            for (int rank = request.getOffset(); rank < ranked.length; rank++) {
+                ids.add(newsIds[ranked[rank]]);
+            }
+            SearchFacets facets = request.isFacets() ? facets(matches, filters) : SearchFacets.EMPTY;
+            Map<Long, String> snippets = new LinkedHashMap<>();
+            if (request.isSnippets()) {
+                for (int rank = request.getOffset(); rank < ranked.length; rank++) {
+                    String snippet = snippet(ranked[rank], matches.terms);
+                    if (snippet != null) {
+                        snippets.put(newsIds[ranked[rank]], snippet);
+                    }
+                }
+            }
+            return new SearchHits(total, ids, facets, snippets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Each facet is counted over the matches narrowed by every other facet's filter
+    private SearchFacets facets(MatchSet matches, DocSet[] filters) {
+        DateBuckets buckets = dateBuckets();
+        DocSet byDate = narrow(matches.docs, filters, 3);
+        List<SearchFacets.Count> published = new ArrayList<>();
+        for (PublishedWithin bucket : PublishedWithin.values()) {
+            int count = byDate.intersectionCount(buckets.docs(bucket));
+            if (count > 0) {
+                published.add(new SearchFacets.Count(bucket.getParam(), bucket.getLabel(), count));
+            }
+        }
+        return new SearchFacets(
+                count(categories, matches, filters, 0),
+                count(sources, matches, filters, 1),
+                count(authors, matches, filters, 2),
+                published);
+    }
+
+    private static List<SearchFacets.Count> count(FacetField<?> facet, MatchSet matches, DocSet[] filters, int skip) {
+        DocSet docs = narrow(matches.docs, filters, skip);
+        return docs == matches.docs
+                ? facet.count(docs, matches.docList, matches.docList.length, FACET_LIMIT)
+                : facet.count(docs, null, docs.cardinality(), FACET_LIMIT);
+    }
+
+    private static DocSet narrow(DocSet docs, DocSet[] filters, int skip) {
+        DocSet result = docs;
+        for (int f = 0; f < filters.length; f++) {
+            if (f != skip && filters[f] != null) {
+                result = result.and(filters[f]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Live docs containing every term of the query and satisfying its positional constraints,
+     * with their text scores; null if there are none.
+     */
+    private MatchSet matches(SearchQuery query) {
+        List<Clause> clauses = new ArrayList<>(query.terms().size());
+        for (String term : query.terms()) {
+            clauses.add(new Clause(new String[]{term}, new double[]{1}));
+        }
+        PositionFilter filter = query.isPositional() ? new PositionFilter(query) : null;
+        return matches(query.key(), clauses, filter);
+    }
+
+    /**
+     * Like {@link #matches(SearchQuery)}, with each rare or unknown term replaced by its closest
+     * spellings in the dictionary; null if some term has none.
+     */
+    private MatchSet fuzzyMatches(TreeSet<String> terms) {
+        // Expansions only change with the index, which also empties the cache
+        String key = "~" + String.join(" ", terms);
+        synchronized (matchCache) {
+            MatchSet cached = matchCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<Clause> clauses = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            int docFreq = docFreq(term);
+            List<FuzzyTermIndex.Match> spellings = docFreq >= fuzzyMinHits
+                    ? List.of(new FuzzyTermIndex.Match(term, 0))
+                    : dictionary.lookup(term, FuzzyTermIndex.maxEdits(term));
+
+            // Closest spellings first; among equally close ones the more common
+            List<FuzzyTermIndex.Match> ranked = new ArrayList<>(spellings);
+            Map<String, Integer> docFreqs = new HashMap<>();
+            ranked.removeIf(match -> docFreqs.computeIfAbsent(match.term(), this::docFreq) == 0);
+            ranked.sort(Comparator.comparingInt(FuzzyTermIndex.Match::edits)
+                    .thenComparing(match -> -docFreqs.get(match.term())));
+            int count = Math.min(MAX_EXPANSIONS, ranked.size());
+            if (count == 0) {
+                return null;
+            }
+            String[] expansions = new String[count];
+            double[] boosts = new double[count];
+            for (int i = 0; i < count; i++) {
+                FuzzyTermIndex.Match match = ranked.get(i);
+                expansions[i] = match.term();
+                boosts[i] = 1 - (double) match.edits() / (term.length() + 1);
+            }
+            clauses.add(new Clause(expansions, boosts));
+        }
+        return matches(key, clauses, null);
+    }
+
+    // One query term: the spellings accepted for it, each with its score multiplier
+    private record Clause(String[] terms, double[] boosts) {
+    }
+
+    private int docFreq(String term) {
+        int docFreq = 0;
+        for (Segment segment : segments) {
+            Postings list = segment.postings(term);
+            docFreq += list != null ? list.size() : 0;
+        }
+        PostingsList buffered = buffer.get(term);
+        return docFreq + (buffered != null ? buffered.size() : 0);
+    }
+
+    /**
+     * Live docs matching every clause and accepted by the filter, if any, with their text scores;
+     * null if there are none. Segments are intersected one at a time, in doc id order. Cached
+     * until the next write.
+     */
+    private MatchSet matches(String key, List<Clause> clauses, PositionFilter filter) {
+        synchronized (matchCache) {
+            MatchSet cached = matchCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Postings per reader (each segment, then the buffer) and clause, plus each clause's overall df
+        List<Postings[]> readers = new ArrayList<>(segments.size() + 1);
+        int[] docFreqs = new int[clauses.size()];
+        for (Segment segment : segments) {
+            readers.add(lookup(clauses, segment::postings, docFreqs));
+        }
+        readers.add(lookup(clauses, buffer::get, docFreqs));
+        int maxMatches = Integer.MAX_VALUE;
+        for (int docFreq : docFreqs) {
+            maxMatches = Math.min(maxMatches, docFreq);
+        }
+        if (maxMatches == 0) {
+            return null;
+        }
+
+        Scorer scorer = new Scorer(docFreqs);
+        DocSet docs = new DocSet(maxDoc);
+        int[] docList = new int[maxMatches];
+        double[] scores = new double[maxMatches];
+        int count = 0;
+        for (Postings[] lists : readers) {
+            if (lists == null) {
+                continue;
+            }
+            // Drive the intersection from the rarest clause
+            Integer[] order = new Integer[lists.length];
+            for (int t = 0; t < order.length; t++) {
+                order[t] = t;
+            }
+            Arrays.sort(order, Comparator.comparingInt(t -> lists[t].size()));
+
+            int[] cursors = new int[lists.length];
+            Postings driver = lists[order[0]];
+            candidates:
+            for (int i = 0; i < driver.size(); i++) {
+                int doc = driver.doc(i);
+                cursors[order[0]] = i;
+                for (int o = 1; o < order.length; o++) {
+                    int t = order[o];
+                    cursors[t] = lists[t].advance(cursors[t], doc);
+                    if (cursors[t] == lists[t].size()) {
+                        break candidates;
+                    }
+                    if (lists[t].doc(cursors[t]) != doc) {
+                        continue candidates;
+                    }
+                }
+                if (deleted.get(doc) || (filter != null && !filter.accepts(lists, cursors))) {
+                    continue;
+                }
+                docs.add(doc);
+                docList[count] = doc;
+                scores[count++] = scorer.score(doc, lists, cursors);
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (Clause clause : clauses) {
+            terms.addAll(Arrays.asList(clause.terms()));
+        }
+        MatchSet matches = new MatchSet(docs, Arrays.copyOf(docList, count), Arrays.copyOf(scores, count),
+                terms.toArray(String[]::new));
+        synchronized (matchCache) {
+            if (matchCache.putIfAbsent(key, matches) == null) {
+                cachedDocs += count;
+                var eldest = matchCache.entrySet().iterator();
+                while (cachedDocs > MATCH_CACHE_DOCS && eldest.hasNext()) {
+                    cachedDocs -= eldest.next().getValue().docList.length;
+                    eldest.remove();
+                }
+            }
+        }
+        return matches;
+    }
+
+    private interface PostingsLookup {
+        Postings get(String term);
+    }
+
+    // One reader's postings for each clause, adding their sizes to docFreqs; null if a clause matches nothing
+    private static Postings[] lookup(List<Clause> clauses, PostingsLookup reader, int[] docFreqs) {
+        Postings[] lists = new Postings[clauses.size()];
+        boolean complete = true;
+        for (int c = 0; c < lists.length; c++) {
+            Clause clause = clauses.get(c);
+            if (clause.terms().length == 1) {
+                lists[c] = reader.get(clause.terms()[0]);
+            } else {
+                Postings[] spellings = new Postings[clause.terms().length];
+                for (int i = 0; i < spellings.length; i++) {
+                    spellings[i] = reader.get(clause.terms()[i]);
+                }
+                lists[c] = UnionPostings.of(spellings, clause.boosts());
+            }
+            if (lists[c] == null) {
+                complete = false;
+            } else {
+                docFreqs[c] += lists[c].size();
+            }
+        }
+        return complete ? lists : null;
+    }
+
+    private void clearMatchCache() {
+        synchronized (matchCache) {
+            matchCache.clear();
+            cachedDocs = 0;
+        }
+    }
+
+    // Docs matching a query's text, ascending, with their BM25F scores before recency and the terms that matched
+    private record MatchSet(DocSet docs, int[] docList, double[] scores, String[] terms) {
+    }
+
+    /**
+     * A query's phrases and proximity operators, checked on each candidate doc against the
+     * positions of the postings the intersection is sitting on. Clauses are the query's terms in
+     * sorted order, as built by {@link #matches(SearchQuery)}.
+     */
+    private static final class PositionFilter {
+
+        private final List<int[]> phraseClauses = new ArrayList<>();
+        private final List<int[]> phraseOffsets = new ArrayList<>();
+        private final List<int[]> nears = new ArrayList<>();
+
+        PositionFilter(SearchQuery query) {
+            List<String> clauses = new ArrayList<>(query.terms());
+            for (SearchQuery.Phrase phrase : query.phrases()) {
+                int[] indexes = new int[phrase.terms().length];
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i] = clauses.indexOf(phrase.terms()[i]);
+                }
+                phraseClauses.add(indexes);
+                phraseOffsets.add(phrase.offsets());
+            }
+            for (SearchQuery.Near near : query.nears()) {
+                nears.add(new int[]{clauses.indexOf(near.left()), clauses.indexOf(near.right()), near.distance()});
+            }
+        }
+
+        boolean accepts(Postings[] lists, int[] cursors) {
+            int[][] positions = new int[lists.length][];
+            for (int p = 0; p < phraseClauses.size(); p++) {
+                if (!containsPhrase(positions(positions, lists, cursors, phraseClauses.get(p)), phraseOffsets.get(p))) {
+                    return false;
+                }
+            }
+            for (int[] near : nears) {
+                int[][] pair = positions(positions, lists, cursors, new int[]{near[0], near[1]});
+                if (!within(pair[0], pair[1], near[2])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Decodes each clause's positions once per doc
+        private static int[][] positions(int[][] decoded, Postings[] lists, int[] cursors, int[] clauses) {
+            int[][] result = new int[clauses.length][];
+            for (int i = 0; i < clauses.length; i++) {
+                int c = clauses[i];
+                if (decoded[c] == null) {
+                    decoded[c] = lists[c].positions(cursors[c]);
+                }
+                result[i] = decoded[c];
+            }
+            return result;
+        }
+
+        private static boolean containsPhrase(int[][] positions, int[] offsets) {
+            starts:
+            for (int start : positions[0]) {
+                for (int i = 1; i < positions.length; i++) {
+                    if (Arrays.binarySearch(positions[i], start + offsets[i]) < 0) {
+                        continue starts;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        // Positions in different fields are far more than any distance apart
+        private static boolean within(int[] a, int[] b, int distance) {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (Math.abs(a[i] - b[j]) <= distance) {
+                    return true;
+                }
+                if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A passage of the doc's content around its densest cluster of hits, or of its description
+     * if only that matched; null if neither is stored. Hits come from the postings' positions,
+     * and only the chosen field is decompressed.
+     */
+    private String snippet(int doc, String[] terms) {
+        Segment segment = doc < bufferBase ? segmentOf(doc) : null;
+        int[] hits = new int[16];
+        int count = 0;
+        for (String term : terms) {
+            Postings list = segment != null ? segment.postings(term) : buffer.get(term);
+            if (list == null) {
+                continue;
+            }
+            int i = list.advance(0, doc);
+            if (i < list.size() && list.doc(i) == doc) {
+                for (int position : list.positions(i)) {
+                    if (count == hits.length) {
+                        hits = Arrays.copyOf(hits, count * 2);
+                    }
+                    hits[count++] = position;
+                }
+            }
+        }
+        byte[] stored = segment != null ? segment.storedText(doc - segment.docBase()) : storedText[doc];
+        int field = PostingsList.CONTENT;
+        String text = StoredText.field(stored, field);
+        if (text == null || text.isBlank() || !hasHit(hits, count, field) && hasHit(hits, count, PostingsList.DESCRIPTION)) {
+            field = PostingsList.DESCRIPTION;
+            text = StoredText.field(stored, field);
+        }
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+
+        int[] offsets = new int[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            if (PostingsList.fieldOf(hits[i]) == field) {
+                offsets[found++] = PostingsList.offsetOf(hits[i]);
+            }
+        }
+        offsets = Arrays.copyOf(offsets, found);
+        Arrays.sort(offsets);
+        // The window of SNIPPET_WORDS words holding the most hits
+        int bestFirst = found > 0 ? offsets[0] : 0;
+        int bestHits = 0;
+        for (int first = 0, last = 0; last < found; last++) {
+            while (offsets[last] - offsets[first] >= SNIPPET_WORDS - SNIPPET_LEAD) {
+                first++;
+            }
+            if (last - first + 1 > bestHits) {
+                bestHits = last - first + 1;
+                bestFirst = offsets[first];
+            }
+        }
+        int from = Math.max(0, bestFirst - SNIPPET_LEAD);
+        return Snippet.render(text, from, from + SNIPPET_WORDS, offsets);
+    }
+
+    private static boolean hasHit(int[] hits, int count, int field) {
+        for (int i = 0; i < count; i++) {
+            if (PostingsList.fieldOf(hits[i]) == field) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The segment holding a flushed doc
+    private Segment segmentOf(int doc) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments.get(mid).docBase() <= doc) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return segments.get(low);
+    }
+
+    /**
+     * Publish-date facet buckets as of {@code now}. Docs age out of a bucket as the clock moves,
+     * so the sets are rebuilt from the doc values once they are a minute old; docs indexed in the
+     * meantime are added as they arrive.
+     */
+    private DateBuckets dateBuckets() {
+        long now = timeKey(LocalDateTime.now());
+        DateBuckets buckets = dateBuckets;
+        if (buckets == null || now - buckets.now > DATE_BUCKET_TTL_MICROS) {
+            buckets = new DateBuckets(now);
+            for (int doc = live.nextDoc(0); doc >= 0; doc = live.nextDoc(doc + 1)) {
+                buckets.add(doc, publishedAt[doc]);
+            }
+            dateBuckets = buckets;
+        }
+        return buckets;
+    }
+
+    private static final class DateBuckets {
+
+        private final long now;
+        private final long[] cutoffs = new long[PublishedWithin.values().length];
+        private final DocSet[] docs = new DocSet[cutoffs.length];
+
+        DateBuckets(long now) {
+            this.now = now;
+            for (PublishedWithin bucket : PublishedWithin.values()) {
+                cutoffs[bucket.ordinal()] = now - (long) (bucket.getHours() * MICROS_PER_HOUR);
+                docs[bucket.ordinal()] = new DocSet();
+            }
+        }
+
+        // Called by writers under the write lock, or on a fresh instance before it is published
+        void add(int doc, long time) {
+            if (time == NO_TIME) {
+                return;
+            }
+            for (int b = 0; b < cutoffs.length; b++) {
+                if (time >= cutoffs[b]) {
+                    docs[b].add(doc);
+                }
+            }
+        }
+
+        DocSet docs(PublishedWithin bucket) {
+            return docs[bucket.ordinal()];
+        }
+    }
+
+    /**
+     * BM25F over the intersected postings. Document frequency counts deleted docs too, which
+     * only matters until their segments are merged away.
+     */
+    private final class Scorer {
+
+        private final double[] idf;
+        private final double[] averageLength = new double[3];
+
+        Scorer(int[] docFreqs) {
+            int docCount = Math.max(1, docByNewsId.size());
+            this.idf = new double[docFreqs.length];
+            for (int t = 0; t < docFreqs.length; t++) {
+                int df = Math.min(docFreqs[t], docCount);
+                idf[t] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+            for (int field = 0; field < averageLength.length; field++) {
+                averageLength[field] = Math.max(1.0, (double) liveFieldLengths[field] / docCount);
+            }
+        }
+
+        double score(int doc, Postings[] lists, int[] cursors) {
+            double score = 0;
+            for (int t = 0; t < lists.length; t++) {
+                int packed = lists[t].packedFreq(cursors[t]);
+                double tf = 0;
+                for (int field = 0; field < averageLength.length; field++) {
+                    int freq = PostingsList.unpack(packed, field);
+                    if (freq > 0) {
+                        double norm = 1 - ranking.b() + ranking.b() * fieldLengths[field][doc] / averageLength[field];
+                        tf += ranking.boost(field) * freq / norm;
+                    }
+                }
+                double boost = lists[t] instanceof UnionPostings union ? union.boost(cursors[t]) : 1;
+                score += boost * idf[t] * tf / (ranking.k1() + tf);
+            }
+            return score;
+        }
+    }
+
+    // Applied at ranking time rather than cached with the text score, since it moves with the clock
+    private double recencyFactor(int doc, long now) {
+        if (ranking.recencyWeight() <= 0 || publishedAt[doc] == NO_TIME) {
+            return 1;
+        }
+        double ageHours = Math.max(0, now - publishedAt[doc]) / MICROS_PER_HOUR;
+        double decay = Math.pow(2, -ageHours / ranking.recencyHalfLifeHours());
+        return 1 - ranking.recencyWeight() + ranking.recencyWeight() * decay;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByNewsId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distinct terms per segment plus the buffer; a term present in several segments counts once for each.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return buffer.size() + segments.stream().mapToInt(Segment::termCount).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Docs added since the last commit.
+     */
+    public int bufferedDocs() {
+        lock.readLock().lock();
+        try {
+            return maxDoc - bufferBase;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether anything was indexed or deleted since the last commit.
+     */
+    public boolean hasUncommittedChanges() {
+        lock.readLock().lock();
+        try {
+            return changedSinceCommit;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The user data stored with the last commit, e.g. how far the source table was read.
+     */
+    public Map<String, String> getCommitData() {
+        lock.readLock().lock();
+        try {
+            return commitData;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the index stored in {@code path}, creating the directory if needed. Segments are
+     * mapped and their doc values loaded; docs indexed afterwards are buffered until the next
+     * {@link #commit}.
+     */
+    public static SearchIndex open(RankingConfig ranking, Path path) throws IOException {
+        SearchIndex index = new SearchIndex(ranking);
+        IndexDirectory directory = new IndexDirectory(path);
+        IndexDirectory.Commit commit = directory.readCommit();
+        directory.removeUnreferencedFiles();
+        index.directory = directory;
+        if (commit == null) {
+            return index;
+        }
+
+        List<Segment> segments = new ArrayList<>(commit.segments().size());
+        for (String name : commit.segments()) {
+            Segment segment = Segment.open(path.resolve(name));
+            segments.add(segment);
+            index.addDocs(segment.readDocs());
+            for (int ordinal = 0; ordinal < segment.termCount(); ordinal++) {
+                index.dictionary.add(new String(segment.termBytes(ordinal), StandardCharsets.UTF_8));
+            }
+        }
+        index.segments = List.copyOf(segments);
+        index.bufferBase = index.maxDoc;
+        index.deleted.or(directory.readDeletes(commit.deletes()));
+        for (int doc = 0; doc < index.maxDoc; doc++) {
+            if (index.deleted.get(doc)) {
+                continue;
+            }
+            index.live.add(doc);
+            index.docByNewsId.put(index.newsIds[doc], doc);
+            for (int field = 0; field < index.liveFieldLengths.length; field++) {
+                index.liveFieldLengths[field] += index.fieldLengths[field][doc];
+            }
+        }
+        index.commitData = Map.copyOf(commit.userData());
+        return index;
+    }
+
+    /**
+     * The user data of the last commit in {@code path} without opening the index; empty if there is none.
+     */
+    public static Map<String, String> readCommitData(Path path) throws IOException {
+        IndexDirectory.Commit commit = new IndexDirectory(path).readCommit();
+        return commit != null ? commit.userData() : Map.of();
+    }
+
+    /**
+     * Deletes a stored index, e.g. because the data it was built from is gone.
+     */
+    public static void deleteFiles(Path path) throws IOException {
+        new IndexDirectory(path).clear();
+    }
+
+    /**
+     * Writes the docs buffered since the last commit as a new segment and durably records the
+     * segment list, deletions and {@code userData}. Does nothing for an in-memory index.
+     * @return true if a commit was written
+     */
+    public boolean commit(Map<String, String> userData) throws IOException {
+        if (directory == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (maxDoc > bufferBase) {
+                Path path = directory.newSegmentPath();
+                writeBuffer(path);
+                List<Segment> updated = new ArrayList<>(segments);
+                updated.add(Segment.open(path));
+                segments = List.copyOf(updated);
+                buffer.clear();
+                Arrays.fill(storedText, bufferBase, maxDoc, null);
+                bufferBase = maxDoc;
+                clearMatchCache();
+            }
+            directory.writeCommit(segments, deleted, userData);
+            commitData = Map.copyOf(userData);
+            changedSinceCommit = false;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeBuffer(Path path) throws IOException {
+        List<Map.Entry<byte[], PostingsList>> terms = new ArrayList<>(buffer.size());
+        buffer.forEach((term, list) -> terms.add(Map.entry(term.getBytes(StandardCharsets.UTF_8), list)));
+        terms.sort((a, b) -> Segment.compareTerms(a.getKey(), b.getKey()));
+
+        int[] docs = new int[64];
+        int[] freqs = new int[64];
+        int[] positionStarts = new int[65];
+        ByteList positions = new ByteList(1024);
+        try (SegmentWriter writer = new SegmentWriter(path)) {
+            for (Map.Entry<byte[], PostingsList> term : terms) {
+                PostingsList list = term.getValue();
+                if (list.size() > docs.length) {
+                    docs = new int[list.size()];
+                    freqs = new int[list.size()];
+                    positionStarts = new int[list.size() + 1];
+                }
+                int size = 0;
+                positions.clear();
+                for (int i = 0; i < list.size(); i++) {
+                    int doc = list.doc(i);
+                    if (!deleted.get(doc)) {
+                        docs[size] = doc - bufferBase;
+                        freqs[size] = list.packedFreq(i);
+                        positionStarts[size++] = positions.size();
+                        list.copyPositions(i, positions);
+                    }
+                }
+                positionStarts[size] = positions.size();
+                writer.addTerm(term.getKey(), docs, freqs, positionStarts, positions, size);
+            }
+            SegmentDocs docValues = docValues(bufferBase, maxDoc);
+            docValues.storedText = i -> deleted.get(bufferBase + i) ? null : storedText[bufferBase + i];
+            writer.finish(docValues);
+        }
+    }
+
+    /**
+     * Merges one run of {@code mergeFactor} adjacent segments of similar size, if there is one
+     * holding at most {@code maxMergeDocs} docs. The merged segment is written without blocking
+     * searches or indexing; only swapping it in takes the write lock.
+     * @return true if segments were merged
+     */
+    public boolean maybeMerge(int mergeFactor, int maxMergeDocs) throws IOException {
+        if (directory == null) {
+            return false;
+        }
+        synchronized (mergeLock) {
+            List<Segment> run;
+            BitSet deletedSnapshot;
+            SegmentDocs docs;
+            lock.readLock().lock();
+            try {
+                run = pickMerge(segments, mergeFactor, maxMergeDocs);
+                if (run == null) {
+                    return false;
+                }
+                Segment last = run.get(run.size() - 1);
+                deletedSnapshot = (BitSet) deleted.clone();
+                docs = docValues(run.get(0).docBase(), last.docBase() + last.docCount());
+                docs.storedText = storedTextOf(run, deletedSnapshot, docs.docBase);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Path path;
+            lock.writeLock().lock();
+            try {
+                path = directory.newSegmentPath();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            writeMerged(run, deletedSnapshot, docs, path);
+            Segment merged = Segment.open(path);
+
+            lock.writeLock().lock();
+            try {
+                List<Segment> updated = new ArrayList<>(segments);
+                int at = updated.indexOf(run.get(0));
+                updated.subList(at, at + run.size()).clear();
+                updated.add(at, merged);
+                segments = List.copyOf(updated);
+                // Docs deleted while merging are still in the current deletions
+                directory.writeCommit(segments, deleted, commitData);
+                clearMatchCache();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Log-structured merge policy: a segment's level is the log of its size in base
+     * {@code mergeFactor}, and the first run of {@code mergeFactor} adjacent segments on one level
+     * is merged. Small flushed segments therefore fold into ever larger ones while each doc is
+     * rewritten only about log(n) times.
+     */
+    static List<Segment> pickMerge(List<Segment> segments, int mergeFactor, int maxMergeDocs) {
+        for (int start = 0; start + mergeFactor <= segments.size(); start++) {
+            int level = level(segments.get(start), mergeFactor);
+            long docs = 0;
+            int end = start;
+            while (end < start + mergeFactor && level(segments.get(end), mergeFactor) == level) {
+                docs += segments.get(end++).docCount();
+            }
+            if (end == start + mergeFactor && docs <= maxMergeDocs) {
+                return List.copyOf(segments.subList(start, end));
+            }
+        }
+        return null;
+    }
+
+    private static int level(Segment segment, int mergeFactor) {
+        return (int) (Math.log(Math.max(1, segment.docCount())) / Math.log(mergeFactor));
+    }
+
+    // Stored text for the docs of a run being merged, by doc id local to the merged segment
+    private static IntFunction<byte[]> storedTextOf(List<Segment> run, BitSet deleted, int docBase) {
+        return i -> {
+            int doc = docBase + i;
+            if (deleted.get(doc)) {
+                return null;
+            }
+            for (Segment segment : run) {
+                if (doc < segment.docBase() + segment.docCount()) {
+                    return segment.storedText(doc - segment.docBase());
+                }
+            }
+            return null;
+        };
+    }
+
+    // K-way merge of the run's term dictionaries; postings of a term are appended segment by segment
+    private static void writeMerged(List<Segment> run, BitSet deleted, SegmentDocs docValues, Path path)
+            throws IOException {
+        byte[][] current = new byte[run.size()][];
+        int[] ordinals = new int[run.size()];
+        PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> {
+            int cmp = Segment.compareTerms(current[a], current[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        for (int s = 0; s < run.size(); s++) {
+            if (run.get(s).termCount() > 0) {
+                current[s] = run.get(s).termBytes(0);
+                queue.add(s);
+            }
+        }
+
+        int[] docs = new int[64];
+        int[] freqs = new int[64];
+        int[] positionStarts = new int[65];
+        ByteList positions = new ByteList(1024);
+        List<Integer> holders = new ArrayList<>(run.size());
+        try (SegmentWriter writer = new SegmentWriter(path)) {
+            while (!queue.isEmpty()) {
+                byte[] term = current[queue.peek()];
+                holders.clear();
+                while (!queue.isEmpty() && Segment.compareTerms(current[queue.peek()], term) == 0) {
+                    holders.add(queue.poll());
+                }
+                holders.sort(null);
+
+                int size = 0;
+                positions.clear();
+                for (int s : holders) {
+                    Segment segment = run.get(s);
+                    Postings list = segment.postingsAt(ordinals[s]);
+                    if (size + list.size() > docs.length) {
+                        docs = Arrays.copyOf(docs, Math.max(size + list.size(), docs.length * 2));
+                        freqs = Arrays.copyOf(freqs, docs.length);
+                        positionStarts = Arrays.copyOf(positionStarts, docs.length + 1);
+                    }
+                    for (int i = 0; i < list.size(); i++) {
+                        int doc = list.doc(i);
+                        if (!deleted.get(doc)) {
+                            docs[size] = doc - docValues.docBase;
+                            freqs[size] = list.packedFreq(i);
+                            positionStarts[size++] = positions.size();
+                            list.copyPositions(i, positions);
+                        }
+                    }
+                    if (++ordinals[s] < segment.termCount()) {
+                        current[s] = segment.termBytes(ordinals[s]);
+                        queue.add(s);
+                    }
+                }
+                positionStarts[size] = positions.size();
+                writer.addTerm(term, docs, freqs, positionStarts, positions, size);
+            }
+            writer.finish(docValues);
+        }
+    }
+
+    // Doc values of docs [from, to) as stored in a segment
+    private SegmentDocs docValues(int from, int to) {
+        SegmentDocs docs = new SegmentDocs(from, to - from);
+        for (int i = 0; i < docs.docCount; i++) {
+            int doc = from + i;
+            docs.newsIds[i] = newsIds[doc];
+            docs.publishedAt[i] = publishedAt[doc];
+            for (int field = 0; field < fieldLengths.length; field++) {
+                docs.fieldLengths[field][i] = fieldLengths[field][doc];
+            }
+            docs.categoryIds[i] = SegmentDocs.orNone(categories.keyOf(doc));
+            docs.categoryNames[i] = categories.labelOf(doc);
+            docs.sourceIds[i] = SegmentDocs.orNone(sources.keyOf(doc));
+            docs.sourceNames[i] = sources.labelOf(doc);
+            docs.authors[i] = authors.keyOf(doc);
+        }
+        return docs;
+    }
+
+    // Loads a segment's doc values into the in-memory arrays and facets; liveness is applied by the caller
+    private void addDocs(SegmentDocs docs) {
+        ensureCapacity(docs.docBase + docs.docCount);
+        for (int i = 0; i < docs.docCount; i++) {
+            int doc = docs.docBase + i;
+            newsIds[doc] = docs.newsIds[i];
+            publishedAt[doc] = docs.publishedAt[i];
+            for (int field = 0; field < fieldLengths.length; field++) {
+                fieldLengths[field][doc] = docs.fieldLengths[field][i];
+            }
+            categories.add(doc, SegmentDocs.orNull(docs.categoryIds[i]), docs.categoryNames[i]);
+            sources.add(doc, SegmentDocs.orNull(docs.sourceIds[i]), docs.sourceNames[i]);
+            authors.add(doc, docs.authors[i], null);
+        }
+        maxDoc = Math.max(maxDoc, docs.docBase + docs.docCount);
+    }
+
+    private void addField(int doc, String text, int field) {
+        int[] length = new int[1];
+        Analyzer.analyze(text, (term, position, start, end) -> {
+            buffer.computeIfAbsent(term, t -> {
+                dictionary.add(t);
+                return new PostingsList();
+            }).add(doc, PostingsList.position(field, position));
+            length[0]++;
+        });
+        fieldLengths[field][doc] = length[0];
+    }
+
+    private void markDeleted(int doc) {
+        deleted.set(doc);
+        storedText[doc] = null;
+        live.remove(doc);
+        for (int field = 0; field < liveFieldLengths.length; field++) {
+            liveFieldLengths[field] -= fieldLengths[field][doc];
+        }
+    }
+
+    private boolean isOlderThan(int doc, long time, long newsId) {
+        return publishedAt[doc] < time || (publishedAt[doc] == time && newsIds[doc] < newsId);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > newsIds.length) {
+            int size = Math.max(capacity, newsIds.length * 2);
+            newsIds = Arrays.copyOf(newsIds, size);
+            publishedAt = Arrays.copyOf(publishedAt, size);
+            for (int field = 0; field < fieldLengths.length; field++) {
+                fieldLengths[field] = Arrays.copyOf(fieldLengths[field], size);
+            }
+            storedText = Arrays.copyOf(storedText, size);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // Microsecond precision, matching what the database stores
+    static long timeKey(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+}
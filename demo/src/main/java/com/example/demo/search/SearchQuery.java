@@ -0,0 +1,113 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed search text. Plain words must all match, in any order and field. A quoted phrase
+ * ({@code "bank of england"}) must also match as written, with the same gaps where stopwords
+ * were; {@code a NEAR/k b} requires {@code a} and {@code b} within {@code k} words of each other,
+ * either way round ({@code NEAR} alone means {@code NEAR/5}). Phrase and proximity checks read
+ * the positions stored in the postings.
+ */
+final class SearchQuery {
+
+    static final int DEFAULT_NEAR_DISTANCE = 5;
+
+    private static final Pattern PARTS = Pattern.compile("\"([^\"]*)(?:\"|$)|[^\\s\"]+");
+    private static final Pattern NEAR = Pattern.compile("NEAR(?:/(\\d{1,4}))?");
+
+    /**
+     * Terms that must appear at the given distances from the first one.
+     */
+    record Phrase(String[] terms, int[] offsets) {
+    }
+
+    /**
+     * Two terms at most {@code distance} words apart, in either order.
+     */
+    record Near(String left, String right, int distance) {
+    }
+
+    private final TreeSet<String> terms = new TreeSet<>();
+    private final List<Phrase> phrases = new ArrayList<>();
+    private final List<Near> nears = new ArrayList<>();
+
+    private SearchQuery() {
+    }
+
+    static SearchQuery parse(String text) {
+        SearchQuery query = new SearchQuery();
+        if (text == null) {
+            return query;
+        }
+        String previous = null;
+        int pendingNear = -1;
+        Matcher parts = PARTS.matcher(text);
+        while (parts.find()) {
+            Matcher near = NEAR.matcher(parts.group());
+            if (parts.group(1) == null && near.matches()) {
+                pendingNear = previous == null ? -1
+                        : near.group(1) != null ? Integer.parseInt(near.group(1)) : DEFAULT_NEAR_DISTANCE;
+                continue;
+            }
+            List<String> words = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            Analyzer.analyze(parts.group(1) != null ? parts.group(1) : parts.group(), (term, position, start, end) -> {
+                words.add(term);
+                positions.add(position);
+            });
+            if (words.isEmpty()) {
+                continue;
+            }
+            query.terms.addAll(words);
+            if (parts.group(1) != null && words.size() > 1) {
+                int[] offsets = new int[words.size()];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = positions.get(i) - positions.get(0);
+                }
+                query.phrases.add(new Phrase(words.toArray(String[]::new), offsets));
+            }
+            if (pendingNear >= 0 && !previous.equals(words.get(0))) {
+                query.nears.add(new Near(previous, words.get(0), pendingNear));
+            }
+            pendingNear = -1;
+            previous = words.get(words.size() - 1);
+        }
+        return query;
+    }
+
+    TreeSet<String> terms() {
+        return terms;
+    }
+
+    List<Phrase> phrases() {
+        return phrases;
+    }
+
+    List<Near> nears() {
+        return nears;
+    }
+
+    boolean isPositional() {
+        return !phrases.isEmpty() || !nears.isEmpty();
+    }
+
+    /**
+     * Identifies the docs this query matches: its terms, then any positional constraints.
+     */
+    String key() {
+        StringBuilder key = new StringBuilder(String.join(" ", terms));
+        for (Phrase phrase : phrases) {
+            key.append(" \"").append(String.join(" ", phrase.terms())).append(Arrays.toString(phrase.offsets())).append('"');
+        }
+        for (Near near : nears) {
+            key.append(' ').append(near.left()).append(" NEAR/").append(near.distance()).append(' ').append(near.right());
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * A query against the {@link SearchIndex}: free text, optional facet filters, ordering and the
+ * page to return. Every term of the text must match (in any field); see {@link SearchQuery} for
+ * phrases and proximity. Relevance order is the default.
+ */
+public final class SearchRequest {
+
+    /** Deepest position a page may start at; deeper requests are clamped to it */
+    public static final int MAX_OFFSET = 10_000;
+    public static final int MAX_LIMIT = 100;
+
+    private final String text;
+    private SearchSort sort = SearchSort.RELEVANCE;
+    private Long categoryId;
+    private Long sourceId;
+    private String author;
+    private PublishedWithin publishedWithin;
+    private boolean facets;
+    private boolean snippets;
+    private LocalDateTime afterPublishedAt;
+    private long afterNewsId;
+    private int offset;
+    private int limit = 20;
+
+    private SearchRequest(String text) {
+        this.text = text;
+    }
+
+    public static SearchRequest of(String text) {
+        return new SearchRequest(text);
+    }
+
+    public SearchRequest sort(SearchSort sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    public SearchRequest category(Long categoryId) {
+        this.categoryId = categoryId;
+        return this;
+    }
+
+    public SearchRequest source(Long sourceId) {
+        this.sourceId = sourceId;
+        return this;
+    }
+
+    public SearchRequest author(String author) {
+        this.author = author == null || author.isBlank() ? null : author.trim();
+        return this;
+    }
+
+    public SearchRequest publishedWithin(PublishedWithin publishedWithin) {
+        this.publishedWithin = publishedWithin;
+        return this;
+    }
+
+    /**
+     * Also count matches per category, source, author and publish-date bucket.
+     */
+    public SearchRequest facets(boolean facets) {
+        this.facets = facets;
+        return this;
+    }
+
+    /**
+     * Also return, per hit, an HTML snippet of its text with the query terms marked.
+     */
+    public SearchRequest snippets(boolean snippets) {
+        this.snippets = snippets;
+        return this;
+    }
+
+    /**
+     * Keyset paging: only return hits older than the given (publishedAt, newsId) position.
+     * Meant for {@link SearchSort#RECENCY}; relevance pages by offset.
+     */
+    public SearchRequest after(LocalDateTime publishedAt, long newsId) {
+        this.afterPublishedAt = publishedAt;
+        this.afterNewsId = newsId;
+        return this;
+    }
+
+    /**
+     * Relevance paging. Taken as a long so page arithmetic and client cursors are clamped before
+     * any narrowing; the ranking heap holds offset + limit hits.
+     */
+    public SearchRequest offset(long offset) {
+        this.offset = (int) Math.max(0, Math.min(offset, MAX_OFFSET));
+        return this;
+    }
+
+    public SearchRequest limit(int limit) {
+        this.limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public SearchSort getSort() {
+        return sort;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public PublishedWithin getPublishedWithin() {
+        return publishedWithin;
+    }
+
+    public boolean isFacets() {
+        return facets;
+    }
+
+    public boolean isSnippets() {
+        return snippets;
+    }
+
+    public LocalDateTime getAfterPublishedAt() {
+        return afterPublishedAt;
+    }
+
+    public long getAfterNewsId() {
+        return afterNewsId;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchRequest{" +
+                "text='" + text + '\'' +
+                ", sort=" + sort +
+                ", categoryId=" + categoryId +
+                ", sourceId=" + sourceId +
+                ", author='" + author + '\'' +
+                ", publishedWithin=" + publishedWithin +
+                ", facets=" + facets +
+                ", snippets=" + snippets +
+                ", afterPublishedAt=" + afterPublishedAt +
+                ", afterNewsId=" + afterNewsId +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.search;
+
+import java.util.Locale;
+
+/**
+ * Result ordering for a search.
+ */
+public enum SearchSort {
+    /** BM25 score over the boosted fields, damped by article age. */
+    RELEVANCE,
+    /** Newest first. */
+    RECENCY;
+
+    /**
+     * Parses a {@code sort=} request parameter; blank means the default for free-text queries.
+     * @throws IllegalArgumentException for unknown values
+     */
+    public static SearchSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return RELEVANCE;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.demo.search;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An immutable, memory-mapped segment written by {@link SegmentWriter}. Postings and the term
+ * dictionary are read straight from the mapping, so opening a segment costs a few reads of its
+ * footer and the page cache does the rest. Doc ids it returns are global (offset by the segment's
+ * doc base).
+ *
+ * Only absolute reads are used on the shared buffer, so a segment is safe for concurrent readers.
+ */
+final class Segment {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int docBase;
+    private final int docCount;
+    private final int docValuesOffset;
+    private final int storedTextOffset;
+    private final String[] strings;
+    private final int termCount;
+    private final int postingsOffsetsAt;
+    private final int postingsSizesAt;
+    private final int termStartsAt;
+    private final int termBytesAt;
+
+    private Segment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        int footer = buffer.capacity() - SegmentWriter.FOOTER_LENGTH;
+        if (footer < 0 || buffer.getInt(footer + 44) != SegmentWriter.MAGIC) {
+            throw new IOException("Not a search segment: " + path);
+        }
+        if (buffer.getInt(footer + 40) != SegmentWriter.VERSION) {
+            throw new IOException("Unsupported segment version " + buffer.getInt(footer + 40) + ": " + path);
+        }
+        this.docValuesOffset = (int) buffer.getLong(footer);
+        this.storedTextOffset = (int) buffer.getLong(footer + 8);
+        int stringsOffset = (int) buffer.getLong(footer + 16);
+        int termsOffset = (int) buffer.getLong(footer + 24);
+        this.docBase = buffer.getInt(footer + 32);
+        this.docCount = buffer.getInt(footer + 36);
+
+        this.strings = new String[buffer.getInt(stringsOffset)];
+        int at = stringsOffset + Integer.BYTES;
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt(at);
+            strings[i] = utf8(at + Integer.BYTES, length);
+            at += Integer.BYTES + length;
+        }
+
+        this.termCount = buffer.getInt(termsOffset);
+        this.postingsOffsetsAt = termsOffset + Integer.BYTES;
+        this.postingsSizesAt = postingsOffsetsAt + termCount * Long.BYTES;
+        this.termStartsAt = postingsSizesAt + termCount * Integer.BYTES;
+        this.termBytesAt = termStartsAt + (termCount + 1) * Integer.BYTES;
+    }
+
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment larger than 2 GB: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The order terms are stored in: unsigned UTF-8 bytes, which is also code point order.
+     */
+    static int compareTerms(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int docBase() {
+        return docBase;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * The term's postings, or null if no doc in this segment contains it.
+     */
+    Postings postings(String term) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return postingsAt(mid);
+            }
+        }
+        return null;
+    }
+
+    byte[] termBytes(int ordinal) {
+        int start = buffer.getInt(termStartsAt + ordinal * Integer.BYTES);
+        int end = buffer.getInt(termStartsAt + (ordinal + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(termBytesAt + start, bytes);
+        return bytes;
+    }
+
+    Postings postingsAt(int ordinal) {
+        int offset = (int) buffer.getLong(postingsOffsetsAt + ordinal * Long.BYTES);
+        int size = buffer.getInt(postingsSizesAt + ordinal * Integer.BYTES);
+        return new MappedPostings(offset, size);
+    }
+
+    /**
+     * Copies the doc values out of the mapping, for the in-memory per-doc arrays and facets.
+     */
+    SegmentDocs readDocs() {
+        SegmentDocs docs = new SegmentDocs(docBase, docCount);
+        int at = docValuesOffset;
+        for (long[] column : new long[][]{docs.newsIds, docs.publishedAt}) {
+            for (int i = 0; i < docCount; i++, at += Long.BYTES) {
+                column[i] = buffer.getLong(at);
+            }
+        }
+        for (int[] column : docs.fieldLengths) {
+            for (int i = 0; i < docCount; i++, at += Integer.BYTES) {
+                column[i] = buffer.getInt(at);
+            }
+        }
+        for (long[] column : new long[][]{docs.categoryIds, docs.sourceIds}) {
+            for (int i = 0; i < docCount; i++, at += Long.BYTES) {
+                column[i] = buffer.getLong(at);
+            }
+        }
+        for (String[] column : new String[][]{docs.categoryNames, docs.sourceNames, docs.authors}) {
+            for (int i = 0; i < docCount; i++, at += Integer.BYTES) {
+                int id = buffer.getInt(at);
+                column[i] = id >= 0 ? strings[id] : null;
+            }
+        }
+        return docs;
+    }
+
+    /**
+     * The compressed text stored for a doc of this segment, by local doc id; empty if none.
+     */
+    byte[] storedText(int doc) {
+        int start = buffer.getInt(storedTextOffset + doc * Integer.BYTES);
+        int end = buffer.getInt(storedTextOffset + (doc + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(storedTextOffset + (docCount + 1) * Integer.BYTES + start, bytes);
+        return bytes;
+    }
+
+    private int compareTerm(int ordinal, byte[] key) {
+        int start = buffer.getInt(termStartsAt + ordinal * Integer.BYTES);
+        int end = buffer.getInt(termStartsAt + (ordinal + 1) * Integer.BYTES);
+        int length = Math.min(end - start, key.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(termBytesAt + start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(end - start, key.length);
+    }
+
+    private String utf8(int at, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return path.getFileName() + "[" + docBase + "+" + docCount + "]";
+    }
+
+    private final class MappedPostings implements Postings {
+
+        private final int docsAt;
+        private final int freqsAt;
+        private final int positionStartsAt;
+        private final int positionsAt;
+        private final int size;
+
+        MappedPostings(int offset, int size) {
+            this.docsAt = offset;
+            this.freqsAt = offset + size * Integer.BYTES;
+            this.positionStartsAt = freqsAt + size * Integer.BYTES;
+            this.positionsAt = positionStartsAt + (size + 1) * Integer.BYTES;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int doc(int index) {
+            return docBase + buffer.getInt(docsAt + index * Integer.BYTES);
+        }
+
+        @Override
+        public int packedFreq(int index) {
+            return buffer.getInt(freqsAt + index * Integer.BYTES);
+        }
+
+        @Override
+        public int[] positions(int index) {
+            byte[] bytes = positionBytes(index);
+            return ByteList.readDeltas(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void copyPositions(int index, ByteList out) {
+            byte[] bytes = positionBytes(index);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private byte[] positionBytes(int index) {
+            int start = buffer.getInt(positionStartsAt + index * Integer.BYTES);
+            int end = buffer.getInt(positionStartsAt + (index + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(positionsAt + start, bytes);
+            return bytes;
+        }
+    }
+}
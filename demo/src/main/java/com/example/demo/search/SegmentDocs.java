@@ -0,0 +1,50 @@
+package com.example.demo.search;
+
+import java.util.function.IntFunction;
+
+/**
+ * Doc values for a contiguous range of doc ids, as written to or read from a segment. Docs
+ * deleted before the segment was written keep their slot, so doc ids never shift.
+ */
+final class SegmentDocs {
+
+    static final long NONE = Long.MIN_VALUE;
+
+    final int docBase;
+    final int docCount;
+    final long[] newsIds;
+    final long[] publishedAt;
+    final int[][] fieldLengths;
+    final long[] categoryIds;
+    final String[] categoryNames;
+    final long[] sourceIds;
+    final String[] sourceNames;
+    final String[] authors;
+
+    /**
+     * Each doc's compressed text by local doc id, read lazily while writing; not filled in when
+     * reading a segment, whose stored text stays in the mapping.
+     */
+    IntFunction<byte[]> storedText;
+
+    SegmentDocs(int docBase, int docCount) {
+        this.docBase = docBase;
+        this.docCount = docCount;
+        this.newsIds = new long[docCount];
+        this.publishedAt = new long[docCount];
+        this.fieldLengths = new int[][]{new int[docCount], new int[docCount], new int[docCount]};
+        this.categoryIds = new long[docCount];
+        this.categoryNames = new String[docCount];
+        this.sourceIds = new long[docCount];
+        this.sourceNames = new String[docCount];
+        this.authors = new String[docCount];
+    }
+
+    static long orNone(Long value) {
+        return value != null ? value : NONE;
+    }
+
+    static Long orNull(long value) {
+        return value != NONE ? value : null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.search;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Writes one immutable segment file. Terms must be added in {@link Segment#compareTerms} order;
+ * the file only appears under its final name once {@link #finish} has written and synced it.
+ *
+ * <pre>
+ * postings     per term: int[size] local doc ids, int[size] packed freqs, int[size + 1] position starts,
+ *              then the positions (delta-encoded varints, see {@link ByteList})
+ * doc values   long newsId[], long publishedAt[], int fieldLength[3][], long categoryId[],
+ *              long sourceId[], int categoryName[], int sourceName[], int author[] (string ids, -1 if none)
+ * stored text  int start[docCount + 1], then per doc its compressed text (see {@link StoredText})
+ * strings      int count, then per string: int length, UTF-8 bytes
+ * terms        int count, long postingsOffset[], int postingsSize[], int termStart[count + 1], UTF-8 bytes
+ * footer       long docValuesOffset, long storedTextOffset, long stringsOffset, long termsOffset,
+ *              int docBase, int docCount, int version, int magic
+ * </pre>
+ */
+final class SegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x4E534547; // "NSEG"
+    static final int VERSION = 2;
+    static final int FOOTER_LENGTH = 4 * Long.BYTES + 4 * Integer.BYTES;
+
+    private final Path path;
+    private final Path temp;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+
+    private final List<byte[]> terms = new ArrayList<>();
+    private long[] postingsOffsets = new long[256];
+    private int[] postingsSizes = new int[256];
+    private long position;
+    private boolean finished;
+
+    SegmentWriter(Path path) throws IOException {
+        this.path = path;
+        this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+    }
+
+    /**
+     * Appends one term's postings. {@code docs} are local to the segment, ascending; doc
+     * {@code i}'s positions are {@code positions[positionStarts[i], positionStarts[i + 1])}.
+     */
+    void addTerm(byte[] term, int[] docs, int[] freqs, int[] positionStarts, ByteList positions, int size)
+            throws IOException {
+        if (size == 0) {
+            return;
+        }
+        int t = terms.size();
+        if (t == postingsOffsets.length) {
+            postingsOffsets = Arrays.copyOf(postingsOffsets, t * 2);
+            postingsSizes = Arrays.copyOf(postingsSizes, t * 2);
+        }
+        terms.add(term);
+        postingsOffsets[t] = position;
+        postingsSizes[t] = size;
+        for (int i = 0; i < size; i++) {
+            out.writeInt(docs[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(freqs[i]);
+        }
+        for (int i = 0; i <= size; i++) {
+            out.writeInt(positionStarts[i]);
+        }
+        out.write(positions.array(), 0, positionStarts[size]);
+        advance(12L * size + Integer.BYTES + positionStarts[size]);
+    }
+
+    void finish(SegmentDocs docs) throws IOException {
+        long docValuesOffset = position;
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (long value : docs.newsIds) {
+            out.writeLong(value);
+        }
+        for (long value : docs.publishedAt) {
+            out.writeLong(value);
+        }
+        for (int[] lengths : docs.fieldLengths) {
+            for (int value : lengths) {
+                out.writeInt(value);
+            }
+        }
+        for (long value : docs.categoryIds) {
+            out.writeLong(value);
+        }
+        for (long value : docs.sourceIds) {
+            out.writeLong(value);
+        }
+        for (String[] column : new String[][]{docs.categoryNames, docs.sourceNames, docs.authors}) {
+            for (String value : column) {
+                out.writeInt(value == null ? -1 : stringIds.computeIfAbsent(value, v -> {
+                    strings.add(v);
+                    return strings.size() - 1;
+                }));
+            }
+        }
+        advance(docs.docCount * (4L * Long.BYTES + 6L * Integer.BYTES));
+
+        long storedTextOffset = position;
+        byte[][] texts = new byte[docs.docCount][];
+        IntFunction<byte[]> storedText = docs.storedText != null ? docs.storedText : doc -> null;
+        int textStart = 0;
+        for (int i = 0; i < docs.docCount; i++) {
+            byte[] text = storedText.apply(i);
+            texts[i] = text != null ? text : new byte[0];
+            out.writeInt(textStart);
+            textStart += texts[i].length;
+        }
+        out.writeInt(textStart);
+        advance((docs.docCount + 1L) * Integer.BYTES);
+        for (byte[] text : texts) {
+            out.write(text);
+            advance(text.length);
+        }
+
+        long stringsOffset = position;
+        out.writeInt(strings.size());
+        advance(Integer.BYTES);
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            advance(Integer.BYTES + bytes.length);
+        }
+
+        long termsOffset = position;
+        out.writeInt(terms.size());
+        for (int t = 0; t < terms.size(); t++) {
+            out.writeLong(postingsOffsets[t]);
+        }
+        for (int t = 0; t < terms.size(); t++) {
+            out.writeInt(postingsSizes[t]);
+        }
+        int start = 0;
+        for (byte[] term : terms) {
+            out.writeInt(start);
+            start += term.length;
+        }
+        out.writeInt(start);
+        for (byte[] term : terms) {
+            out.write(term);
+        }
+        advance(Integer.BYTES + terms.size() * (long) (Long.BYTES + 2 * Integer.BYTES) + Integer.BYTES + start);
+
+        out.writeLong(docValuesOffset);
+        out.writeLong(storedTextOffset);
+        out.writeLong(stringsOffset);
+        out.writeLong(termsOffset);
+        out.writeInt(docs.docBase);
+        out.writeInt(docs.docCount);
+        out.writeInt(VERSION);
+        out.writeInt(MAGIC);
+        advance(FOOTER_LENGTH);
+
+        out.flush();
+        channel.force(true);
+        out.close();
+        finished = true;
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Segments are mapped as a single buffer, which caps them at 2 GB
+    private void advance(long bytes) throws IOException {
+        position += bytes;
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Segment " + path.getFileName() + " would exceed 2 GB");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
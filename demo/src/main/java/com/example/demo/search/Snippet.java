@@ -0,0 +1,89 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Cuts a short passage out of stored text by word position and marks the query's hits in it.
+ * The text is HTML-escaped and hits are wrapped in {@code <mark>}, so the result can be
+ * inserted into a page as is.
+ */
+final class Snippet implements Analyzer.TokenHandler {
+
+    private static final String ELLIPSIS = "…";
+
+    private final String text;
+    private final int from;
+    private final int to;
+    private final int[] hits;
+    private final StringBuilder out = new StringBuilder();
+    private int cursor = -1;
+    private boolean truncated;
+
+    private Snippet(String text, int from, int to, int[] hits) {
+        this.text = text;
+        this.from = from;
+        this.to = to;
+        this.hits = hits;
+    }
+
+    /**
+     * The words at positions {@code [from, to)} of {@code text}, with those at the sorted
+     * positions in {@code hits} marked; null if the range holds no words.
+     */
+    static String render(String text, int from, int to, int[] hits) {
+        Snippet snippet = new Snippet(text, from, to, hits);
+        Analyzer.analyzeAll(text, snippet);
+        if (snippet.cursor < 0) {
+            return null;
+        }
+        if (snippet.truncated) {
+            snippet.out.append(' ').append(ELLIPSIS);
+        } else {
+            // Closing punctuation
+            snippet.escape(snippet.cursor, text.length());
+        }
+        return snippet.out.toString();
+    }
+
+    @Override
+    public void token(String term, int position, int start, int end) {
+        if (position < from) {
+            return;
+        }
+        if (position >= to) {
+            truncated = true;
+            return;
+        }
+        if (cursor < 0) {
+            if (from > 0) {
+                out.append(ELLIPSIS).append(' ');
+            }
+        } else {
+            escape(cursor, start);
+        }
+        boolean hit = term != null && Arrays.binarySearch(hits, position) >= 0;
+        if (hit) {
+            out.append("<mark>");
+        }
+        escape(start, end);
+        if (hit) {
+            out.append("</mark>");
+        }
+        cursor = end;
+    }
+
+    private void escape(int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                case '\0', '\n', '\r', '\t' -> out.append(' ');
+                default -> out.append(c);
+            }
+        }
+    }
+}
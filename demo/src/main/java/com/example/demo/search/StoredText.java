@@ -0,0 +1,73 @@
+package com.example.demo.search;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An article's description and content, deflated together, kept in the index so snippets can be
+ * cut without going back to the database. Fields are separated by a NUL character, which the
+ * {@link Analyzer} treats as a word break like any other.
+ */
+final class StoredText {
+
+    private static final char SEPARATOR = '\0';
+
+    private StoredText() {
+    }
+
+    static byte[] compress(String description, String content) {
+        String text = (description != null ? description : "") + SEPARATOR + (content != null ? content : "");
+        if (text.length() == 1) {
+            return new byte[0];
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 2 + 16);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * The stored text of one field, or null if nothing was stored for it.
+     */
+    static String field(byte[] stored, int field) {
+        if (stored == null || stored.length == 0 || field == PostingsList.TITLE) {
+            return null;
+        }
+        String text = inflate(stored);
+        int separator = text.indexOf(SEPARATOR);
+        return field == PostingsList.DESCRIPTION ? text.substring(0, separator) : text.substring(separator + 1);
+    }
+
+    private static String inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 3);
+            byte[] chunk = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(chunk);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated stored text");
+                }
+                out.write(chunk, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt stored text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.demo.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Typeahead completions over title words, category names and source names.
+ *
+ * Entries live in a character trie where every node keeps its heaviest entries, best first, so a
+ * lookup is one walk down the prefix and a copy of at most {@link #MAX_SUGGESTIONS} ids. Weights
+ * only ever grow as articles are added, which keeps those per-node lists exact without revisiting
+ * siblings. When the entry count passes the configured cap the lightest quarter is dropped and
+ * the trie rebuilt, so memory stays bounded however long the application runs.
+ */
+public class Suggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private final int maxEntries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> entryIds = new HashMap<>();
+    private String[] texts = new String[256];
+    private Suggestion.Type[] types = new Suggestion.Type[256];
+    private double[] weights = new double[256];
+    private int entryCount;
+    private Node root = new Node();
+    private int nodeCount = 1;
+
+    public Suggester(int maxEntries) {
+        this.maxEntries = Math.max(MAX_SUGGESTIONS, maxEntries);
+    }
+
+    /**
+     * Credits one article to its title words, category and source. Busier articles count for more,
+     * on a log scale so a single viral story cannot drown out everything else.
+     */
+    public void addArticle(String title, String categoryName, String sourceName, long viewCount) {
+        double weight = popularity(viewCount);
+        lock.writeLock().lock();
+        try {
+            for (String word : new LinkedHashSet<>(Analyzer.words(title))) {
+                if (word.length() >= MIN_WORD_LENGTH && !isNumber(word)) {
+                    addLocked(word, Suggestion.Type.TERM, weight);
+                }
+            }
+            addLocked(categoryName, Suggestion.Type.CATEGORY, weight);
+            addLocked(sourceName, Suggestion.Type.SOURCE, weight);
+            pruneIfFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(String text, Suggestion.Type type, double weight) {
+        lock.writeLock().lock();
+        try {
+            addLocked(text, type, weight);
+            pruneIfFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completes {@code query} as a whole (matching category and source names), then completes its
+     * last word on its own, keeping the words before it. Blank queries have no suggestions.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String key = normalize(query);
+        int max = Math.min(limit, MAX_SUGGESTIONS);
+        if (key.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        List<Suggestion> results = new ArrayList<>(max);
+        Set<String> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            collect(find(key), "", false, results, seen, max);
+            int space = key.lastIndexOf(' ');
+            if (space > 0 && results.size() < max) {
+                collect(find(key.substring(space + 1)), key.substring(0, space + 1), true, results, seen, max);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Saves every entry and its weight, replacing {@code file} atomically.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(entryCount);
+            for (int id = 0; id < entryCount; id++) {
+                out.writeByte(types[id].ordinal());
+                out.writeUTF(texts[id]);
+                out.writeDouble(weights[id]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A suggester holding the entries saved by {@link #writeTo}.
+     */
+    public static Suggester readFrom(Path file, int maxEntries) throws IOException {
+        Suggester suggester = new Suggester(maxEntries);
+        Suggestion.Type[] types = Suggestion.Type.values();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Suggestion.Type type = types[in.readUnsignedByte()];
+                suggester.add(in.readUTF(), type, in.readDouble());
+            }
+        }
+        return suggester;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static double popularity(long viewCount) {
+        return 1 + Math.log1p(Math.max(0, viewCount));
+    }
+
+    private void collect(Node node, String context, boolean termsOnly,
+                         List<Suggestion> results, Set<String> seen, int max) {
+        if (node == null) {
+            return;
+        }
+        for (int i = 0; i < node.topSize && results.size() < max; i++) {
+            int entry = node.top[i];
+            if (termsOnly && types[entry] != Suggestion.Type.TERM) {
+                continue;
+            }
+            String text = context + texts[entry];
+            // A word and a category can share a spelling; show whichever ranks higher
+            if (seen.add(text.toLowerCase(Locale.ROOT))) {
+                results.add(new Suggestion(text, types[entry], weights[entry]));
+            }
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void addLocked(String text, Suggestion.Type type, double weight) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Integer existing = entryIds.get(type.ordinal() + key);
+        int entry;
+        if (existing != null) {
+            entry = existing;
+            weights[entry] += weight;
+        } else {
+            entry = newEntry(type == Suggestion.Type.TERM ? key : text.trim(), type, weight);
+            entryIds.put(type.ordinal() + key, entry);
+        }
+
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = childOrCreate(node, key.charAt(i));
+            node.offer(entry, weights);
+        }
+    }
+
+    private int newEntry(String text, Suggestion.Type type, double weight) {
+        if (entryCount == texts.length) {
+            int capacity = texts.length * 2;
+            texts = Arrays.copyOf(texts, capacity);
+            types = Arrays.copyOf(types, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        texts[entryCount] = text;
+        types[entryCount] = type;
+        weights[entryCount] = weight;
+        return entryCount++;
+    }
+
+    private Node childOrCreate(Node node, char c) {
+        int i = Arrays.binarySearch(node.labels, 0, node.childCount, c);
+        if (i >= 0) {
+            return node.children[i];
+        }
+        Node child = new Node();
+        node.insert(-i - 1, c, child);
+        nodeCount++;
+        return child;
+    }
+
+    // Keeps the heaviest three quarters of the cap and rebuilds the trie around them
+    private void pruneIfFull() {
+        if (entryCount <= maxEntries) {
+            return;
+        }
+        int keep = maxEntries * 3 / 4;
+        int[] kept = IntStream.range(0, entryCount).boxed()
+                .sorted((a, b) -> Double.compare(weights[b], weights[a]))
+                .limit(keep)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+
+        String[] oldTexts = texts;
+        Suggestion.Type[] oldTypes = types;
+        double[] oldWeights = weights;
+        texts = new String[Math.max(256, keep * 2)];
+        types = new Suggestion.Type[texts.length];
+        weights = new double[texts.length];
+        entryIds.clear();
+        entryCount = 0;
+        root = new Node();
+        nodeCount = 1;
+        for (int entry : kept) {
+            addLocked(oldTexts[entry], oldTypes[entry], oldWeights[entry]);
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String key = text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_ENTRIES = new int[0];
+
+        // Children sorted by label; arrays grow on demand since most nodes have one child or none
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+
+        // Heaviest entries under this prefix, best first
+        int[] top = NO_ENTRIES;
+        int topSize;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void insert(int at, char c, Node child) {
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, at, labels, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            labels[at] = c;
+            children[at] = child;
+            childCount++;
+        }
+
+        // Called after the entry's weight went up: place it, then bubble it towards the front
+        void offer(int entry, double[] weights) {
+            int pos = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == entry) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                if (topSize < MAX_SUGGESTIONS) {
+                    if (topSize == top.length) {
+                        top = Arrays.copyOf(top, Math.min(MAX_SUGGESTIONS, Math.max(1, topSize * 2)));
+                    }
+                    pos = topSize++;
+                } else if (heavier(entry, top[topSize - 1], weights)) {
+                    pos = topSize - 1;
+                } else {
+                    return;
+                }
+                top[pos] = entry;
+            }
+            while (pos > 0 && heavier(top[pos], top[pos - 1], weights)) {
+                int swap = top[pos - 1];
+                top[pos - 1] = top[pos];
+                top[pos] = swap;
+                pos--;
+            }
+        }
+
+        // Ties go to the entry seen first
+        private static boolean heavier(int a, int b, double[] weights) {
+            return weights[a] > weights[b] || (weights[a] == weights[b] && a < b);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.search;
+
+/**
+ * One typeahead completion: the text to put in the search box, what kind of thing it names,
+ * and the popularity weight it was ranked by.
+ */
+public record Suggestion(String text, Type type, double weight) {
+
+    public enum Type {
+        TERM,
+        CATEGORY,
+        SOURCE
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.search;
+
+/**
+ * Bounded min-heap keeping the {@code capacity} best docs by key, ties broken by the larger
+ * tie-breaker. Primitive arrays only: collecting k of n matches costs O(n log k) and no boxing.
+ */
+final class TopDocs {
+
+    private final int capacity;
+    private final int[] docs;
+    private final double[] keys;
+    private final long[] tieBreakers;
+    private int size;
+
+    TopDocs(int capacity) {
+        this.capacity = capacity;
+        this.docs = new int[capacity];
+        this.keys = new double[capacity];
+        this.tieBreakers = new long[capacity];
+    }
+
+    void offer(int doc, double key, long tieBreaker) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            docs[size] = doc;
+            keys[size] = key;
+            tieBreakers[size] = tieBreaker;
+            siftUp(size++);
+        } else if (less(0, key, tieBreaker)) {
+            docs[0] = doc;
+            keys[0] = key;
+            tieBreakers[0] = tieBreaker;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Empties the heap, returning docs best first.
+     */
+    int[] drainBestFirst() {
+        int[] best = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            best[i] = docs[0];
+            size--;
+            if (size > 0) {
+                move(size, 0);
+                siftDown(0);
+            }
+        }
+        return best;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The key a new doc has to beat to get in: the weakest kept key once the heap is full.
+     */
+    double threshold() {
+        return size == capacity && capacity > 0 ? keys[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    // True if the entry at i ranks below (key, tieBreaker)
+    private boolean less(int i, double key, long tieBreaker) {
+        return keys[i] < key || (keys[i] == key && tieBreakers[i] < tieBreaker);
+    }
+
+    private boolean less(int i, int j) {
+        return less(i, keys[j], tieBreakers[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+            if (!less(smallest, i)) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void move(int from, int to) {
+        docs[to] = docs[from];
+        keys[to] = keys[from];
+        tieBreakers[to] = tieBreakers[from];
+    }
+
+    private void swap(int i, int j) {
+        int doc = docs[i];
+        double key = keys[i];
+        long tieBreaker = tieBreakers[i];
+        move(j, i);
+        docs[j] = doc;
+        keys[j] = key;
+        tieBreakers[j] = tieBreaker;
+    }
+}
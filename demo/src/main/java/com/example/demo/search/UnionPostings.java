@@ -0,0 +1,101 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * The union of a few terms' postings, as one list: the fuzzy expansions of a single query term.
+ * Where several terms hit the same doc, the first list given wins, so callers pass the closest
+ * expansion first; each entry keeps that term's boost for scoring.
+ */
+final class UnionPostings implements Postings {
+
+    private final int[] docs;
+    private final int[] freqs;
+    private final double[] boosts;
+    private final Postings[] sources;
+    private final int[] sourceIndexes;
+    private final int size;
+
+    private UnionPostings(int[] docs, int[] freqs, double[] boosts, Postings[] sources, int[] sourceIndexes, int size) {
+        this.docs = docs;
+        this.freqs = freqs;
+        this.boosts = boosts;
+        this.sources = sources;
+        this.sourceIndexes = sourceIndexes;
+        this.size = size;
+    }
+
+    /**
+     * Merges the non-null lists; null if all of them are null.
+     */
+    static UnionPostings of(Postings[] lists, double[] listBoosts) {
+        int capacity = 0;
+        for (Postings list : lists) {
+            capacity += list != null ? list.size() : 0;
+        }
+        if (capacity == 0) {
+            return null;
+        }
+        int[] docs = new int[capacity];
+        int[] freqs = new int[capacity];
+        double[] boosts = new double[capacity];
+        Postings[] sources = new Postings[capacity];
+        int[] sourceIndexes = new int[capacity];
+        int[] cursors = new int[lists.length];
+        int size = 0;
+        while (true) {
+            int best = -1;
+            int bestDoc = Integer.MAX_VALUE;
+            for (int l = 0; l < lists.length; l++) {
+                if (lists[l] != null && cursors[l] < lists[l].size() && lists[l].doc(cursors[l]) < bestDoc) {
+                    best = l;
+                    bestDoc = lists[l].doc(cursors[l]);
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            docs[size] = bestDoc;
+            freqs[size] = lists[best].packedFreq(cursors[best]);
+            sources[size] = lists[best];
+            sourceIndexes[size] = cursors[best];
+            boosts[size++] = listBoosts[best];
+            for (int l = 0; l < lists.length; l++) {
+                if (lists[l] != null && cursors[l] < lists[l].size() && lists[l].doc(cursors[l]) == bestDoc) {
+                    cursors[l]++;
+                }
+            }
+        }
+        return new UnionPostings(Arrays.copyOf(docs, size), Arrays.copyOf(freqs, size), Arrays.copyOf(boosts, size),
+                Arrays.copyOf(sources, size), Arrays.copyOf(sourceIndexes, size), size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int doc(int index) {
+        return docs[index];
+    }
+
+    @Override
+    public int packedFreq(int index) {
+        return freqs[index];
+    }
+
+    @Override
+    public int[] positions(int index) {
+        return sources[index].positions(sourceIndexes[index]);
+    }
+
+    @Override
+    public void copyPositions(int index, ByteList out) {
+        sources[index].copyPositions(sourceIndexes[index], out);
+    }
+
+    double boost(int index) {
+        return boosts[index];
+    }
+}
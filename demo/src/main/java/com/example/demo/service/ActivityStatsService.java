@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.NewsSource;
+import com.example.demo.repository.NewsSourceRepository;
+import com.example.demo.stats.MinuteCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Near-real-time operational counts: article reads per minute per category and articles ingested
+ * per minute per source, over the last day. Each key has a {@link MinuteCounter}, so recording an
+ * event is one compare-and-set once the key has been seen; nothing touches the database until a
+ * snapshot labels the keys.
+ */
+@Service
+public class ActivityStatsService {
+
+    public record Activity(List<Series> reads, List<Series> ingested) {
+    }
+
+    /**
+     * Counts for one category or source over the last minute, hour and day, and optionally per
+     * minute (oldest first) for the most recent minutes.
+     */
+    public record Series(Long id, String name, long lastMinute, long lastHour, long lastDay, long[] perMinute) {
+    }
+
+    private final CategoryService categoryService;
+    private final NewsSourceRepository newsSourceRepository;
+    private final Map<Long, MinuteCounter> reads = new ConcurrentHashMap<>();
+    private final Map<Long, MinuteCounter> ingested = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ActivityStatsService(CategoryService categoryService, NewsSourceRepository newsSourceRepository) {
+        this.categoryService = categoryService;
+        this.newsSourceRepository = newsSourceRepository;
+    }
+
+    public void recordRead(Long categoryId) {
+        increment(reads, categoryId);
+    }
+
+    public void recordIngest(Long sourceId) {
+        increment(ingested, sourceId);
+    }
+
+    /**
+     * @param seriesMinutes how many per-minute counts to include for each key, at most a day's
+     */
+    public Activity snapshot(int seriesMinutes) {
+        long now = System.currentTimeMillis();
+        Map<Long, String> categories = categoryService.getAllActiveCategories().stream()
+                .collect(Collectors.toMap(Category::getId, Category::getSlug));
+        Map<Long, String> sources = newsSourceRepository.findAll().stream()
+                .collect(Collectors.toMap(NewsSource::getId, NewsSource::getName));
+        return new Activity(series(reads, categories, seriesMinutes, now),
+                series(ingested, sources, seriesMinutes, now));
+    }
+
+    // Articles without a category or source are counted under id 0
+    private static void increment(Map<Long, MinuteCounter> counters, Long id) {
+        long key = id != null ? id : 0;
+        MinuteCounter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new MinuteCounter());
+        }
+        counter.increment(System.currentTimeMillis());
+    }
+
+    private static List<Series> series(Map<Long, MinuteCounter> counters, Map<Long, String> names,
+                                       int seriesMinutes, long now) {
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    MinuteCounter counter = entry.getValue();
+                    long[] perMinute = counter.series(MinuteCounter.MINUTES, now);
+                    int length = perMinute.length;
+                    return new Series(entry.getKey(), names.getOrDefault(entry.getKey(), "unknown"),
+                            perMinute[length - 1], sumTail(perMinute, 60), sumTail(perMinute, length),
+                            seriesMinutes > 0
+                                    ? Arrays.copyOfRange(perMinute, length - Math.min(seriesMinutes, length), length)
+                                    : null);
+                })
+                .filter(series -> series.lastDay() > 0)
+                .sorted(Comparator.comparingLong(Series::lastHour).reversed().thenComparing(Series::id))
+                .toList();
+    }
+
+    private static long sumTail(long[] values, int count) {
+        long sum = 0;
+        for (int i = values.length - count; i < values.length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+}
@@ -12,18 +12,28 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ContentVersionService contentVersionService;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ContentVersionService contentVersionService) {
         this.categoryRepository = categoryRepository;
+        this.contentVersionService = contentVersionService;
     }
 
     // Basic CRUD operations
@@ -68,6 +78,7 @@ public class CategoryService {
                 newCategory.setName(trimmedName);
                 newCategory.setSlug(createSlug(trimmedName));
                 newCategory.setIsActive(true);
+                contentVersionService.categoriesChanged();
                 return categoryRepository.save(newCategory);
             });
     }
@@ -98,25 +109,31 @@ public class CategoryService {
         // Ensure unique slug
         category.setSlug(ensureUniqueSlug(category.getSlug(), category.getId()));
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        contentVersionService.categoriesChanged();
+        return saved;
     }
 
     @Transactional
     @CacheEvict(value = {"category", "allCategories", "featuredCategories", "categoryBySlug", "categoryByName"}, allEntries = true)
     public Category updateCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        contentVersionService.categoriesChanged();
+        return saved;
     }
 
     @Transactional
     @CacheEvict(value = {"category", "allCategories", "featuredCategories", "categoryBySlug", "categoryByName"}, allEntries = true)
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        contentVersionService.categoriesChanged();
     }
 
     @Transactional
     @CacheEvict(value = {"category", "allCategories", "featuredCategories", "categoryBySlug", "categoryByName"}, allEntries = true)
     public void deactivateCategory(Long id) {
         categoryRepository.deactivateCategory(id);
+        contentVersionService.categoriesChanged();
     }
 
     // Categories with latest news
@@ -158,6 +175,7 @@ public class CategoryService {
     @CacheEvict(value = {"category", "featuredCategories"}, allEntries = true)
     public void updateFeaturedStatus(Long categoryId, boolean featured) {
         categoryRepository.updateFeaturedStatus(categoryId, featured);
+        contentVersionService.categoriesChanged();
     }
 
     // Display order management
@@ -165,14 +183,37 @@ public class CategoryService {
     @CacheEvict(value = {"allCategories", "featuredCategories"}, allEntries = true)
     public void updateDisplayOrder(Long categoryId, int displayOrder) {
         categoryRepository.updateDisplayOrder(categoryId, displayOrder);
+        contentVersionService.categoriesChanged();
     }
 
+    /**
+     * Numbers the categories 1, 2, 3... in the given order. Only categories whose order actually
+     * moves are written, in a single statement.
+     * @return how many categories moved
+     */
     @Transactional
-    @CacheEvict(value = {"allCategories", "featuredCategories"}, allEntries = true)
-    public void reorderCategories(List<Long> categoryIds) {
+    @CacheEvict(value = {"allCategories", "categoryBySlug", "featuredCategories"}, allEntries = true)
+    public int reorderCategories(List<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> current = new HashMap<>();
+        for (Object[] row : categoryRepository.findDisplayOrders(categoryIds)) {
+            current.put((Long) row[0], (Integer) row[1]);
+        }
+        Map<Long, Integer> moved = new LinkedHashMap<>();
         for (int i = 0; i < categoryIds.size(); i++) {
-            updateDisplayOrder(categoryIds.get(i), i + 1);
+            Long id = categoryIds.get(i);
+            if (current.containsKey(id) && !Integer.valueOf(i + 1).equals(current.get(id))) {
+                moved.put(id, i + 1);
+            }
+        }
+        if (moved.isEmpty()) {
+            return 0;
         }
+        categoryRepository.updateDisplayOrders(moved);
+        contentVersionService.categoriesChanged();
+        return moved.size();
     }
 
     // Search functionality
@@ -275,12 +316,49 @@ public class CategoryService {
     }
 
     // Bulk operations
+    /**
+     * Sets the featured flag of the given categories, writing only those not already in that state.
+     * @return how many categories changed
+     */
     @Transactional
-    @CacheEvict(value = {"allCategories", "featuredCategories"}, allEntries = true)
-    public void bulkUpdateFeaturedStatus(List<Long> categoryIds, boolean featured) {
-        for (Long categoryId : categoryIds) {
-            updateFeaturedStatus(categoryId, featured);
+    @CacheEvict(value = {"allCategories", "categoryBySlug", "featuredCategories"}, allEntries = true)
+    public int bulkUpdateFeaturedStatus(List<Long> categoryIds, boolean featured) {
+        Set<Long> current = new HashSet<>(categoryRepository.findFeaturedIds());
+        Set<Long> changed = categoryIds.stream()
+                .filter(id -> current.contains(id) != featured)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        categoryRepository.updateFeaturedStatusByIds(changed, featured);
+        contentVersionService.categoriesChanged();
+        return changed.size();
+    }
+
+    /**
+     * Makes exactly the given categories featured: at most one statement to feature the new ones
+     * and one to unfeature the rest, and one invalidation for the lot.
+     * @return how many categories changed
+     */
+    @Transactional
+    @CacheEvict(value = {"allCategories", "categoryBySlug", "featuredCategories"}, allEntries = true)
+    public int setFeaturedCategories(Collection<Long> categoryIds) {
+        Set<Long> current = new HashSet<>(categoryRepository.findFeaturedIds());
+        Set<Long> desired = new HashSet<>(categoryIds);
+        Set<Long> added = new HashSet<>(desired);
+        added.removeAll(current);
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(desired);
+        if (!added.isEmpty()) {
+            categoryRepository.updateFeaturedStatusByIds(added, true);
+        }
+        if (!removed.isEmpty()) {
+            categoryRepository.updateFeaturedStatusByIds(removed, false);
+        }
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            contentVersionService.categoriesChanged();
         }
+        return added.size() + removed.size();
     }
 
     @Transactional
@@ -317,5 +395,6 @@ public class CategoryService {
             }
             categoryRepository.save(category);
         }
+        contentVersionService.categoriesChanged();
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic content versions used for HTTP conditional GET on the HTML pages.
+ *
+ * A single global counter is bumped by every write to news, categories or trending status.
+ * Each article and category also remembers the global value of its own last change, and an
+ * "epoch" stamp records changes that affect every page (navigation, bulk updates).
+ * Versions start at the boot time in milliseconds so ETags from a previous run never collide.
+ */
+@Service
+public class ContentVersionService {
+
+    private final AtomicLong globalVersion;
+    private final long bootTime;
+
+    private volatile Version global;
+    private volatile Version epoch;
+    private final Map<Long, Version> categoryVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Version> newsVersions = new ConcurrentHashMap<>();
+
+    public ContentVersionService() {
+        this.bootTime = System.currentTimeMillis();
+        this.globalVersion = new AtomicLong(bootTime);
+        this.global = new Version(bootTime, bootTime);
+        this.epoch = global;
+    }
+
+    /**
+     * A content version and the wall-clock time it was reached.
+     */
+    public record Version(long value, long lastModified) {
+
+        Version max(Version other) {
+            return new Version(Math.max(value, other.value), Math.max(lastModified, other.lastModified));
+        }
+    }
+
+    // Bump operations; applied after the surrounding transaction commits
+    public void newsChanged(Long newsId, Long categoryId) {
+        afterCommit(() -> {
+            Version version = next();
+            if (newsId != null) {
+                newsVersions.put(newsId, version);
+            }
+            if (categoryId != null) {
+                categoryVersions.put(categoryId, version);
+            }
+        });
+    }
+
+    /**
+     * Several articles changed in one bulk write: a single version bump shared by all of them.
+     */
+    public void newsChanged(Collection<Long> newsIds) {
+        if (newsIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(newsIds);
+        afterCommit(() -> {
+            Version version = next();
+            ids.forEach(id -> newsVersions.put(id, version));
+        });
+    }
+
+    public void categoriesChanged() {
+        afterCommit(() -> epoch = next());
+    }
+
+    public void allContentChanged() {
+        afterCommit(() -> {
+            Version newEpoch = next();
+            epoch = newEpoch;
+            // Entries older than the epoch can never win a max() again
+            newsVersions.values().removeIf(v -> v.value() < newEpoch.value());
+            categoryVersions.values().removeIf(v -> v.value() < newEpoch.value());
+        });
+    }
+
+    // Page versions
+    public Version homeVersion() {
+        return global;
+    }
+
+    /**
+     * Version of the site-wide navigation (category lists in the header and footer).
+     */
+    public Version navigationVersion() {
+        return epoch;
+    }
+
+    public Version categoryVersion(Long categoryId) {
+        return categoryVersions.getOrDefault(categoryId, epoch).max(epoch);
+    }
+
+    public Version newsVersion(Long newsId) {
+        return newsVersions.getOrDefault(newsId, epoch).max(epoch);
+    }
+
+    public long getCurrentVersion() {
+        return global.value();
+    }
+
+    /**
+     * Builds a weak ETag for a page from its version. Weak because the body may be re-encoded
+     * (gzip) on the way out.
+     */
+    public static String etag(String prefix, Version version) {
+        return "W/\"" + prefix + "-" + Long.toString(version.value(), 36) + "\"";
+    }
+
+    private Version next() {
+        // Last-Modified has one-second resolution on the wire
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        Version version = new Version(globalVersion.incrementAndGet(), Math.max(now, bootTime));
+        global = version;
+        return version;
+    }
+
+    // Readers must never see a version for data that is not committed yet
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(action);
+                }
+            });
+        } else {
+            apply(action);
+        }
+    }
+
+    private synchronized void apply(Runnable action) {
+        action.run();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EngagementEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers reader engagement events from the page beacon and writes them to {@code news_events}
+ * in bulk. Accepting an event is a range check and a non-blocking offer to a queue bounded at
+ * {@code news.events.buffer-size}; when the queue is full the event is dropped and counted rather
+ * than making the page wait. The queue is drained every {@code news.events.flush-interval} ms with
+ * batched inserts of {@code news.events.batch-size} rows, and once more on shutdown. Rows are
+ * kept {@code news.events.retention-days} days and purged nightly.
+ *
+ * Shares also count towards trending, applied by the writer rather than the request, but only the
+ * first share of an article by a reader each day: repeats are still written, not scored. The readers
+ * seen are remembered per node, up to {@code news.events.share-dedupe-size} of them. A batch that
+ * fails to write is dropped, so a database outage sheds events instead of building a backlog.
+ */
+@Service
+public class EngagementEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngagementEventService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO news_events (news_id, event_type, event_value, created_at) VALUES (?, ?, ?, ?)";
+    private static final String PURGE_SQL = "DELETE FROM news_events WHERE created_at < ?";
+    private static final long MAX_DWELL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    public record Submission(int accepted, int invalid, int dropped) {
+    }
+
+    // trending is set on the shares that count towards trending
+    private record Pending(long newsId, String type, long value, long createdAt, boolean trending) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NewsService newsService;
+    private final int batchSize;
+    private final int retentionDays;
+    private final BlockingQueue<Pending> queue;
+    // reader|article|day of the shares already scored
+    private final Cache<String, Boolean> sharesSeen;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter accepted;
+    private final Counter invalid;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer writeTimer;
+
+    @Autowired
+    public EngagementEventService(JdbcTemplate jdbcTemplate,
+                                  NewsService newsService,
+                                  @Value("${news.events.buffer-size:10000}") int bufferSize,
+                                  @Value("${news.events.batch-size:500}") int batchSize,
+                                  @Value("${news.events.share-dedupe-size:100000}") int shareDedupeSize,
+                                  @Value("${news.events.retention-days:30}") int retentionDays,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newsService = newsService;
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.sharesSeen = Caffeine.newBuilder()
+                .maximumSize(shareDedupeSize)
+                .expireAfterWrite(Duration.ofDays(1))
+                .build();
+        this.accepted = outcome(meterRegistry, "accepted");
+        this.invalid = outcome(meterRegistry, "invalid");
+        this.dropped = outcome(meterRegistry, "dropped");
+        this.failed = outcome(meterRegistry, "failed");
+        this.writeTimer = Timer.builder("news.events.write")
+                .description("Time to write a batch of engagement events")
+                .register(meterRegistry);
+        Gauge.builder("news.events.queued", queue, Collection::size)
+                .description("Engagement events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("news.events")
+                .description("Engagement events received, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the valid events sent by the reader. Never blocks: events that do not fit in the
+     * buffer are dropped.
+     */
+    public Submission submit(List<EngagementEvent> events, String readerKey) {
+        long now = System.currentTimeMillis();
+        String day = LocalDate.now().toString();
+        int queued = 0;
+        int rejected = 0;
+        int full = 0;
+        for (EngagementEvent event : events) {
+            Pending pending = validate(event, now);
+            String share = null;
+            if (pending != null && pending.trending()) {
+                share = readerKey + "|" + pending.newsId() + "|" + day;
+                if (sharesSeen.asMap().putIfAbsent(share, Boolean.TRUE) != null) {
+                    // Scored already today: still written, not scored again
+                    pending = new Pending(pending.newsId(), pending.type(), pending.value(), pending.createdAt(), false);
+                    share = null;
+                }
+            }
+            if (pending == null) {
+                rejected++;
+            } else if (queue.offer(pending)) {
+                queued++;
+            } else {
+                full++;
+                if (share != null) {
+                    // Claimed before the offer so concurrent repeats cannot both score; a dropped
+                    // share is released so the reader's retry still counts
+                    sharesSeen.invalidate(share);
+                }
+            }
+        }
+        accepted.increment(queued);
+        invalid.increment(rejected);
+        dropped.increment(full);
+        return new Submission(queued, rejected, full);
+    }
+
+    public int queuedEvents() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${news.events.flush-interval:2000}")
+    public void flush() {
+        if (queue.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${news.events.purge-cron:0 45 2 * * *}")
+    public void purgeOldEvents() {
+        try {
+            int purged = jdbcTemplate.update(PURGE_SQL,
+                    Timestamp.valueOf(LocalDate.now().minusDays(retentionDays).atStartOfDay()));
+            logger.info("Purged {} engagement events older than {} days", purged, retentionDays);
+        } catch (Exception e) {
+            logger.error("Error purging engagement events", e);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Pending event : batch) {
+            rows.add(new Object[]{event.newsId(), event.type(),
+                    "share".equals(event.type()) ? null : event.value(), new Timestamp(event.createdAt())});
+        }
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            logger.error("Error writing {} engagement events, dropping them", batch.size(), e);
+            return;
+        }
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (Pending event : batch) {
+            if (event.trending()) {
+                newsService.recordShare(event.newsId());
+            }
+        }
+    }
+
+    // Range checks only; whether the article exists is left to whoever reads the events
+    private static Pending validate(EngagementEvent event, long now) {
+        if (event == null || event.type() == null || event.newsId() == null || event.newsId() <= 0) {
+            return null;
+        }
+        long value = event.value() != null ? event.value() : 0;
+        return switch (event.type()) {
+            case "dwell" -> value > 0 && value <= MAX_DWELL_MILLIS ? new Pending(event.newsId(), "dwell", value, now, false) : null;
+            case "scroll" -> value >= 0 && value <= 100 ? new Pending(event.newsId(), "scroll", value, now, false) : null;
+            case "share" -> new Pending(event.newsId(), "share", 0, now, true);
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FederatedSearchResult;
+import com.example.demo.dto.FederatedSearchResult.Hit;
+import com.example.demo.dto.FederatedSearchResult.RemoteStatus;
+import com.example.demo.dto.NewsApiResponse;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.search.SearchRequest;
+import com.example.demo.util.UrlUtils;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches the local index and NewsAPI together under one deadline.
+ *
+ * The remote call starts first and the local search runs meanwhile on the calling thread. If
+ * NewsAPI has not answered when the deadline passes, the local results are returned alone; the
+ * remote call still completes in the background and lands in the cache for the next identical
+ * query. Remote results are cached briefly per normalised query, and concurrent identical queries
+ * share a single in-flight call. Both lists are merged by reciprocal rank and deduplicated by
+ * canonical URL, keeping the local copy of a story both sides have.
+ */
+@Service
+public class FederatedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FederatedSearchService.class);
+
+    // Reciprocal rank fusion constant: rank r scores 1 / (RRF_K + r)
+    private static final int RRF_K = 60;
+    private static final String REMOVED_TITLE = "[Removed]";
+
+    private final NewsService newsService;
+    private final NewsApiService newsApiService;
+    private final long deadlineMillis;
+    private final AsyncCache<String, List<Hit>> remoteHits;
+    private final Map<RemoteStatus, Counter> remoteOutcomes = new EnumMap<>(RemoteStatus.class);
+
+    @Autowired
+    public FederatedSearchService(NewsService newsService,
+                                  NewsApiService newsApiService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${newsapi.search.deadline-ms:800}") long deadlineMillis,
+                                  @Value("${newsapi.search.cache-ttl-seconds:60}") long cacheTtlSeconds,
+                                  @Value("${newsapi.search.cache-max-entries:1000}") long cacheMaxEntries) {
+        this.newsService = newsService;
+        this.newsApiService = newsApiService;
+        this.deadlineMillis = deadlineMillis;
+        this.remoteHits = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxEntries)
+                .buildAsync();
+        for (RemoteStatus status : RemoteStatus.values()) {
+            remoteOutcomes.put(status, Counter.builder("search.federated.remote")
+                    .description("Federated searches by whether NewsAPI answered within the deadline")
+                    .tag("outcome", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Completes within the deadline (plus the local search time) with up to {@code limit} hits.
+     */
+    public CompletableFuture<FederatedSearchResult> search(String query, int limit) {
+        long start = System.nanoTime();
+        String key = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        // A failed call is dropped from the cache, so the next query retries it
+        CompletableFuture<List<Hit>> remote = remoteHits.get(key, (k, executor) -> fetchRemote(k));
+
+        List<Hit> local = searchLocal(query, limit);
+
+        long remaining = deadlineMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // Time out a copy: the shared call must keep running for the cache and other waiters
+        return remote.copy()
+                .thenApply(hits -> new RemoteHits(hits, RemoteStatus.INCLUDED))
+                .exceptionally(e -> {
+                    logger.debug("NewsAPI search for '{}' failed: {}", key, e.getMessage());
+                    return new RemoteHits(List.of(), RemoteStatus.FAILED);
+                })
+                .completeOnTimeout(new RemoteHits(List.of(), RemoteStatus.LATE), Math.max(0, remaining), TimeUnit.MILLISECONDS)
+                .thenApply(outcome -> {
+                    remoteOutcomes.get(outcome.status()).increment();
+                    return new FederatedSearchResult(merge(local, outcome.hits(), limit), outcome.status());
+                });
+    }
+
+    private record RemoteHits(List<Hit> hits, RemoteStatus status) {
+    }
+
+    private List<Hit> searchLocal(String query, int limit) {
+        List<Hit> hits = new ArrayList<>(limit);
+        newsService.forEachSearchSummary(SearchRequest.of(query), null, limit,
+                (summary, snippet) -> hits.add(toHit(summary)));
+        return hits;
+    }
+
+    private CompletableFuture<List<Hit>> fetchRemote(String query) {
+        return newsApiService.searchNews(query)
+                .map(FederatedSearchService::toHits)
+                .defaultIfEmpty(List.of())
+                .toFuture();
+    }
+
+    /**
+     * Reciprocal rank fusion of the two ranked lists. A story on both sides keeps its local copy
+     * and the sum of both scores; ties go to the local side.
+     */
+    static List<Hit> merge(List<Hit> local, List<Hit> remote, int limit) {
+        Map<String, Hit> hits = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<Hit> side : List.of(local, remote)) {
+            for (int rank = 0; rank < side.size(); rank++) {
+                Hit hit = side.get(rank);
+                String key = hit.getCanonicalUrl() != null ? hit.getCanonicalUrl() : "news:" + hit.getNewsId();
+                hits.putIfAbsent(key, hit);
+                scores.merge(key, 1.0 / (RRF_K + rank + 1), Double::sum);
+            }
+        }
+        List<String> keys = new ArrayList<>(hits.keySet());
+        // Stable sort: keys of equal score stay in insertion order, local first
+        keys.sort(Comparator.comparingDouble((String key) -> scores.get(key)).reversed());
+        return keys.stream().limit(limit).map(hits::get).toList();
+    }
+
+    private static Hit toHit(NewsSummary summary) {
+        return new Hit(summary.getId(), summary.getTitle(), summary.getDescription(), "/news/" + summary.getId(),
+                UrlUtils.canonicalize(summary.getSourceUrl()), summary.getImageUrl(), summary.getSourceName(),
+                summary.getPublishedAt());
+    }
+
+    private static List<Hit> toHits(NewsApiResponse response) {
+        if (response.getArticles() == null) {
+            return List.of();
+        }
+        List<Hit> hits = new ArrayList<>(response.getArticles().size());
+        for (NewsApiResponse.NewsArticle article : response.getArticles()) {
+            String canonicalUrl = UrlUtils.canonicalize(article.getUrl());
+            if (canonicalUrl == null || article.getTitle() == null || REMOVED_TITLE.equals(article.getTitle())) {
+                continue;
+            }
+            hits.add(new Hit(null, article.getTitle(), article.getDescription(), article.getUrl(), canonicalUrl,
+                    article.getUrlToImage(), article.getSource() != null ? article.getSource().getName() : null,
+                    parseTime(article.getPublishedAt())));
+        }
+        return hits;
+    }
+
+    private static LocalDateTime parseTime(String time) {
+        if (time == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(time).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
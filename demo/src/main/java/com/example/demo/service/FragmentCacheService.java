@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Output cache for shared page fragments (header navigation, footer).
+ *
+ * Rendered HTML is keyed by fragment name, its parameters and the navigation content version,
+ * so a category change simply produces new keys and stale entries age out. Templates splice
+ * the cached markup in with {@code th:utext="${@fragmentCacheService.header(activePage)}"}.
+ */
+@Service
+public class FragmentCacheService {
+
+    static final String SAVED_NANOS_ATTRIBUTE = FragmentCacheService.class.getName() + ".savedNanos";
+
+    private final ITemplateEngine templateEngine;
+    private final CategoryService categoryService;
+    private final ContentVersionService contentVersionService;
+    private final JakartaServletWebApplication webApplication;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, String> renderedFragments = Caffeine.newBuilder()
+            .maximumSize(256)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    // Last measured render cost per fragment, credited on every cache hit
+    private final Map<String, AtomicLong> renderNanos = new ConcurrentHashMap<>();
+    private final DistributionSummary savedPerRequest;
+
+    @Autowired
+    public FragmentCacheService(ITemplateEngine templateEngine,
+                                CategoryService categoryService,
+                                ContentVersionService contentVersionService,
+                                ServletContext servletContext,
+                                MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.categoryService = categoryService;
+        this.contentVersionService = contentVersionService;
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+        this.meterRegistry = meterRegistry;
+        this.savedPerRequest = DistributionSummary.builder("fragment.cache.saved")
+                .description("Fragment render time saved per request")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public String header(String activePage) {
+        long version = contentVersionService.navigationVersion().value();
+        return render("header", "fragments/header", "header", activePage + "|" + version,
+                () -> Map.of("categories", categoryService.getAllActiveCategories(),
+                        "activePage", activePage != null ? activePage : ""));
+    }
+
+    public String footer() {
+        long version = contentVersionService.navigationVersion().value();
+        return render("footer", "fragments/footer", "footer", String.valueOf(version),
+                () -> Map.of("categories", categoryService.getAllActiveCategories()));
+    }
+
+    /**
+     * Records the render time saved by cache hits during the request. Called once the request completes.
+     */
+    public void recordRequest(HttpServletRequest request) {
+        Object saved = request.getAttribute(SAVED_NANOS_ATTRIBUTE);
+        if (saved instanceof AtomicLong nanos) {
+            savedPerRequest.record(nanos.get() / 1_000_000.0);
+        }
+    }
+
+    // The variables are only built on a miss, so a hit does no service calls at all
+    private String render(String name, String template, String selector, String key,
+                          Supplier<Map<String, Object>> variables) {
+        String cacheKey = name + "|" + key;
+        String cached = renderedFragments.getIfPresent(cacheKey);
+        if (cached != null) {
+            Counter.builder("fragment.cache.requests").tag("fragment", name).tag("result", "hit")
+                    .register(meterRegistry).increment();
+            creditSavedTime(name);
+            return cached;
+        }
+
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        HttpServletResponse response = attributes.getResponse();
+        WebContext context = new WebContext(webApplication.buildExchange(request, response),
+                RequestContextUtils.getLocale(request), variables.get());
+
+        long start = System.nanoTime();
+        String html = templateEngine.process(template, Set.of(selector), context);
+        long elapsed = System.nanoTime() - start;
+
+        renderNanos.computeIfAbsent(name, k -> new AtomicLong()).set(elapsed);
+        Timer.builder("fragment.render").tag("fragment", name)
+                .register(meterRegistry).record(Duration.ofNanos(elapsed));
+        Counter.builder("fragment.cache.requests").tag("fragment", name).tag("result", "miss")
+                .register(meterRegistry).increment();
+        renderedFragments.put(cacheKey, html);
+        return html;
+    }
+
+    private void creditSavedTime(String name) {
+        AtomicLong cost = renderNanos.get(name);
+        if (cost == null || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        AtomicLong saved = (AtomicLong) request.getAttribute(SAVED_NANOS_ATTRIBUTE);
+        if (saved == null) {
+            saved = new AtomicLong();
+            request.setAttribute(SAVED_NANOS_ATTRIBUTE, saved);
+        }
+        saved.addAndGet(cost.get());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.stats.SlidingHeavyHitters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * "Most read now": the most viewed articles over any recent window up to a day, counted in
+ * memory by {@link SlidingHeavyHitters}. Memory is fixed by the sketch shape, about
+ * 84 x {@code width} x {@code depth} x 4 bytes, whatever the traffic, and a query reads a few
+ * thousand counters at most.
+ *
+ * Counts are per node and start empty on restart.
+ */
+@Service
+public class MostReadService {
+
+    private final SlidingHeavyHitters hitters;
+
+    @Autowired
+    public MostReadService(@Value("${news.most-read.sketch-width:2048}") int width,
+                           @Value("${news.most-read.sketch-depth:4}") int depth,
+                           @Value("${news.most-read.candidates:64}") int candidates) {
+        this.hitters = new SlidingHeavyHitters(width, depth, candidates);
+    }
+
+    public void recordView(Long newsId) {
+        hitters.add(newsId, System.currentTimeMillis());
+    }
+
+    /**
+     * The most viewed articles over the window ending now, most views first.
+     */
+    public List<SlidingHeavyHitters.Count> top(Duration window, int limit) {
+        return hitters.top(window, limit, System.currentTimeMillis());
+    }
+}
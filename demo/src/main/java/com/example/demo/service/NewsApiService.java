@@ -40,7 +40,7 @@ public class NewsApiService {
                 .bodyToMono(NewsApiResponse.class);
     }
 
-    @Cacheable(value = "searchNews", key = "#query")
+    // Cached by FederatedSearchService, which also shares in-flight calls
     public Mono<NewsApiResponse> searchNews(String query) {
         return newsApiClient.get()
                 .uri(uriBuilder -> uriBuilder
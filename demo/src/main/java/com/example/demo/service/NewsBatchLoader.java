@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.News;
+import com.example.demo.repository.NewsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves lists of article ids, as returned by trending, related news, most read and search,
+ * with at most one {@code IN} query per call, in the order asked for. Inactive and unknown ids are
+ * left out.
+ *
+ * Everything resolved during an HTTP request is remembered for the rest of it, including the ids
+ * that turned out to be missing, so engines asking for overlapping ids only query for the new ones.
+ * Summaries are also kept in a projection cache shared across requests, bounded at
+ * {@code news.loader.summary-cache-size} and expiring {@code news.loader.summary-ttl-seconds} after
+ * they were loaded, which bounds how far their view counts and trending flags lag. Committed
+ * {@link NewsChangeEvent}s evict what they touched.
+ */
+@Service
+public class NewsBatchLoader {
+
+    static final String MEMO_ATTRIBUTE = NewsBatchLoader.class.getName() + ".memo";
+
+    // What one request has resolved so far; a null value means inactive or unknown
+    private static final class Memo {
+        final Map<Long, NewsSummary> summaries = new HashMap<>();
+        final Map<Long, News> entities = new HashMap<>();
+    }
+
+    private final NewsRepository newsRepository;
+    private final Cache<Long, NewsSummary> sharedSummaries;
+    private final Counter requestHits;
+    private final Counter sharedHits;
+    private final Counter loaded;
+
+    @Autowired
+    public NewsBatchLoader(NewsRepository newsRepository,
+                           @Value("${news.loader.summary-cache-size:10000}") int summaryCacheSize,
+                           @Value("${news.loader.summary-ttl-seconds:30}") int summaryTtlSeconds,
+                           MeterRegistry meterRegistry) {
+        this.newsRepository = newsRepository;
+        this.sharedSummaries = Caffeine.newBuilder()
+                .maximumSize(summaryCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(summaryTtlSeconds))
+                .build();
+        this.requestHits = lookups(meterRegistry, "request");
+        this.sharedHits = lookups(meterRegistry, "shared");
+        this.loaded = lookups(meterRegistry, "database");
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("news.loader.ids")
+                .description("Article ids resolved by the batch loader, by where they were found")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Listing projections of the active articles among the ids, in the same order.
+     */
+    public List<NewsSummary> summaries(List<Long> ids) {
+        Memo memo = memo();
+        return resolve(ids, memo != null ? memo.summaries : null, sharedSummaries,
+                newsRepository::findSummariesByIdInOrder, NewsSummary::getId);
+    }
+
+    public Optional<NewsSummary> summary(Long id) {
+        return summaries(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * The active articles among the ids, in the same order, as entities for the page templates.
+     * Only remembered for the current request; the entities are not shared.
+     */
+    public List<News> entities(List<Long> ids) {
+        Memo memo = memo();
+        return resolve(ids, memo != null ? memo.entities : null, null,
+                newsRepository::findAllByIdInOrder, News::getId);
+    }
+
+    /**
+     * Evicts committed changes. Runs on the writing thread, so that request's own memo is cleared too.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChange(NewsChangeEvent event) {
+        Memo memo = memo();
+        if (event.newsId() != null) {
+            sharedSummaries.invalidate(event.newsId());
+            if (memo != null) {
+                memo.summaries.remove(event.newsId());
+                memo.entities.remove(event.newsId());
+            }
+        } else {
+            sharedSummaries.invalidateAll();
+            if (memo != null) {
+                memo.summaries.clear();
+                memo.entities.clear();
+            }
+        }
+    }
+
+    private <T> List<T> resolve(List<Long> ids, Map<Long, T> memo, Cache<Long, T> shared,
+                                Function<List<Long>, List<T>> query, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> found = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (found.containsKey(id) || misses.contains(id)) {
+                continue;
+            }
+            if (memo != null && memo.containsKey(id)) {
+                found.put(id, memo.get(id));
+                requestHits.increment();
+                continue;
+            }
+            T cached = shared != null ? shared.getIfPresent(id) : null;
+            if (cached != null) {
+                found.put(id, cached);
+                sharedHits.increment();
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (T row : query.apply(new ArrayList<>(misses))) {
+                found.put(idOf.apply(row), row);
+                if (shared != null) {
+                    shared.put(idOf.apply(row), row);
+                }
+            }
+            misses.forEach(id -> found.putIfAbsent(id, null));
+            loaded.increment(misses.size());
+        }
+        if (memo != null) {
+            memo.putAll(found);
+        }
+
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = found.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    // Null outside a request (scheduled jobs, startup), where nothing is remembered
+    private static Memo memo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Memo memo = (Memo) attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new Memo();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link NewsService} for every write that changes which articles are live or what
+ * they contain. Listeners should use {@code @TransactionalEventListener} so they only see changes
+ * that actually committed.
+ *
+ * Single-article changes carry the news id. Bulk updates carry the range they touched instead of
+ * every id: an archive the publication cutoff, a category migration the old and new category.
+ */
+public record NewsChangeEvent(Type type, Long newsId, LocalDateTime publishedBefore,
+                              Long fromCategoryId, Long toCategoryId) {
+
+    public enum Type {
+        /** Created or updated; listeners re-read the article */
+        SAVED,
+        /** Soft-deleted */
+        DELETED,
+        /** Every article published before {@code publishedBefore} was archived */
+        ARCHIVED,
+        /** Every article in {@code fromCategoryId} moved to {@code toCategoryId} */
+        CATEGORY_MIGRATED
+    }
+
+    public static NewsChangeEvent saved(Long newsId) {
+        return new NewsChangeEvent(Type.SAVED, newsId, null, null, null);
+    }
+
+    public static NewsChangeEvent deleted(Long newsId) {
+        return new NewsChangeEvent(Type.DELETED, newsId, null, null, null);
+    }
+
+    public static NewsChangeEvent archived(LocalDateTime publishedBefore) {
+        return new NewsChangeEvent(Type.ARCHIVED, null, publishedBefore, null, null);
+    }
+
+    public static NewsChangeEvent categoryMigrated(Long fromCategoryId, Long toCategoryId) {
+        return new NewsChangeEvent(Type.CATEGORY_MIGRATED, null, null, fromCategoryId, toCategoryId);
+    }
+}
@@ -1,33 +1,87 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.NewsSummary;
 import com.example.demo.model.News;
 import com.example.demo.model.Category;
+import com.example.demo.model.NewsBody;
 import com.example.demo.model.NewsSource;
+import com.example.demo.repository.FeedQuery;
+import com.example.demo.repository.NewsBodyRepository;
 import com.example.demo.repository.NewsRepository;
+import com.example.demo.search.SearchFacets;
+import com.example.demo.search.SearchHits;
+import com.example.demo.search.SearchRequest;
+import com.example.demo.search.SearchSort;
+import com.example.demo.stats.SlidingHeavyHitters;
 import com.example.demo.util.SlugUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class NewsService {
 
     private final NewsRepository newsRepository;
+    private final NewsBodyRepository newsBodyRepository;
+    private final ContentVersionService contentVersionService;
+    private final SearchIndexService searchIndexService;
+    private final ViewCountService viewCountService;
+    private final UniqueReaderService uniqueReaderService;
+    private final TrendingService trendingService;
+    private final MostReadService mostReadService;
+    private final ActivityStatsService activityStatsService;
+    private final NewsBatchLoader newsBatchLoader;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public NewsService(NewsRepository newsRepository) {
+    public NewsService(NewsRepository newsRepository,
+                       NewsBodyRepository newsBodyRepository,
+                       ContentVersionService contentVersionService,
+                       SearchIndexService searchIndexService,
+                       ViewCountService viewCountService,
+                       UniqueReaderService uniqueReaderService,
+                       TrendingService trendingService,
+                       MostReadService mostReadService,
+                       ActivityStatsService activityStatsService,
+                       NewsBatchLoader newsBatchLoader,
+                       ApplicationEventPublisher eventPublisher) {
         this.newsRepository = newsRepository;
+        this.newsBodyRepository = newsBodyRepository;
+        this.contentVersionService = contentVersionService;
+        this.searchIndexService = searchIndexService;
+        this.viewCountService = viewCountService;
+        this.uniqueReaderService = uniqueReaderService;
+        this.trendingService = trendingService;
+        this.mostReadService = mostReadService;
+        this.activityStatsService = activityStatsService;
+        this.newsBatchLoader = newsBatchLoader;
+        this.eventPublisher = eventPublisher;
     }
 
     // Basic CRUD operations
@@ -36,6 +90,17 @@ public class NewsService {
         return newsRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Loads the article body from the news_body store. Only the detail page needs it,
+     * so listing queries never pay for the TEXT column.
+     * @param id The news id
+     * @return The article body, or null if none has been stored
+     */
+    @Cacheable(value = "newsBody", key = "#id")
+    public String getNewsContent(Long id) {
+        return newsBodyRepository.findContentByNewsId(id).orElse(null);
+    }
+
     @Cacheable(value = "allNews")
     public List<News> getAllActiveNews() {
         return newsRepository.findByIsActiveTrue();
@@ -52,17 +117,29 @@ public class NewsService {
 
     @Cacheable(value = "latestNews", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
     public Page<News> getLatestNews(Pageable pageable) {
-        return newsRepository.findByIsActiveTrueOrderByPublishedAtDesc(pageable);
+        return getFeedPage(FeedQuery.recent(), pageable);
     }
 
     public List<News> getLatestNews(int count) {
-        Pageable pageable = PageRequest.of(0, count, Sort.by(Sort.Direction.DESC, "publishedAt"));
-        Page<News> page = newsRepository.findByIsActiveTrueOrderByPublishedAtDesc(pageable);
-        return page.getContent();
+        return getFeed(FeedQuery.recent().limit(count));
+    }
+
+    /**
+     * Runs a feed query as a single select with its limit applied in the database.
+     * All listing methods below are expressed in terms of this.
+     */
+    public List<News> getFeed(FeedQuery query) {
+        return newsRepository.findFeed(query);
+    }
+
+    public Page<News> getFeedPage(FeedQuery query, Pageable pageable) {
+        List<News> content = newsRepository.findFeed(query.offset(pageable.getOffset()).limit(pageable.getPageSize()));
+        // The count query is skipped when the page itself tells us the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> newsRepository.countFeed(query));
     }
 
     @Transactional
-    @CacheEvict(value = {"news", "allNews", "latestNews", "trendingNews"}, allEntries = true)
+    @CacheEvict(value = {"news", "newsBody", "allNews", "latestNews", "trendingNews"}, allEntries = true)
     public News saveNews(News news) {
         if (news.getPublishedAt() == null) {
             news.setPublishedAt(LocalDateTime.now());
@@ -83,149 +160,367 @@ public class NewsService {
             news.setSlug(finalSlug);
         }
 
-        return newsRepository.save(news);
+        boolean created = news.getId() == null;
+        News saved = saveWithBody(news);
+        if (created) {
+            activityStatsService.recordIngest(saved.getSource() != null ? saved.getSource().getId() : null);
+        }
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = {"news", "allNews", "latestNews", "trendingNews"}, allEntries = true)
+    @CacheEvict(value = {"news", "newsBody", "allNews", "latestNews", "trendingNews"}, allEntries = true)
     public News updateNews(News news) {
-        return newsRepository.save(news);
+        return saveWithBody(news);
+    }
+
+    // A null content means "body unchanged", so flag-only updates never rewrite news_body
+    private News saveWithBody(News news) {
+        String content = news.getContent();
+        News saved = newsRepository.save(news);
+        if (content != null) {
+            newsBodyRepository.save(new NewsBody(saved.getId(), content));
+            saved.setContent(content);
+        }
+        contentVersionService.newsChanged(saved.getId(), categoryId(saved));
+        eventPublisher.publishEvent(NewsChangeEvent.saved(saved.getId()));
+        return saved;
+    }
+
+    private static Long categoryId(News news) {
+        return news.getCategory() != null ? news.getCategory().getId() : null;
     }
 
     @Transactional
     @CacheEvict(value = {"news", "allNews", "latestNews", "trendingNews"}, allEntries = true)
     public void deleteNews(Long id) {
+        Long categoryId = newsRepository.findById(id)
+                .map(news -> news.getCategory() != null ? news.getCategory().getId() : null)
+                .orElse(null);
         newsRepository.softDelete(id);
+        contentVersionService.newsChanged(id, categoryId);
+        eventPublisher.publishEvent(NewsChangeEvent.deleted(id));
     }
 
     // Category-based queries
     @Cacheable(value = "categoryNews", key = "#category.id + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
     public Page<News> getNewsByCategory(Category category, Pageable pageable) {
-        return newsRepository.findByCategoryAndIsActiveTrueOrderByPublishedAtDesc(category, pageable);
+        return getFeedPage(FeedQuery.recent().category(category.getId()), pageable);
     }
 
     @Cacheable(value = "categoryLatestNews", key = "#category.id + '_' + #limit")
     public List<News> getLatestNewsByCategory(Category category, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findByCategoryAndIsActiveTrueOrderByPublishedAtDesc(category, pageable).getContent();
+        return getFeed(FeedQuery.recent().category(category.getId()).limit(limit));
     }
 
     // Featured news
     @Cacheable(value = "featuredNews", key = "#limit")
     public List<News> getFeaturedNews(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findByIsFeaturedTrueAndIsActiveTrueOrderByPublishedAtDesc();
+        return getFeed(FeedQuery.recent().featured(true).limit(limit));
     }
 
-    // Trending news
-    @Cacheable(value = "trendingNews", key = "#limit")
+    /**
+     * Trending news: highest decayed view and share score first, topped up with the week's most
+     * viewed while fewer articles than asked for have been read recently.
+     */
     public List<News> getTrendingNews(int limit) {
-        LocalDateTime since = LocalDateTime.now().minusWeeks(1); // Last 7 days
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findTrendingNews(since, pageable);
+        List<News> trending = new ArrayList<>(newsBatchLoader.entities(trendingService.topIds(limit)));
+        if (trending.size() < limit) {
+            Set<Long> ids = trending.stream().map(News::getId).collect(Collectors.toSet());
+            LocalDateTime since = LocalDateTime.now().minusWeeks(1); // Last 7 days
+            for (News news : getFeed(FeedQuery.mostViewed().since(since).limit(limit))) {
+                if (trending.size() < limit && ids.add(news.getId())) {
+                    trending.add(news);
+                }
+            }
+        }
+        return trending;
     }
 
     // Breaking news (last 2 hours)
     @Cacheable(value = "breakingNews", key = "#limit")
     public List<News> getBreakingNews(int limit) {
         LocalDateTime since = LocalDateTime.now().minusHours(2);
-        List<News> breakingNews = newsRepository.findBreakingNews(since);
-        return breakingNews.stream().limit(limit).toList();
+        return getFeed(FeedQuery.recent().since(since).limit(limit));
     }
 
     // Recent news
     public List<News> getRecentNews(int hours, int limit) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findRecentNews(since, pageable).getContent();
+        return getFeed(FeedQuery.recent().since(since).limit(limit));
     }
 
-    // Search functionality
+    // Search functionality: served from the in-memory index once it is built, SQL LIKE until then
     public Page<News> searchNews(String keyword, Long categoryId, Pageable pageable) {
+        return searchNews(keyword, categoryId, SearchSort.RELEVANCE, pageable);
+    }
+
+    /**
+     * Searches by keyword. The SQL fallback used while the index is building can only order by recency.
+     */
+    public Page<News> searchNews(String keyword, Long categoryId, SearchSort sort, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return Page.empty(pageable);
         }
 
-        if (categoryId != null) {
-            // Create a simple category object for the query
-            Category category = new Category();
-            category.setId(categoryId);
-            return newsRepository.searchByKeywordAndCategory(keyword.trim(), category, pageable);
+        if (searchIndexService.isReady()) {
+            SearchHits hits = searchIndexService.search(SearchRequest.of(keyword)
+                    .sort(sort)
+                    .category(categoryId)
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize()));
+            return new PageImpl<>(newsBatchLoader.entities(hits.newsIds()), pageable, hits.total());
+        }
+        return getFeedPage(FeedQuery.recent().keyword(keyword.trim()).category(categoryId), pageable);
+    }
+
+    // Projection reads for the JSON API. Rows are handed to the consumer while the result set
+    // is still open, so it must not retain them beyond the call.
+    public Optional<NewsSummary> getNewsSummary(Long id) {
+        return newsBatchLoader.summary(id);
+    }
+
+    public void forEachSummary(FeedQuery query, Consumer<NewsSummary> consumer) {
+        try (Stream<NewsSummary> summaries = newsRepository.streamFeedSummaries(query)) {
+            summaries.forEach(consumer);
+        }
+    }
+
+    /**
+     * Search for the JSON API. Recency pages by keyset cursor; relevance, which has no stable
+     * key, by an offset cursor. Returns the facet counts when the request asks for them and the
+     * index is up; the SQL fallback filters on facets but cannot count them. Each summary is passed
+     * with its snippet, if the request asked for snippets and the index had one.
+     */
+    public SearchFacets forEachSearchSummary(SearchRequest request, FeedCursor after, int limit,
+                                             BiConsumer<NewsSummary, String> consumer) {
+        boolean byRelevance = request.getSort() == SearchSort.RELEVANCE;
+        if (searchIndexService.isReady()) {
+            request.limit(limit);
+            if (after != null && byRelevance) {
+                request.offset(after.getSortValue());
+            } else if (after != null) {
+                request.after(after.getPublishedAt(), after.getId());
+            }
+            SearchHits hits = searchIndexService.search(request);
+            newsBatchLoader.summaries(hits.newsIds())
+                    .forEach(summary -> consumer.accept(summary, hits.snippets().get(summary.getId())));
+            return hits.facets();
+        }
+        FeedQuery query = FeedQuery.recent()
+                .keyword(request.getText())
+                .category(request.getCategoryId())
+                .source(request.getSourceId())
+                .author(request.getAuthor())
+                .limit(limit);
+        if (request.getPublishedWithin() != null) {
+            query = query.since(LocalDateTime.now().minusHours(request.getPublishedWithin().getHours()));
+        }
+        if (after != null && byRelevance) {
+            query = query.offset(after.getSortValue());
         } else {
-            return newsRepository.searchByKeyword(keyword.trim(), pageable);
+            query = query.after(after);
         }
+        forEachSummary(query, summary -> consumer.accept(summary, null));
+        return SearchFacets.EMPTY;
     }
 
-    // Related news
-    @Cacheable(value = "relatedNews", key = "#news.id + '_' + #limit")
+    /**
+     * The most similar articles by content, read by primary key from the article's precomputed
+     * related ids. Until those are computed, or when some have since gone inactive, the rest is
+     * filled with the latest articles in the same category.
+     */
     public List<News> getRelatedNews(News news, int limit) {
-        if (news.getCategory() == null) {
-            return List.of();
+        List<News> related = new ArrayList<>();
+        if (news.getRelatedIds() != null) {
+            List<Long> ids = Arrays.stream(RelatedNewsService.parse(news.getRelatedIds())).boxed().toList();
+            related.addAll(newsBatchLoader.entities(ids));
+        }
+        if (related.size() >= limit) {
+            return new ArrayList<>(related.subList(0, limit));
+        }
+        if (news.getCategory() != null) {
+            Set<Long> seen = related.stream().map(News::getId).collect(Collectors.toSet());
+            for (News latest : getFeed(FeedQuery.recent().category(news.getCategory().getId())
+                    .excluding(news.getId()).limit(limit + seen.size()))) {
+                if (related.size() < limit && seen.add(latest.getId())) {
+                    related.add(latest);
+                }
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Records a detail page view: the view count, the reader, the trending score, most read and
+     * reads per category. Runs outside the class's read-only transaction: each of these only
+     * buffers in memory, and the buffers are written from the scheduler thread.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordView(News news, String readerKey) {
+        incrementViewCount(news.getId());
+        recordReader(news.getId(), readerKey);
+        trendingService.recordView(news.getId(), categoryId(news), news.getPublishedAt());
+        mostReadService.recordView(news.getId());
+        activityStatsService.recordRead(categoryId(news));
+    }
+
+    /**
+     * Passes the trending articles to the consumer as summaries, in the order of
+     * {@link #getTrendingNews}: highest decayed score first, topped up with the week's most viewed.
+     */
+    public void forEachTrending(int limit, Consumer<NewsSummary> consumer) {
+        Set<Long> ids = new HashSet<>();
+        for (NewsSummary summary : newsBatchLoader.summaries(trendingService.topIds(limit))) {
+            ids.add(summary.getId());
+            consumer.accept(summary);
+        }
+        if (ids.size() < limit) {
+            LocalDateTime since = LocalDateTime.now().minusWeeks(1);
+            forEachSummary(FeedQuery.mostViewed().since(since).limit(limit), summary -> {
+                if (ids.size() < limit && ids.add(summary.getId())) {
+                    consumer.accept(summary);
+                }
+            });
         }
+    }
 
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findRelatedNews(news.getCategory(), news.getId(), pageable);
+    /**
+     * Passes the most read active articles over the window ending now to the consumer with their
+     * estimated views in the window, most views first.
+     */
+    public void forEachMostRead(Duration window, int limit, BiConsumer<NewsSummary, Long> consumer) {
+        Map<Long, Long> views = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (SlidingHeavyHitters.Count count : mostReadService.top(window, limit)) {
+            views.put(count.id(), count.count());
+            ids.add(count.id());
+        }
+        newsBatchLoader.summaries(ids).forEach(summary -> consumer.accept(summary, views.get(summary.getId())));
     }
 
-    // View count operations
-    @Transactional
+    /**
+     * Records a share of the article, which counts more towards trending than a view.
+     * @return false if there is no such active article
+     */
+    public boolean recordShare(Long newsId) {
+        News news = getNewsById(newsId);
+        if (news == null || !Boolean.TRUE.equals(news.getIsActive())) {
+            return false;
+        }
+        trendingService.recordShare(newsId, categoryId(news), news.getPublishedAt());
+        return true;
+    }
+
+    // View count operations: only buffered in memory, outside any transaction; the buffer is
+    // written by the view count service's own flush on the scheduler thread
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void incrementViewCount(Long newsId) {
-        newsRepository.incrementViewCount(newsId);
-        // Clear cache for this specific news item
-        // Note: In a real application, you might want to use @CacheEvict here
+        viewCountService.recordView(newsId);
+    }
+
+    /**
+     * Counts a read towards the article's distinct readers; repeat reads by the same key count once.
+     */
+    public void recordReader(Long newsId, String readerKey) {
+        uniqueReaderService.recordRead(newsId, readerKey);
+    }
+
+    /**
+     * Estimated distinct readers of the article over the last {@code days} days, including reads
+     * not yet flushed. {@link News#getUniqueReaders()} holds the last flushed figure for the default window.
+     */
+    public long getUniqueReaders(Long newsId, int days) {
+        return uniqueReaderService.uniqueReaders(newsId, days);
+    }
+
+    /**
+     * The article's view count including views not yet flushed to the database.
+     */
+    public long getViewCount(News news) {
+        long stored = news.getViewCount() != null ? news.getViewCount() : 0;
+        return stored + viewCountService.pendingViews(news.getId());
     }
 
     @Transactional
     public void updateTrendingStatus(Long newsId, boolean trending) {
         newsRepository.updateTrendingStatus(newsId, trending);
+        contentVersionService.newsChanged(newsId, null);
     }
 
     @Transactional
     public void updateFeaturedStatus(Long newsId, boolean featured) {
         newsRepository.updateFeaturedStatus(newsId, featured);
+        contentVersionService.newsChanged(newsId, null);
+    }
+
+    /**
+     * Makes exactly the given articles featured: at most one statement to feature the new ones and
+     * one to unfeature the rest, and one content version bump for every article that changed.
+     * @return how many articles changed
+     */
+    @Transactional
+    @CacheEvict(value = {"news", "featuredNews"}, allEntries = true)
+    public int setFeaturedNews(Collection<Long> newsIds) {
+        Set<Long> current = new HashSet<>(newsRepository.findFeaturedIds());
+        Set<Long> desired = new HashSet<>(newsIds);
+        Set<Long> added = new HashSet<>(desired);
+        added.removeAll(current);
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(desired);
+        if (!added.isEmpty()) {
+            newsRepository.updateFeaturedStatusByIds(added, true);
+        }
+        if (!removed.isEmpty()) {
+            newsRepository.updateFeaturedStatusByIds(removed, false);
+        }
+        Set<Long> changed = new HashSet<>(added);
+        changed.addAll(removed);
+        contentVersionService.newsChanged(changed);
+        return changed.size();
     }
 
     // Popular content
     public List<News> getPopularNews(int days, int limit) {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findPopularNews(since, pageable);
+        return getFeed(FeedQuery.byTrendingScore().since(since).limit(limit));
     }
 
     // Top viewed news
     @Cacheable(value = "topViewedNews", key = "#limit")
     public List<News> getTopViewedNews(int limit) {
-        return newsRepository.findTop10ByIsActiveTrueOrderByViewCountDesc()
-                .stream()
-                .limit(limit)
-                .toList();
+        return getFeed(FeedQuery.mostViewed().limit(limit));
     }
 
     public List<News> getTopViewedNewsByCategory(Category category, int limit) {
-        return newsRepository.findTop10ByCategoryAndIsActiveTrueOrderByViewCountDesc(category)
-                .stream()
-                .limit(limit)
-                .toList();
+        return getFeed(FeedQuery.mostViewed().category(category.getId()).limit(limit));
+    }
+
+    /**
+     * The category's top {@code news.trending.category-size} trending articles, highest decayed
+     * view and share score first. Ranked in memory and fetched by primary key; shorter, or empty,
+     * in a quiet category.
+     */
+    public List<News> getTrendingNewsByCategory(Category category) {
+        return newsBatchLoader.entities(trendingService.topIds(category.getId()));
     }
 
     // Author-based queries
     public Page<News> getNewsByAuthor(String author, Pageable pageable) {
-        return newsRepository.findByAuthorAndIsActiveTrueOrderByPublishedAtDesc(author, pageable);
+        return getFeedPage(FeedQuery.recent().author(author), pageable);
     }
 
     public List<News> getNewsByAuthor(String author, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findByAuthorAndIsActiveTrueOrderByPublishedAtDesc(author, pageable).getContent();
+        return getFeed(FeedQuery.recent().author(author).limit(limit));
     }
 
     // Source-based queries
     public Page<News> getNewsBySource(NewsSource source, Pageable pageable) {
-        return newsRepository.findBySourceAndIsActiveTrueOrderByPublishedAtDesc(source, pageable);
+        return getFeedPage(FeedQuery.recent().source(source.getId()), pageable);
     }
 
     public List<News> getNewsBySource(NewsSource source, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findBySourceAndIsActiveTrueOrderByPublishedAtDesc(source, pageable).getContent();
+        return getFeed(FeedQuery.recent().source(source.getId()).limit(limit));
     }
 
     // Statistics
@@ -243,7 +538,8 @@ public class NewsService {
     }
 
     public Long getTotalViewCount() {
-        return newsRepository.getTotalViewCount();
+        Long stored = newsRepository.getTotalViewCount();
+        return (stored != null ? stored : 0) + viewCountService.totalPendingViews();
     }
 
     public Long getViewCountByCategory(Category category) {
@@ -269,18 +565,23 @@ public class NewsService {
     public void archiveOldNews(int daysOld) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
         newsRepository.archiveOldNews(cutoffDate);
+        contentVersionService.allContentChanged();
+        eventPublisher.publishEvent(NewsChangeEvent.archived(cutoffDate));
     }
 
     @Transactional
     public void clearOldTrendingStatus(int daysOld) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
         newsRepository.clearOldTrendingStatus(cutoffDate);
+        contentVersionService.allContentChanged();
     }
 
     @Transactional
     @CacheEvict(value = {"allNews", "latestNews", "categoryNews"}, allEntries = true)
     public void migrateCategoryNews(Category oldCategory, Category newCategory) {
         newsRepository.migrateCategoryNews(oldCategory, newCategory);
+        contentVersionService.allContentChanged();
+        eventPublisher.publishEvent(NewsChangeEvent.categoryMigrated(oldCategory.getId(), newCategory.getId()));
     }
 
     // Analytics data
@@ -305,22 +606,14 @@ public class NewsService {
     }
 
     public List<News> getNewsForCategoryRSS(Category category, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return newsRepository.findForCategoryRSS(category, pageable);
+        return getFeed(FeedQuery.recent().category(category.getId()).limit(limit));
     }
 
     // Helper methods for trending calculation
     @Transactional
     public void updateTrendingNews() {
-        // Clear all trending status first
-        clearOldTrendingStatus(7);
-
-        // Get popular news from last week and mark as trending
-        List<News> popularNews = getPopularNews(7, 20);
-
-        for (News news : popularNews) {
-            updateTrendingStatus(news.getId(), true);
-        }
+        // Scores are kept up to date on every view; this only writes the flags that changed
+        trendingService.persist();
     }
 
     // Calculate reading time based on content length
@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.search.RelatedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps each article's most similar articles in {@code news.related_ids}, so the detail page loads
+ * its related news with one primary-key fetch instead of querying per view.
+ *
+ * Similarity is TF-IDF cosine over title, description and body, computed by a {@link RelatedIndex}
+ * built in the background at startup. Stored lists are restored as they are; only articles with
+ * no list yet are linked. After that, committed {@link NewsChangeEvent}s are applied every
+ * {@code news.related.change-interval} ms: a saved article is scored against the articles sharing
+ * its terms and offered to their lists, a deleted one is taken off the lists that held it, and
+ * only the rows whose lists changed are written. Their content versions are bumped with each
+ * write, so conditional GETs stop answering 304 with the old related sidebar.
+ */
+@Service
+public class RelatedNewsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedNewsService.class);
+
+    private static final String LOAD_SQL = "SELECT n.id, n.title, n.description, n.is_active, n.related_ids, " +
+            "b.content FROM news n LEFT JOIN news_body b ON b.news_id = n.id WHERE n.id > ? ORDER BY n.id LIMIT ?";
+    private static final String SELECT_SQL = LOAD_SQL.substring(0, LOAD_SQL.indexOf("WHERE"));
+    private static final String UPDATE_SQL = "UPDATE news SET related_ids = ? WHERE id = ?";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache newsCache;
+    private final ContentVersionService contentVersionService;
+    private final RelatedIndex index;
+    private final ConcurrentLinkedQueue<NewsChangeEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public RelatedNewsService(JdbcTemplate jdbcTemplate,
+                              CacheManager cacheManager,
+                              ContentVersionService contentVersionService,
+                              @Value("${news.related.size:8}") int size,
+                              @Value("${news.related.terms:24}") int terms,
+                              @Value("${news.related.min-score:0.05}") float minScore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newsCache = cacheManager.getCache("news");
+        this.contentVersionService = contentVersionService;
+        this.index = new RelatedIndex(size, terms, minScore);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        try {
+            int linked = load();
+            ready = true;
+            logger.info("Related news ready: {} articles, {} linked in {} ms", index.size(), linked,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Error building related news index", e);
+        }
+    }
+
+    /**
+     * Queues a committed write. Runs on the writing thread right after its commit, so it only records the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChange(NewsChangeEvent event) {
+        if (event.type() == NewsChangeEvent.Type.SAVED || event.type() == NewsChangeEvent.Type.DELETED) {
+            pendingChanges.add(event);
+        }
+    }
+
+    // Changes queued before the build completes are applied right after it
+    @Scheduled(fixedDelayString = "${news.related.change-interval:1000}")
+    public void applyChanges() {
+        if (!ready || pendingChanges.isEmpty()) {
+            return;
+        }
+        try {
+            applyPendingChanges();
+        } catch (Exception e) {
+            logger.error("Error applying changes to related news", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The article's current related ids, most similar first; the same list as {@code news.related_ids}.
+     */
+    public synchronized long[] relatedIds(Long newsId) {
+        return index.neighbors(newsId);
+    }
+
+    // Archived and deleted articles stay out of the index; lists naming them are filtered on read
+    private synchronized int load() {
+        Map<Long, long[]> stored = new HashMap<>();
+        List<Long> unlinked = new ArrayList<>();
+        long[] lastId = {0};
+        int read;
+        do {
+            long from = lastId[0];
+            int[] rows = {0};
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                long id = rs.getLong("id");
+                lastId[0] = id;
+                rows[0]++;
+                if (!rs.getBoolean("is_active")) {
+                    return;
+                }
+                index.load(id, rs.getString("title"), text(rs));
+                String related = rs.getString("related_ids");
+                if (related != null) {
+                    stored.put(id, parse(related));
+                } else {
+                    unlinked.add(id);
+                }
+            }, from, BATCH_SIZE);
+            read = rows[0];
+        } while (read == BATCH_SIZE);
+
+        stored.forEach(index::restore);
+        Set<Long> changed = new LinkedHashSet<>();
+        for (Long id : unlinked) {
+            changed.addAll(index.link(id));
+        }
+        write(changed);
+        return unlinked.size();
+    }
+
+    private synchronized void applyPendingChanges() {
+        Set<Long> saved = new LinkedHashSet<>();
+        Set<Long> changed = new LinkedHashSet<>();
+        for (NewsChangeEvent event; (event = pendingChanges.poll()) != null; ) {
+            if (event.type() == NewsChangeEvent.Type.SAVED) {
+                saved.add(event.newsId());
+            } else {
+                saved.remove(event.newsId());
+                changed.addAll(index.remove(event.newsId()));
+            }
+        }
+        List<Long> ids = new ArrayList<>(saved);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            changed.addAll(reload(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE))));
+        }
+        write(changed);
+    }
+
+    // Re-scores the given articles as they are now; ones that are gone or inactive are removed
+    private Set<Long> reload(List<Long> ids) {
+        Set<Long> changed = new LinkedHashSet<>();
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        String sql = SELECT_SQL + "WHERE n.id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            if (rs.getBoolean("is_active")) {
+                missing.remove(id);
+                changed.addAll(index.add(id, rs.getString("title"), text(rs)));
+            }
+        }, ids.toArray());
+        missing.forEach(id -> changed.addAll(index.remove(id)));
+        return changed;
+    }
+
+    private void write(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            long[] related = index.neighbors(id);
+            rows.add(new Object[]{Arrays.stream(related).mapToObj(Long::toString).collect(Collectors.joining(",")), id});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        if (newsCache != null) {
+            ids.forEach(newsCache::evict);
+        }
+        contentVersionService.newsChanged(ids);
+        logger.debug("Related news lists rewritten for {} articles", ids.size());
+    }
+
+    private static String text(ResultSet rs) throws SQLException {
+        String description = rs.getString("description");
+        String content = rs.getString("content");
+        return (description != null ? description : "") + "\n" + (content != null ? content : "");
+    }
+
+    static long[] parse(String relatedIds) {
+        return relatedIds.isBlank() ? new long[0]
+                : Arrays.stream(relatedIds.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.demo.service;
+
+import com.example.demo.search.IndexedArticle;
+import com.example.demo.search.RankingConfig;
+import com.example.demo.search.SearchHits;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.SearchRequest;
+import com.example.demo.search.Suggester;
+import com.example.demo.search.Suggestion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Owns the in-memory {@link SearchIndex} and the typeahead {@link Suggester}. Both are built in the
+ * background once the application is up. Until the first build completes {@link #isReady()} is
+ * false and callers fall back to SQL.
+ *
+ * Writes made through {@link NewsService} arrive as {@link NewsChangeEvent}s once their transaction
+ * commits, and are applied every {@code search.index.change-interval} ms: saved articles are re-read,
+ * deletions and archive ranges are tombstoned in place. The time from commit to searchable is
+ * recorded as {@code search.index.visibility.lag}. As a safety net for rows inserted behind the
+ * service's back, articles with ids above the last one read are also polled for less often.
+ *
+ * With {@code search.index.directory} set the index is kept on disk: every refresh that found new
+ * articles commits them as a small segment, a scheduled task merges segments, and a restart maps
+ * the committed segments and only reads articles added after the last commit. The suggester is
+ * snapshotted next to the index after each commit. Changes to existing articles are journaled to
+ * {@value #CHANGES_FILE} before they are applied and the journal is cleared by the commit that
+ * makes them durable, so after an unclean shutdown the restart replays them instead of keeping
+ * stale terms and facet counts. Only changes committed in the last change interval before the
+ * crash, not yet journaled, are lost.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final String LOAD_SQL = "SELECT n.id, n.title, n.description, n.category_id, n.source_id, " +
+            "n.author, n.published_at, n.is_active, n.view_count, b.content, " +
+            "c.name AS category_name, s.name AS source_name FROM news n LEFT JOIN news_body b ON b.news_id = n.id " +
+            "LEFT JOIN categories c ON c.id = n.category_id LEFT JOIN news_sources s ON s.id = n.source_id " +
+            "WHERE n.id > ? ORDER BY n.id LIMIT ?";
+
+    private static final String SELECT_SQL = LOAD_SQL.substring(0, LOAD_SQL.indexOf("WHERE"));
+
+    private static final String LAST_NEWS_ID = "lastNewsId";
+    private static final String SUGGEST_FILE = "suggest.bin";
+    private static final String CHANGES_FILE = "changes.log";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RankingConfig ranking;
+    private final int suggestMaxEntries;
+    private final int fuzzyMinHits;
+    // Committed changes waiting to be applied
+    private final ConcurrentLinkedQueue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final Map<NewsChangeEvent.Type, Timer> visibilityLag = new EnumMap<>(NewsChangeEvent.Type.class);
+    // Replaced once by the initial build when a persisted index is opened
+    private volatile SearchIndex index;
+    private volatile Suggester suggester;
+
+    private volatile boolean ready;
+    private long lastLoadedId;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${search.index.directory:}")
+    private String directory;
+
+    @Value("${search.index.flush-docs:10000}")
+    private int flushDocs;
+
+    @Value("${search.index.merge-factor:10}")
+    private int mergeFactor;
+
+    @Value("${search.index.max-merge-docs:250000}")
+    private int maxMergeDocs;
+
+    @Autowired
+    public SearchIndexService(JdbcTemplate jdbcTemplate,
+                              @Value("${search.ranking.title-boost:3.0}") double titleBoost,
+                              @Value("${search.ranking.description-boost:1.5}") double descriptionBoost,
+                              @Value("${search.ranking.content-boost:1.0}") double contentBoost,
+                              @Value("${search.ranking.k1:1.2}") double k1,
+                              @Value("${search.ranking.b:0.75}") double b,
+                              @Value("${search.ranking.recency-half-life-hours:48}") double recencyHalfLifeHours,
+                              @Value("${search.ranking.recency-weight:0.3}") double recencyWeight,
+                              @Value("${search.suggest.max-entries:100000}") int suggestMaxEntries,
+                              @Value("${search.fuzzy.min-hits:3}") int fuzzyMinHits,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ranking = new RankingConfig(titleBoost, descriptionBoost, contentBoost,
+                k1, b, recencyHalfLifeHours, recencyWeight);
+        this.suggestMaxEntries = suggestMaxEntries;
+        this.fuzzyMinHits = fuzzyMinHits;
+        this.index = new SearchIndex(ranking);
+        index.setFuzzyMinHits(fuzzyMinHits);
+        this.suggester = new Suggester(suggestMaxEntries);
+        for (NewsChangeEvent.Type type : NewsChangeEvent.Type.values()) {
+            visibilityLag.put(type, Timer.builder("search.index.visibility.lag")
+                    .description("Time from a news write committing to it being reflected in search")
+                    .tag("change", type.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            logger.info("Search index disabled; searches use SQL");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (StringUtils.hasText(directory)) {
+            try {
+                openPersisted(Path.of(directory));
+            } catch (IOException e) {
+                logger.error("Could not open search index in {}; building it in memory", directory, e);
+                directory = null;
+            }
+        }
+        int loaded = loadNewArticles();
+        // Replayed and early changes go into the first commit, which would otherwise clear their journal
+        applyPendingChanges();
+        commit();
+        ready = true;
+        logger.info("Search index ready: {} articles ({} read from the database), {} segments, {} terms, "
+                        + "{} suggestions in {} ms", index.size(), loaded, index.segmentCount(), index.termCount(),
+                suggester.size(), System.currentTimeMillis() - start);
+    }
+
+    // Maps the committed segments and resumes reading after the last committed article
+    private synchronized void openPersisted(Path path) throws IOException {
+        long committedId = Long.parseLong(SearchIndex.readCommitData(path).getOrDefault(LAST_NEWS_ID, "0"));
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM news", Long.class);
+        if (committedId > (maxId != null ? maxId : 0)) {
+            // The database was reset since the index was written (always the case for in-memory H2
+            // once articles have been added), so the index describes articles that no longer exist
+            logger.warn("Search index in {} is ahead of the database (news id {} > {}); rebuilding it",
+                    path, committedId, maxId);
+            SearchIndex.deleteFiles(path);
+            Files.deleteIfExists(path.resolve(SUGGEST_FILE));
+            Files.deleteIfExists(path.resolve(CHANGES_FILE));
+            committedId = 0;
+        }
+        SearchIndex opened;
+        try {
+            opened = SearchIndex.open(ranking, path);
+        } catch (IOException e) {
+            // Typically segments written in an older format; they are rebuilt from the database
+            logger.warn("Search index in {} could not be opened ({}); rebuilding it", path, e.getMessage());
+            SearchIndex.deleteFiles(path);
+            Files.deleteIfExists(path.resolve(SUGGEST_FILE));
+            Files.deleteIfExists(path.resolve(CHANGES_FILE));
+            committedId = 0;
+            opened = SearchIndex.open(ranking, path);
+        }
+        opened.setFuzzyMinHits(fuzzyMinHits);
+        Path suggestFile = path.resolve(SUGGEST_FILE);
+        if (committedId > 0 && Files.exists(suggestFile)) {
+            suggester = Suggester.readFrom(suggestFile, suggestMaxEntries);
+        }
+        index = opened;
+        lastLoadedId = committedId;
+        // Applied before the last shutdown but never committed; replayed once the build completes
+        int replayed = 0;
+        Path changesFile = path.resolve(CHANGES_FILE);
+        if (Files.exists(changesFile)) {
+            for (String line : Files.readAllLines(changesFile)) {
+                if (!line.isBlank()) {
+                    pendingChanges.add(new PendingChange(parseChange(line), System.nanoTime()));
+                    replayed++;
+                }
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Search index replaying {} uncommitted changes from {}", replayed, changesFile);
+        }
+    }
+
+    // Picks up articles inserted since the last load
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval:30000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        try {
+            int loaded = loadNewArticles();
+            if (loaded > 0) {
+                logger.debug("Search index picked up {} new articles", loaded);
+            }
+            commit();
+        } catch (Exception e) {
+            logger.error("Error refreshing search index", e);
+        }
+    }
+
+    /**
+     * Queues a committed write. Runs on the writing thread right after its commit, so it only records the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChange(NewsChangeEvent event) {
+        if (enabled) {
+            pendingChanges.add(new PendingChange(event, System.nanoTime()));
+        }
+    }
+
+    // Changes queued before the first build completes are applied right after it
+    @Scheduled(fixedDelayString = "${search.index.change-interval:200}")
+    public void applyChanges() {
+        if (!ready || pendingChanges.isEmpty()) {
+            return;
+        }
+        try {
+            applyPendingChanges();
+        } catch (Exception e) {
+            logger.error("Error applying changes to search index", e);
+        }
+    }
+
+    private record PendingChange(NewsChangeEvent event, long committedNanos) {
+    }
+
+    private synchronized void applyPendingChanges() {
+        List<PendingChange> changes = new ArrayList<>();
+        for (PendingChange change; (change = pendingChanges.poll()) != null; ) {
+            changes.add(change);
+        }
+        journal(changes);
+        // Saved articles are re-read once each, after every tombstone in the batch
+        Set<Long> reload = new LinkedHashSet<>();
+        for (PendingChange change : changes) {
+            NewsChangeEvent event = change.event();
+            switch (event.type()) {
+                case SAVED -> reload.add(event.newsId());
+                case DELETED -> {
+                    reload.remove(event.newsId());
+                    index.delete(event.newsId());
+                }
+                case ARCHIVED -> index.deletePublishedBefore(event.publishedBefore());
+                case CATEGORY_MIGRATED -> reload.addAll(index.newsIdsInCategory(event.fromCategoryId()));
+            }
+        }
+        List<Long> ids = new ArrayList<>(reload);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            reloadArticles(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+
+        long now = System.nanoTime();
+        for (PendingChange change : changes) {
+            visibilityLag.get(change.event().type()).record(Duration.ofNanos(now - change.committedNanos()));
+        }
+    }
+
+    // Re-indexes the given articles as they are now; ones that are gone or inactive are removed
+    private void reloadArticles(List<Long> ids) {
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        String sql = SELECT_SQL + "WHERE n.id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            if (rs.getBoolean("is_active")) {
+                missing.remove(id);
+                addArticle(rs);
+            }
+        }, ids.toArray());
+        missing.forEach(index::delete);
+    }
+
+    // Folds small committed segments into larger ones; a no-op for an in-memory index
+    @Scheduled(fixedDelayString = "${search.index.merge-interval:60000}")
+    public void merge() {
+        if (!ready) {
+            return;
+        }
+        try {
+            int merges = 0;
+            while (index.maybeMerge(mergeFactor, maxMergeDocs)) {
+                merges++;
+            }
+            if (merges > 0) {
+                logger.debug("Search index merged {} times, now {} segments", merges, index.segmentCount());
+            }
+        } catch (Exception e) {
+            logger.error("Error merging search index segments", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchHits search(SearchRequest request) {
+        return index.search(request);
+    }
+
+    /**
+     * Typeahead completions for a partially typed query; empty until the first build completes.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        return ready ? suggester.suggest(query, limit) : List.of();
+    }
+
+    public int getIndexedCount() {
+        return index.size();
+    }
+
+    private synchronized int loadNewArticles() {
+        int total = 0;
+        while (true) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            long[] maxId = {lastLoadedId};
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                long id = rs.getLong("id");
+                maxId[0] = Math.max(maxId[0], id);
+                if (rs.getBoolean("is_active")) {
+                    addArticle(rs);
+                    batch.add(id);
+                }
+            }, lastLoadedId, batchSize);
+
+            if (maxId[0] == lastLoadedId) {
+                return total;
+            }
+            lastLoadedId = maxId[0];
+            total += batch.size();
+            // Bounds the work lost if the process dies during a long build
+            if (index.bufferedDocs() >= flushDocs) {
+                commit();
+            }
+        }
+    }
+
+    // Only an article's first indexing credits the suggester, so updates don't inflate its words
+    private void addArticle(ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        if (!index.contains(id)) {
+            suggester.addArticle(rs.getString("title"), rs.getString("category_name"),
+                    rs.getString("source_name"), rs.getLong("view_count"));
+        }
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        index.index(new IndexedArticle(id, rs.getString("title"), rs.getString("description"),
+                rs.getString("content"), rs.getObject("category_id", Long.class),
+                publishedAt != null ? publishedAt.toLocalDateTime() : null,
+                rs.getString("category_name"), rs.getObject("source_id", Long.class),
+                rs.getString("source_name"), rs.getString("author")));
+    }
+
+    private synchronized void commit() {
+        try {
+            if (index.hasUncommittedChanges() && index.commit(Map.of(LAST_NEWS_ID, Long.toString(lastLoadedId)))) {
+                suggester.writeTo(Path.of(directory).resolve(SUGGEST_FILE));
+                // Everything journaled so far has been applied, and is now in the committed segments
+                Files.deleteIfExists(Path.of(directory).resolve(CHANGES_FILE));
+            }
+        } catch (IOException e) {
+            logger.error("Error committing search index", e);
+        }
+    }
+
+    // Appends the changes to the journal, synced, before they touch the index
+    private void journal(List<PendingChange> changes) {
+        if (changes.isEmpty() || !StringUtils.hasText(directory)) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(changes.size());
+        for (PendingChange change : changes) {
+            NewsChangeEvent event = change.event();
+            lines.add(String.join(",", event.type().name(), text(event.newsId()), text(event.publishedBefore()),
+                    text(event.fromCategoryId()), text(event.toCategoryId())));
+        }
+        try {
+            Files.write(Path.of(directory).resolve(CHANGES_FILE), lines, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            logger.error("Error journaling search index changes; they are lost if the process dies before the next commit", e);
+        }
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static NewsChangeEvent parseChange(String line) {
+        String[] fields = line.split(",", -1);
+        return new NewsChangeEvent(NewsChangeEvent.Type.valueOf(fields[0]),
+                fields[1].isEmpty() ? null : Long.valueOf(fields[1]),
+                fields[2].isEmpty() ? null : LocalDateTime.parse(fields[2]),
+                fields[3].isEmpty() ? null : Long.valueOf(fields[3]),
+                fields[4].isEmpty() ? null : Long.valueOf(fields[4]));
+    }
+}
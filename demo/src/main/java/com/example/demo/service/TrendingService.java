@@ -0,0 +1,402 @@
+package com.example.demo.service;
+
+import com.example.demo.stats.DecayedScoreboard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps an exponentially decayed trending score per article, bumped on every view and share, so
+ * trending reflects the last few hours rather than the last hourly batch. The top articles are
+ * read straight from an in-memory ordered {@link DecayedScoreboard}.
+ *
+ * Every {@code news.trending.persist-interval} ms only the difference is written: the scores of
+ * articles that had events since the last write, and the {@code is_trending} flag for articles
+ * that entered or left the top {@code news.trending.size}. Scores are restored from the database
+ * on startup, decayed for the time the application was down.
+ *
+ * Articles published more than {@code news.trending.max-age-days} ago never trend, matching the
+ * week-long window of the old batch job.
+ *
+ * Each category also has its own scoreboard holding the same scores for its articles, so "trending
+ * in" lists are read in O(k) without a query. Committed {@link NewsChangeEvent}s are applied every
+ * {@code news.trending.change-interval} ms: deactivated, deleted and archived articles leave every
+ * board, and moved articles follow their category. A category's page version is bumped when the
+ * top {@code news.trending.category-size} of its board changes.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final String RESTORE_SQL = "SELECT id, category_id, published_at, trending_score, trending_at FROM news " +
+            "WHERE is_active = TRUE AND trending_score > 0 AND published_at >= ?";
+    private static final String FLAGGED_SQL = "SELECT id FROM news WHERE is_trending = TRUE";
+    private static final String SCORE_SQL = "UPDATE news SET trending_score = ?, trending_at = ? WHERE id = ?";
+    private static final String STATUS_SQL = "SELECT id, category_id, is_active FROM news WHERE id IN ";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentVersionService contentVersionService;
+    private final DecayedScoreboard scoreboard;
+    private final long halfLifeMillis;
+    private final double viewWeight;
+    private final double shareWeight;
+    private final int size;
+    private final int categorySize;
+    private final Duration maxAge;
+    private final double minScore;
+    // Publication time of every scored article, to keep old articles out
+    private final Map<Long, Long> publishedAt = new ConcurrentHashMap<>();
+    // Category of every scored article that has one, and the per-category boards
+    private final Map<Long, Long> categoryOf = new ConcurrentHashMap<>();
+    private final Map<Long, DecayedScoreboard> categoryBoards = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<NewsChangeEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+    // The articles flagged is_trending in the database as of the last write
+    private Set<Long> flagged = Set.of();
+    // Each category's top articles as of the last write
+    private final Map<Long, List<Long>> categoryTops = new HashMap<>();
+
+    @Autowired
+    public TrendingService(JdbcTemplate jdbcTemplate,
+                           ContentVersionService contentVersionService,
+                           @Value("${news.trending.half-life-hours:6}") double halfLifeHours,
+                           @Value("${news.trending.view-weight:1}") double viewWeight,
+                           @Value("${news.trending.share-weight:5}") double shareWeight,
+                           @Value("${news.trending.size:20}") int size,
+                           @Value("${news.trending.category-size:5}") int categorySize,
+                           @Value("${news.trending.max-age-days:7}") int maxAgeDays,
+                           @Value("${news.trending.min-score:0.05}") double minScore,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentVersionService = contentVersionService;
+        this.halfLifeMillis = (long) (halfLifeHours * 3_600_000);
+        this.scoreboard = new DecayedScoreboard(halfLifeMillis, System.currentTimeMillis());
+        this.viewWeight = viewWeight;
+        this.shareWeight = shareWeight;
+        this.size = size;
+        this.categorySize = categorySize;
+        this.maxAge = Duration.ofDays(maxAgeDays);
+        this.minScore = minScore;
+        Gauge.builder("news.trending.tracked", scoreboard, DecayedScoreboard::size)
+                .description("Articles with a live trending score")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long newsId, LocalDateTime published) {
+        recordView(newsId, null, published);
+    }
+
+    public void recordView(Long newsId, Long categoryId, LocalDateTime published) {
+        record(newsId, categoryId, published, viewWeight);
+    }
+
+    public void recordShare(Long newsId, LocalDateTime published) {
+        recordShare(newsId, null, published);
+    }
+
+    public void recordShare(Long newsId, Long categoryId, LocalDateTime published) {
+        record(newsId, categoryId, published, shareWeight);
+    }
+
+    /**
+     * Ids of the top trending articles, highest score first; O(k).
+     */
+    public List<Long> topIds(int limit) {
+        return topIds(scoreboard, limit);
+    }
+
+    /**
+     * Ids of the top {@code news.trending.category-size} trending articles in the category.
+     */
+    public List<Long> topIds(Long categoryId) {
+        return topIds(categoryId, categorySize);
+    }
+
+    /**
+     * Ids of the top trending articles in the category, highest score first; O(k) and lock-free.
+     */
+    public List<Long> topIds(Long categoryId, int limit) {
+        DecayedScoreboard board = categoryBoards.get(categoryId);
+        return board != null ? topIds(board, limit) : List.of();
+    }
+
+    private List<Long> topIds(DecayedScoreboard board, int limit) {
+        long now = System.currentTimeMillis();
+        long cutoff = now - maxAge.toMillis();
+        return board.top(limit, now, id -> publishedAt.getOrDefault(id, Long.MIN_VALUE) >= cutoff).stream()
+                .map(DecayedScoreboard.Score::id)
+                .collect(Collectors.toList());
+    }
+
+    public double score(Long newsId) {
+        return scoreboard.score(newsId, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        long now = System.currentTimeMillis();
+        int[] restored = {0};
+        jdbcTemplate.query(RESTORE_SQL, rs -> {
+            Timestamp measured = rs.getTimestamp("trending_at");
+            long at = measured != null ? measured.getTime() : now;
+            long id = rs.getLong("id");
+            double score = rs.getDouble("trending_score");
+            scoreboard.restore(id, score, at);
+            publishedAt.put(id, rs.getTimestamp("published_at").getTime());
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                categoryOf.put(id, categoryId);
+                board(categoryId).restore(id, score, at);
+            }
+            restored[0]++;
+        }, Timestamp.valueOf(LocalDateTime.now().minus(maxAge)));
+        prune(now);
+        flagged = new HashSet<>(jdbcTemplate.queryForList(FLAGGED_SQL, Long.class));
+        logger.info("Trending restored {} scores, {} articles flagged", restored[0], flagged.size());
+    }
+
+    /**
+     * Writes what changed since the last call.
+     * @return how many trending flags changed
+     */
+    @Scheduled(fixedDelayString = "${news.trending.persist-interval:60000}")
+    public synchronized int persist() {
+        try {
+            return persistChanges();
+        } catch (Exception e) {
+            logger.error("Error persisting trending scores", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Queues a committed write. Runs on the writing thread right after its commit, so it only records the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChange(NewsChangeEvent event) {
+        pendingChanges.add(event);
+    }
+
+    @Scheduled(fixedDelayString = "${news.trending.change-interval:1000}")
+    public synchronized void applyChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        try {
+            applyPendingChanges();
+        } catch (Exception e) {
+            logger.error("Error applying changes to trending", e);
+        }
+    }
+
+    private void record(Long newsId, Long categoryId, LocalDateTime published, double weight) {
+        long publishedMillis = published != null ? millis(published) : System.currentTimeMillis();
+        long now = System.currentTimeMillis();
+        if (publishedMillis < now - maxAge.toMillis()) {
+            return;
+        }
+        publishedAt.put(newsId, publishedMillis);
+        scoreboard.add(newsId, weight, now);
+        if (categoryId == null) {
+            return;
+        }
+        Long previous = categoryOf.put(newsId, categoryId);
+        if (categoryId.equals(previous)) {
+            board(categoryId).add(newsId, weight, now);
+        } else {
+            // New to the category: it takes the article's whole score, this event included
+            move(newsId, previous, categoryId, now);
+        }
+    }
+
+    private void applyPendingChanges() {
+        Set<Long> saved = new LinkedHashSet<>();
+        for (NewsChangeEvent event; (event = pendingChanges.poll()) != null; ) {
+            switch (event.type()) {
+                case SAVED -> {
+                    if (publishedAt.containsKey(event.newsId())) {
+                        saved.add(event.newsId());
+                    }
+                }
+                case DELETED -> {
+                    saved.remove(event.newsId());
+                    remove(event.newsId());
+                }
+                case ARCHIVED -> {
+                    long cutoff = millis(event.publishedBefore());
+                    List<Long> archived = new ArrayList<>();
+                    publishedAt.forEach((id, published) -> {
+                        if (published < cutoff) {
+                            archived.add(id);
+                        }
+                    });
+                    archived.forEach(this::remove);
+                    saved.removeAll(archived);
+                }
+                case CATEGORY_MIGRATED -> {
+                    long now = System.currentTimeMillis();
+                    Long fromCategoryId = event.fromCategoryId();
+                    List<Long> moved = new ArrayList<>();
+                    categoryOf.forEach((id, categoryId) -> {
+                        if (categoryId.equals(fromCategoryId)) {
+                            moved.add(id);
+                        }
+                    });
+                    for (Long id : moved) {
+                        categoryOf.put(id, event.toCategoryId());
+                        move(id, event.fromCategoryId(), event.toCategoryId(), now);
+                    }
+                }
+            }
+        }
+        List<Long> ids = new ArrayList<>(saved);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            reload(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    // Takes articles that are gone or inactive off every board and moves the rest to their current category
+    private void reload(List<Long> ids) {
+        long now = System.currentTimeMillis();
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        jdbcTemplate.query(STATUS_SQL + "(" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")", rs -> {
+            long id = rs.getLong("id");
+            if (!rs.getBoolean("is_active")) {
+                return;
+            }
+            missing.remove(id);
+            Long categoryId = rs.getLong("category_id");
+            if (rs.wasNull()) {
+                categoryId = null;
+            }
+            Long previous = categoryId != null ? categoryOf.put(id, categoryId) : categoryOf.remove(id);
+            if (!Objects.equals(previous, categoryId)) {
+                move(id, previous, categoryId, now);
+            }
+        }, ids.toArray());
+        missing.forEach(this::remove);
+    }
+
+    private void move(long newsId, Long fromCategoryId, Long toCategoryId, long now) {
+        if (fromCategoryId != null) {
+            DecayedScoreboard from = categoryBoards.get(fromCategoryId);
+            if (from != null) {
+                from.remove(newsId);
+            }
+        }
+        if (toCategoryId != null) {
+            board(toCategoryId).restore(newsId, scoreboard.score(newsId, now), now);
+        }
+    }
+
+    private void remove(long newsId) {
+        scoreboard.remove(newsId);
+        publishedAt.remove(newsId);
+        Long categoryId = categoryOf.remove(newsId);
+        DecayedScoreboard board = categoryId != null ? categoryBoards.get(categoryId) : null;
+        if (board != null) {
+            board.remove(newsId);
+        }
+    }
+
+    private DecayedScoreboard board(long categoryId) {
+        return categoryBoards.computeIfAbsent(categoryId, id -> new DecayedScoreboard(halfLifeMillis, System.currentTimeMillis()));
+    }
+
+    private void prune(long now) {
+        scoreboard.prune(minScore, now);
+        categoryBoards.values().forEach(board -> board.prune(minScore, now));
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private int persistChanges() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - maxAge.toMillis();
+        List<Long> aged = new ArrayList<>();
+        publishedAt.forEach((id, published) -> {
+            if (published < cutoff) {
+                aged.add(id);
+            }
+        });
+        aged.forEach(this::remove);
+        prune(now);
+
+        Timestamp measuredAt = new Timestamp(now);
+        List<Object[]> scores = new ArrayList<>();
+        for (Long id : scoreboard.drainChanged()) {
+            scores.add(new Object[]{scoreboard.score(id, now), measuredAt, id});
+        }
+        for (Long id : aged) {
+            scores.add(new Object[]{0.0, measuredAt, id});
+        }
+        if (!scores.isEmpty()) {
+            jdbcTemplate.batchUpdate(SCORE_SQL, scores);
+        }
+
+        Set<Long> top = new LinkedHashSet<>(topIds(size));
+        Set<Long> added = new HashSet<>(top);
+        added.removeAll(flagged);
+        Set<Long> removed = new HashSet<>(flagged);
+        removed.removeAll(top);
+        setTrending(added, true);
+        setTrending(removed, false);
+        flagged = top;
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            logger.debug("Trending: {} scores written, {} articles in, {} out", scores.size(), added, removed);
+        }
+        categoryBoards.forEach((categoryId, board) -> {
+            // Scores are written from the main board; the category boards only rank
+            board.drainChanged();
+            List<Long> categoryTop = topIds(board, categorySize);
+            if (!categoryTop.equals(categoryTops.getOrDefault(categoryId, List.of()))) {
+                categoryTops.put(categoryId, categoryTop);
+                contentVersionService.newsChanged(null, categoryId);
+            }
+        });
+        return added.size() + removed.size();
+    }
+
+    // One statement per direction, however many articles move
+    private void setTrending(Collection<Long> ids, boolean trending) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(trending);
+        args.addAll(ids);
+        jdbcTemplate.update("UPDATE news SET is_trending = ? WHERE id IN (" + placeholders + ")", args.toArray());
+        contentVersionService.newsChanged(ids);
+    }
+}
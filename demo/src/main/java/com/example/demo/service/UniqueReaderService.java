@@ -0,0 +1,300 @@
+package com.example.demo.service;
+
+import com.example.demo.stats.HyperLogLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estimates distinct readers per article with one {@link HyperLogLog} sketch per article and day,
+ * so refreshes and repeat visits by the same reader count once. Readers are identified by an
+ * opaque key (a cookie, or a client address) that is only ever hashed.
+ *
+ * Today's sketches live in memory and are merged into {@code news_readers} every
+ * {@code news.readers.flush-interval} ms. Merging is a register-wise maximum, so several nodes
+ * can flush into the same row and a sketch can be written twice without double counting. After
+ * each flush the touched articles' {@code unique_readers} is recomputed over the last
+ * {@code news.readers.window-days} days, for trending and the API; articles whose old days leave
+ * the window are recomputed by a daily job ({@code news.readers.window-cron}).
+ *
+ * Memory is bounded by {@code news.readers.max-live-sketches} times 2^precision bytes: past the
+ * cap a flush is scheduled straight away on the scheduler, never run on the reading (request)
+ * thread, and sketches already written are dropped, to be started afresh. Each row is merged in a
+ * transaction of its own, whatever the caller is running in.
+ */
+@Service
+public class UniqueReaderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueReaderService.class);
+
+    private static final String LOCK_SQL = "SELECT sketch FROM news_readers WHERE news_id = ? AND read_date = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE news_readers SET sketch = ? WHERE news_id = ? AND read_date = ?";
+    private static final String INSERT_SQL = "INSERT INTO news_readers (news_id, read_date, sketch) VALUES (?, ?, ?)";
+    private static final String WINDOW_SQL = "SELECT sketch FROM news_readers WHERE news_id = ? AND read_date >= ?";
+    private static final String UPDATE_NEWS_SQL = "UPDATE news SET unique_readers = ? WHERE id = ?";
+    private static final String EXPIRED_SQL =
+            "SELECT DISTINCT news_id FROM news_readers WHERE read_date >= ? AND read_date < ? ORDER BY news_id";
+    private static final String PURGE_SQL = "DELETE FROM news_readers WHERE read_date < ?";
+    // A dense sketch is 2^precision bytes plus a header; news_readers.sketch holds up to 8192
+    private static final int MAX_PRECISION = 12;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final int precision;
+    private final int windowDays;
+    private final int retentionDays;
+    private final int maxLiveSketches;
+    private final Map<Key, LiveSketch> live = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    private record Key(long newsId, LocalDate day) {
+    }
+
+    // Guarded by the map's per-key locking: only touched inside compute calls
+    private static final class LiveSketch {
+        final HyperLogLog sketch;
+        boolean dirty;
+
+        LiveSketch(int precision) {
+            this.sketch = new HyperLogLog(precision);
+        }
+    }
+
+    @Autowired
+    public UniqueReaderService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               TaskScheduler taskScheduler,
+                               @Value("${news.readers.precision:12}") int precision,
+                               @Value("${news.readers.window-days:7}") int windowDays,
+                               @Value("${news.readers.retention-days:30}") int retentionDays,
+                               @Value("${news.readers.max-live-sketches:5000}") int maxLiveSketches,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskScheduler = taskScheduler;
+        this.precision = precision;
+        this.windowDays = windowDays;
+        this.retentionDays = Math.max(retentionDays, windowDays);
+        this.maxLiveSketches = maxLiveSketches;
+        if (precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("news.readers.precision must be at most " + MAX_PRECISION
+                    + " for sketches to fit news_readers.sketch: " + precision);
+        }
+        new HyperLogLog(precision); // fails fast on a bad precision
+        Gauge.builder("news.readers.live-sketches", live, Map::size)
+                .description("Per-article reader sketches held in memory")
+                .register(meterRegistry);
+    }
+
+    public void recordRead(Long newsId, String readerKey) {
+        long hash = HyperLogLog.hash(readerKey);
+        live.compute(new Key(newsId, LocalDate.now()), (key, s) -> {
+            if (s == null) {
+                s = new LiveSketch(precision);
+            }
+            s.dirty |= s.sketch.add(hash);
+            return s;
+        });
+        if (live.size() > maxLiveSketches && earlyFlushScheduled.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(this::earlyFlush, Instant.now());
+            } catch (TaskRejectedException e) {
+                // Shutting down; the shutdown flush writes what is live
+                earlyFlushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Estimated distinct readers of the article over the last {@code days} days, today included,
+     * counting reads not flushed yet.
+     */
+    public long uniqueReaders(Long newsId, int days) {
+        LocalDate since = LocalDate.now().minusDays(days - 1);
+        HyperLogLog union = readWindow(newsId, since);
+        live.forEach((key, sketch) -> {
+            if (key.newsId() == newsId && !key.day().isBefore(since)) {
+                live.computeIfPresent(key, (k, s) -> {
+                    union.merge(s.sketch);
+                    return s;
+                });
+            }
+        });
+        return union.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${news.readers.flush-interval:60000}")
+    public void flush() {
+        flushLock.lock();
+        flushLocked();
+    }
+
+    private void earlyFlush() {
+        // Cleared first so reads recorded during this flush can schedule the next one
+        earlyFlushScheduled.set(false);
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Recomputes {@code unique_readers} of the articles whose stored days have left the window, which
+     * a flush never touches once nobody new reads them. Days that left up to a window ago are
+     * included, so a missed run is caught up by the next one.
+     */
+    @Scheduled(cron = "${news.readers.window-cron:0 5 0 * * *}")
+    public void refreshExpiredWindows() {
+        try {
+            LocalDate since = LocalDate.now().minusDays(windowDays - 1);
+            List<Long> expired = jdbcTemplate.queryForList(EXPIRED_SQL, Long.class,
+                    Date.valueOf(since.minusDays(windowDays)), Date.valueOf(since));
+            updateUniqueReaders(expired);
+            logger.info("Refreshed distinct readers of {} articles with days leaving the window", expired.size());
+        } catch (Exception e) {
+            logger.error("Error refreshing distinct readers", e);
+        }
+    }
+
+    @Scheduled(cron = "${news.readers.purge-cron:0 30 2 * * *}")
+    public void purgeOldSketches() {
+        try {
+            int purged = jdbcTemplate.update(PURGE_SQL, Date.valueOf(LocalDate.now().minusDays(retentionDays)));
+            logger.info("Purged {} reader sketches older than {} days", purged, retentionDays);
+        } catch (Exception e) {
+            logger.error("Error purging reader sketches", e);
+        }
+    }
+
+    private void flushLocked() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            logger.error("Error flushing reader sketches", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        // Snapshot and clear the dirty sketches; reads landing after this re-dirty them
+        List<Map.Entry<Key, HyperLogLog>> dirty = new ArrayList<>();
+        for (Key key : live.keySet()) {
+            live.computeIfPresent(key, (k, s) -> {
+                if (s.dirty) {
+                    dirty.add(Map.entry(k, s.sketch.copy()));
+                    s.dirty = false;
+                }
+                return s;
+            });
+        }
+        // One row lock at a time, always in the same order, so nodes flushing together never deadlock
+        dirty.sort(Map.Entry.comparingByKey(Comparator.comparingLong(Key::newsId).thenComparing(Key::day)));
+
+        TreeSet<Long> touched = new TreeSet<>();
+        for (Map.Entry<Key, HyperLogLog> entry : dirty) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoRow(entry.getKey(), entry.getValue()));
+                touched.add(entry.getKey().newsId());
+            } catch (RuntimeException e) {
+                // Marked dirty again so the next flush retries; merging twice is harmless
+                live.compute(entry.getKey(), (k, s) -> {
+                    if (s == null) {
+                        s = new LiveSketch(precision);
+                    }
+                    s.sketch.merge(entry.getValue());
+                    s.dirty = true;
+                    return s;
+                });
+                logger.warn("Could not write reader sketch for news {} on {}: {}",
+                        entry.getKey().newsId(), entry.getKey().day(), e.getMessage());
+            }
+        }
+
+        updateUniqueReaders(touched);
+        evictWrittenSketches();
+    }
+
+    // Recomputes unique_readers of the articles over the current window
+    private void updateUniqueReaders(Collection<Long> newsIds) {
+        if (newsIds.isEmpty()) {
+            return;
+        }
+        LocalDate since = LocalDate.now().minusDays(windowDays - 1);
+        List<Object[]> updates = new ArrayList<>(newsIds.size());
+        for (Long newsId : newsIds) {
+            updates.add(new Object[]{readWindow(newsId, since).estimate(), newsId});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_NEWS_SQL, updates);
+    }
+
+    private void mergeIntoRow(Key key, HyperLogLog sketch) {
+        Date day = Date.valueOf(key.day());
+        List<byte[]> stored = jdbcTemplate.query(LOCK_SQL, (rs, row) -> rs.getBytes(1), key.newsId(), day);
+        if (stored.isEmpty()) {
+            jdbcTemplate.update(INSERT_SQL, key.newsId(), day, sketch.toBytes());
+            return;
+        }
+        HyperLogLog merged = HyperLogLog.fromBytes(stored.get(0));
+        if (merged.precision() != precision) {
+            // Written before news.readers.precision changed; the day restarts at the new precision
+            merged = new HyperLogLog(precision);
+        }
+        merged.merge(sketch);
+        jdbcTemplate.update(UPDATE_SQL, merged.toBytes(), key.newsId(), day);
+    }
+
+    // Every stored day of the article since the given one, as one sketch
+    private HyperLogLog readWindow(Long newsId, LocalDate since) {
+        HyperLogLog union = new HyperLogLog(precision);
+        jdbcTemplate.query(WINDOW_SQL, rs -> {
+            HyperLogLog day = HyperLogLog.fromBytes(rs.getBytes(1));
+            if (day.precision() == precision) {
+                union.merge(day);
+            }
+        }, newsId, Date.valueOf(since));
+        return union;
+    }
+
+    // Past days are done with once written; today's are kept unless over the cap, which saves
+    // rewriting a row for readers the sketch has already seen
+    private void evictWrittenSketches() {
+        LocalDate today = LocalDate.now();
+        boolean overCap = live.size() > maxLiveSketches;
+        for (Key key : live.keySet()) {
+            if (overCap || key.day().isBefore(today)) {
+                live.computeIfPresent(key, (k, s) -> s.dirty ? s : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind article view counts. A page view only bumps a striped in-memory counter; the
+ * accumulated deltas are written with one batched {@code view_count = view_count + ?} update
+ * every {@code news.views.flush-interval} ms, so a popular article costs one row write per
+ * interval instead of one per view, and detail pages stay read-only.
+ *
+ * Readers add {@link #pendingViews} to the stored count. Lag is bounded twice: by the flush
+ * interval, and by {@code news.views.max-pending} articles, past which a flush is scheduled to run
+ * straight away on the scheduler, never on the recording (request) thread. Whatever is pending is
+ * flushed on shutdown; a crash loses at most one interval.
+ */
+@Service
+public class ViewCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountService.class);
+
+    private static final String FLUSH_SQL = "UPDATE news SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Cache newsCache;
+    private final int maxPending;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Counters dropped from the map after an idle interval; a recorder may still hold one, so
+    // they are drained once more on the next flush before being forgotten
+    private Map<Long, LongAdder> retired = Map.of();
+    // Deltas taken off the counters by the running flush and not committed yet; readers count them
+    // so the shown count does not dip while the update runs
+    private volatile Map<Long, Long> inFlight = Map.of();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+
+    @Autowired
+    public ViewCountService(JdbcTemplate jdbcTemplate,
+                            TaskScheduler taskScheduler,
+                            CacheManager cacheManager,
+                            @Value("${news.views.max-pending:10000}") int maxPending,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.newsCache = cacheManager.getCache("news");
+        this.maxPending = maxPending;
+        this.flushTimer = Timer.builder("news.views.flush")
+                .description("Time to write the pending view count deltas")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("news.views.flushed")
+                .description("Views written to the database")
+                .register(meterRegistry);
+        Gauge.builder("news.views.pending", pending, Map::size)
+                .description("Articles with views not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long newsId) {
+        pending.computeIfAbsent(newsId, id -> new LongAdder()).increment();
+        if (pending.size() > maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(this::earlyFlush, Instant.now());
+            } catch (TaskRejectedException e) {
+                // Shutting down; the shutdown flush writes what is pending
+                earlyFlushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Views recorded for the article that are not in the database yet.
+     */
+    public long pendingViews(Long newsId) {
+        LongAdder adder = pending.get(newsId);
+        return (adder != null ? adder.sum() : 0) + inFlight.getOrDefault(newsId, 0L);
+    }
+
+    public long totalPendingViews() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        for (long delta : inFlight.values()) {
+            total += delta;
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${news.views.flush-interval:5000}")
+    public void flush() {
+        flushLock.lock();
+        flushLocked();
+    }
+
+    private void earlyFlush() {
+        // Cleared first so views recorded during this flush can schedule the next one
+        earlyFlushScheduled.set(false);
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        // Nothing records any more, so the retired counters can be drained now too
+        flush();
+    }
+
+    private void flushLocked() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            logger.error("Error flushing view counts", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        // Sorted so concurrent writers to the same rows always lock them in the same order
+        Map<Long, Long> deltas = new TreeMap<>();
+        retired.forEach((id, adder) -> addDelta(deltas, id, adder.sumThenReset()));
+        Map<Long, LongAdder> idle = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                addDelta(deltas, entry.getKey(), delta);
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                idle.put(entry.getKey(), entry.getValue());
+            }
+        }
+        retired = idle;
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> batch.add(new Object[]{delta, id}));
+        long start = System.nanoTime();
+        inFlight = deltas;
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            // Put the views back so the next flush retries them
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+            inFlight = Map.of();
+            throw e;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        long views = 0;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            views += entry.getValue();
+            // The cached entity would otherwise show the old stored count once the delta is gone
+            if (newsCache != null) {
+                newsCache.evict(entry.getKey());
+            }
+        }
+        inFlight = Map.of();
+        flushedViews.increment(views);
+    }
+
+    private static void addDelta(Map<Long, Long> deltas, Long newsId, long delta) {
+        if (delta > 0) {
+            deltas.merge(newsId, delta, Long::sum);
+        }
+    }
+}
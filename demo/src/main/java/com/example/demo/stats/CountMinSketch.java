@@ -0,0 +1,84 @@
+package com.example.demo.stats;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch (Cormode and Muthukrishnan): approximate counts of a stream of ids in fixed
+ * memory. Estimates never undercount; they overcount by at most e/width of the total with
+ * probability 1 - e^-depth. Not thread-safe; callers synchronise.
+ */
+public final class CountMinSketch {
+
+    // One seed per row, mixed in before the MurmurHash3 finaliser
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int width;
+    private final int depth;
+    private final int[] counts;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length + ": " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new int[width * depth];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Counts the id {@code count} more times.
+     * @return the new estimate for the id
+     */
+    public long add(long id, int count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(row, id);
+            counts[cell] += count;
+            estimate = Math.min(estimate, Integer.toUnsignedLong(counts[cell]));
+        }
+        total += count;
+        return estimate;
+    }
+
+    public long estimate(long id) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, Integer.toUnsignedLong(counts[cell(row, id)]));
+        }
+        return estimate;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    private int cell(int row, long id) {
+        long hash = id ^ SEEDS[row];
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return row * width + (int) (hash & (width - 1));
+    }
+}
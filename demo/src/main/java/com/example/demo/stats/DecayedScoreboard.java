@@ -0,0 +1,221 @@
+package com.example.demo.stats;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Exponentially decayed scores per id, kept in score order so the top k are read in O(k).
+ *
+ * Uses forward decay: an event of weight w at time t is stored as w * 2^((t - landmark) / halfLife)
+ * instead of decaying every score as time passes. All stored scores shrink by the same factor
+ * over time, so their order never changes and the ordered set needs no maintenance; reads divide
+ * by the factor for "now". When the factor grows too large for doubles the landmark is moved up
+ * and everything is rescaled once, which happens every few dozen half-lives.
+ *
+ * Updates to different ids run concurrently; only the rare rescale stops the world. Reads take
+ * no lock at all: a rescale builds new maps and publishes them together with the new landmark,
+ * so a reader always sees one consistent generation.
+ */
+public final class DecayedScoreboard {
+
+    // 2^64 still leaves doubles plenty of precision for event weights
+    private static final double MAX_EXPONENT = 64;
+
+    public record Score(long id, double score) {
+    }
+
+    private record Entry(double scaled, long id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Double.compare(other.scaled, scaled);
+            return cmp != 0 ? cmp : Long.compare(id, other.id);
+        }
+    }
+
+    // Scores scaled relative to the landmark; ordered is highest score first
+    private record State(long landmark, Map<Long, Double> scaled, ConcurrentSkipListSet<Entry> ordered) {
+    }
+
+    private final double halfLifeMillis;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    // Held shared by writers and exclusively by a rescale, so writers always see the current state
+    private final ReadWriteLock rescaleLock = new ReentrantReadWriteLock();
+    private volatile State state;
+
+    public DecayedScoreboard(long halfLifeMillis, long nowMillis) {
+        if (halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Half-life must be positive: " + halfLifeMillis);
+        }
+        this.halfLifeMillis = halfLifeMillis;
+        this.state = new State(nowMillis, new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>());
+    }
+
+    /**
+     * Adds an event of the given weight, which from now on halves every half-life.
+     */
+    public void add(long id, double weight, long nowMillis) {
+        if (exponent(state, nowMillis) > MAX_EXPONENT) {
+            rescale(nowMillis);
+        }
+        rescaleLock.readLock().lock();
+        try {
+            State current = state;
+            ConcurrentSkipListSet<Entry> ordered = current.ordered();
+            double increment = weight * factor(current, nowMillis);
+            current.scaled().compute(id, (key, old) -> {
+                // Removed before re-adding, so a concurrent reader may briefly miss the id but never sees it twice
+                if (old != null) {
+                    ordered.remove(new Entry(old, id));
+                }
+                double updated = (old != null ? old : 0) + increment;
+                ordered.add(new Entry(updated, id));
+                return updated;
+            });
+            changed.add(id);
+        } finally {
+            rescaleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The id's score decayed to now; 0 if unknown.
+     */
+    public double score(long id, long nowMillis) {
+        State current = state;
+        Double value = current.scaled().get(id);
+        return value != null ? value / factor(current, nowMillis) : 0;
+    }
+
+    /**
+     * Up to k highest scores, decayed to now, skipping ids the filter rejects.
+     */
+    public List<Score> top(int k, long nowMillis, LongPredicate filter) {
+        State current = state;
+        double factor = factor(current, nowMillis);
+        List<Score> top = new ArrayList<>(Math.min(k, 64));
+        for (Iterator<Entry> it = current.ordered().iterator(); it.hasNext() && top.size() < k; ) {
+            Entry entry = it.next();
+            if (filter.test(entry.id())) {
+                top.add(new Score(entry.id(), entry.scaled() / factor));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Forgets ids whose score has decayed below the threshold. Walks up from the lowest score, so
+     * costs about the number of ids removed.
+     * @return how many were removed
+     */
+    public int prune(double minScore, long nowMillis) {
+        rescaleLock.readLock().lock();
+        try {
+            State current = state;
+            double minScaled = minScore * factor(current, nowMillis);
+            int removed = 0;
+            for (Entry entry : current.ordered().descendingSet()) {
+                if (entry.scaled() >= minScaled) {
+                    break;
+                }
+                if (current.scaled().remove(entry.id(), entry.scaled())) {
+                    current.ordered().remove(entry);
+                    changed.remove(entry.id());
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            rescaleLock.readLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        rescaleLock.readLock().lock();
+        try {
+            State current = state;
+            ConcurrentSkipListSet<Entry> ordered = current.ordered();
+            current.scaled().computeIfPresent(id, (key, old) -> {
+                ordered.remove(new Entry(old, id));
+                return null;
+            });
+            changed.remove(id);
+        } finally {
+            rescaleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restores a score measured at an earlier time, e.g. after a restart. Replaces any current score.
+     */
+    public void restore(long id, double score, long atMillis) {
+        rescaleLock.readLock().lock();
+        try {
+            State current = state;
+            ConcurrentSkipListSet<Entry> ordered = current.ordered();
+            double restored = score * factor(current, atMillis);
+            current.scaled().compute(id, (key, old) -> {
+                if (old != null) {
+                    ordered.remove(new Entry(old, id));
+                }
+                ordered.add(new Entry(restored, id));
+                return restored;
+            });
+        } finally {
+            rescaleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The ids whose score went up since the last call, for persisting only what changed.
+     */
+    public Set<Long> drainChanged() {
+        Set<Long> drained = new HashSet<>();
+        for (Iterator<Long> it = changed.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    public int size() {
+        return state.scaled().size();
+    }
+
+    private double exponent(State state, long nowMillis) {
+        return (nowMillis - state.landmark()) / halfLifeMillis;
+    }
+
+    private double factor(State state, long nowMillis) {
+        return Math.pow(2, exponent(state, nowMillis));
+    }
+
+    private void rescale(long nowMillis) {
+        rescaleLock.writeLock().lock();
+        try {
+            State current = state;
+            if (exponent(current, nowMillis) <= MAX_EXPONENT) {
+                return;
+            }
+            double factor = factor(current, nowMillis);
+            Map<Long, Double> scaled = new ConcurrentHashMap<>();
+            ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>();
+            for (Entry entry : current.ordered()) {
+                double rescaled = entry.scaled() / factor;
+                scaled.put(entry.id(), rescaled);
+                ordered.add(new Entry(rescaled, entry.id()));
+            }
+            state = new State(nowMillis, scaled, ordered);
+        } finally {
+            rescaleLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Events per minute over the last day in a fixed ring of 1440 longs. Each slot packs the minute
+ * it counts (high 32 bits) with the count (low 32 bits), so moving a slot on to a new minute and
+ * counting into it is one compare-and-set: no locks, and a reader never sees a count from a
+ * previous day.
+ */
+public final class MinuteCounter {
+
+    public static final int MINUTES = 24 * 60;
+
+    private static final long MINUTE = 60_000;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray slots = new AtomicLongArray(MINUTES);
+
+    public void increment(long nowMillis) {
+        long minute = nowMillis / MINUTE;
+        int slot = (int) (minute % MINUTES);
+        long current;
+        long next;
+        do {
+            current = slots.get(slot);
+            next = current >>> 32 == minute ? current + 1 : minute << 32 | 1;
+        } while (!slots.compareAndSet(slot, current, next));
+    }
+
+    /**
+     * Events over the last {@code minutes} minutes, the current one included.
+     */
+    public long sum(int minutes, long nowMillis) {
+        long sum = 0;
+        for (long count : series(minutes, nowMillis)) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Events in each of the last {@code minutes} minutes, oldest first, ending with the current one.
+     */
+    public long[] series(int minutes, long nowMillis) {
+        int length = Math.max(0, Math.min(minutes, MINUTES));
+        long now = nowMillis / MINUTE;
+        long[] series = new long[length];
+        for (int i = 0; i < length; i++) {
+            long minute = now - length + 1 + i;
+            long value = slots.get((int) (minute % MINUTES));
+            series[i] = value >>> 32 == minute ? value & COUNT_MASK : 0;
+        }
+        return series;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.stats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Most frequent ids over a sliding recent window, in bounded memory: a ring of one-minute
+ * buckets covering the last hour and a ring of one-hour buckets covering the last day. Every
+ * bucket holds a {@link CountMinSketch} of its counts and a bounded list of its heaviest ids.
+ *
+ * A query for a window picks the finest ring that covers it (windows over an hour are rounded up
+ * to whole hours), takes the heavy ids of the buckets in the window as candidates and ranks them
+ * by their summed sketch estimates, so it costs candidates x buckets x depth counter reads
+ * whatever the traffic. An id that was never among a bucket's heaviest is not reported, which
+ * only matters for ids far below the top.
+ */
+public final class SlidingHeavyHitters {
+
+    public static final Duration MAX_WINDOW = Duration.ofDays(1);
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    public record Count(long id, long count) {
+    }
+
+    private final int width;
+    private final int depth;
+    private final int capacity;
+    private final Ring minutes;
+    private final Ring hours;
+
+    /**
+     * @param width    sketch width per bucket (a power of two)
+     * @param depth    sketch depth per bucket
+     * @param capacity heavy ids remembered per bucket; should comfortably exceed the largest k asked for
+     */
+    public SlidingHeavyHitters(int width, int depth, int capacity) {
+        this.width = width;
+        this.depth = depth;
+        this.capacity = capacity;
+        this.minutes = new Ring(MINUTE, 60);
+        this.hours = new Ring(HOUR, 24);
+    }
+
+    public void add(long id, long nowMillis) {
+        minutes.current(nowMillis).add(id, 1);
+        hours.current(nowMillis).add(id, 1);
+    }
+
+    /**
+     * The k most frequent ids over the window ending now, highest count first. Counts are
+     * estimates that may overcount slightly, never undercount.
+     */
+    public List<Count> top(Duration window, int k, long nowMillis) {
+        long windowMillis = Math.min(Math.max(window.toMillis(), MINUTE), MAX_WINDOW.toMillis());
+        Ring ring = windowMillis <= minutes.span() ? minutes : hours;
+        List<Bucket> buckets = ring.covering(nowMillis, windowMillis);
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                candidates.addAll(bucket.heavy.keySet());
+            }
+        }
+        long[] ids = candidates.stream().mapToLong(Long::longValue).toArray();
+        long[] sums = new long[ids.length];
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                for (int i = 0; i < ids.length; i++) {
+                    sums[i] += bucket.sketch.estimate(ids[i]);
+                }
+            }
+        }
+        List<Count> counts = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (sums[i] > 0) {
+                counts.add(new Count(ids[i], sums[i]));
+            }
+        }
+        counts.sort(Comparator.comparingLong(Count::count).reversed().thenComparingLong(Count::id));
+        return counts.size() > k ? new ArrayList<>(counts.subList(0, k)) : counts;
+    }
+
+    private final class Ring {
+        final long bucketMillis;
+        final Bucket[] buckets;
+
+        Ring(long bucketMillis, int size) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new Bucket[size];
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        long span() {
+            return bucketMillis * buckets.length;
+        }
+
+        Bucket bucketFor(long epoch) {
+            return buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        }
+
+        Bucket current(long nowMillis) {
+            long epoch = Math.floorDiv(nowMillis, bucketMillis);
+            Bucket bucket = bucketFor(epoch);
+            bucket.rollTo(epoch);
+            return bucket;
+        }
+
+        // The buckets of the periods overlapping the window, current one included
+        List<Bucket> covering(long nowMillis, long windowMillis) {
+            long now = Math.floorDiv(nowMillis, bucketMillis);
+            int periods = (int) Math.min(buckets.length, (windowMillis + bucketMillis - 1) / bucketMillis);
+            List<Bucket> covering = new ArrayList<>(periods);
+            for (long epoch = now - periods + 1; epoch <= now; epoch++) {
+                Bucket bucket = bucketFor(epoch);
+                synchronized (bucket) {
+                    if (bucket.epoch == epoch) {
+                        covering.add(bucket);
+                    }
+                }
+            }
+            return covering;
+        }
+    }
+
+    private final class Bucket {
+        long epoch = -1;
+        final CountMinSketch sketch = new CountMinSketch(width, depth);
+        // Heaviest ids of the bucket with their estimate when last counted
+        final Map<Long, Long> heavy = new HashMap<>();
+        long lightest;
+
+        synchronized void rollTo(long epoch) {
+            if (this.epoch < epoch) {
+                this.epoch = epoch;
+                sketch.clear();
+                heavy.clear();
+                lightest = 0;
+            }
+        }
+
+        synchronized void add(long id, int count) {
+            offer(id, sketch.add(id, count));
+        }
+
+        private void offer(long id, long estimate) {
+            if (heavy.containsKey(id) || heavy.size() < capacity) {
+                heavy.put(id, estimate);
+                return;
+            }
+            if (estimate <= lightest) {
+                return;
+            }
+            // The cached minimum may be stale (entries only grow), so find the real one
+            Map.Entry<Long, Long> min = null;
+            for (Map.Entry<Long, Long> entry : heavy.entrySet()) {
+                if (min == null || entry.getValue() < min.getValue()) {
+                    min = entry;
+                }
+            }
+            if (estimate > min.getValue()) {
+                heavy.remove(min.getKey());
+                heavy.put(id, estimate);
+                lightest = heavy.values().stream().mapToLong(Long::longValue).min().orElse(0);
+            } else {
+                lightest = min.getValue();
+            }
+        }
+    }
+}
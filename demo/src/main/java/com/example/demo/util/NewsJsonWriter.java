@@ -0,0 +1,170 @@
+package com.example.demo.util;
+
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.search.SearchFacets;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes {@link NewsSummary} projections field by field onto a Jackson generator, honouring the
+ * {@code fields=} selection of the JSON API. Nothing is buffered beyond the generator itself.
+ */
+public final class NewsJsonWriter {
+
+    public enum Field {
+        ID("id"),
+        TITLE("title"),
+        SLUG("slug"),
+        DESCRIPTION("description"),
+        IMAGE_URL("imageUrl"),
+        SOURCE_URL("sourceUrl"),
+        AUTHOR("author"),
+        PUBLISHED_AT("publishedAt"),
+        VIEW_COUNT("viewCount"),
+        UNIQUE_READERS("uniqueReaders"),
+        READING_TIME("readingTime"),
+        FEATURED("featured"),
+        TRENDING("trending"),
+        CATEGORY("category"),
+        SOURCE("source"),
+        CONTENT("content"),
+        SNIPPET("snippet");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+
+        static Field fromJsonName(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equals(name)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private NewsJsonWriter() {
+    }
+
+    /**
+     * Parses a comma separated {@code fields=} parameter. A blank value selects every listing field,
+     * plus the article body when {@code allowContent} is set.
+     * @throws IllegalArgumentException on unknown fields, or {@code content} when not allowed
+     */
+    public static Set<Field> parseFields(String fields, boolean allowContent) {
+        if (fields == null || fields.isBlank()) {
+            Set<Field> all = EnumSet.allOf(Field.class);
+            if (!allowContent) {
+                all.remove(Field.CONTENT);
+            }
+            return all;
+        }
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            Field field = Field.fromJsonName(name.trim());
+            if (field == null || (field == Field.CONTENT && !allowContent)) {
+                throw new IllegalArgumentException("Unsupported field: " + name.trim());
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * Writes one article as a JSON object. {@code content} is only written when selected and non-null.
+     */
+    public static void write(JsonGenerator generator, NewsSummary news, Set<Field> fields, String content)
+            throws IOException {
+        write(generator, news, fields, content, null);
+    }
+
+    /**
+     * Same, with a search snippet (HTML, hits in {@code <mark>}), written when selected and non-null.
+     */
+    public static void write(JsonGenerator generator, NewsSummary news, Set<Field> fields, String content,
+                             String snippet) throws IOException {
+        generator.writeStartObject();
+        for (Field field : fields) {
+            switch (field) {
+                case ID -> writeNumber(generator, field, news.getId());
+                case TITLE -> generator.writeStringField(field.jsonName, news.getTitle());
+                case SLUG -> generator.writeStringField(field.jsonName, news.getSlug());
+                case DESCRIPTION -> generator.writeStringField(field.jsonName, news.getDescription());
+                case IMAGE_URL -> generator.writeStringField(field.jsonName, news.getImageUrl());
+                case SOURCE_URL -> generator.writeStringField(field.jsonName, news.getSourceUrl());
+                case AUTHOR -> generator.writeStringField(field.jsonName, news.getAuthor());
+                case PUBLISHED_AT -> generator.writeStringField(field.jsonName,
+                        DateUtils.formatDateTime(news.getPublishedAt()));
+                case VIEW_COUNT -> writeNumber(generator, field, news.getViewCount());
+                case UNIQUE_READERS -> writeNumber(generator, field, news.getUniqueReaders());
+                case READING_TIME -> writeNumber(generator, field,
+                        news.getReadingTime() != null ? news.getReadingTime().longValue() : null);
+                case FEATURED -> generator.writeBooleanField(field.jsonName, Boolean.TRUE.equals(news.getIsFeatured()));
+                case TRENDING -> generator.writeBooleanField(field.jsonName, Boolean.TRUE.equals(news.getIsTrending()));
+                case CATEGORY -> {
+                    generator.writeObjectFieldStart(field.jsonName);
+                    writeNumber(generator, Field.ID, news.getCategoryId());
+                    generator.writeStringField("name", news.getCategoryName());
+                    generator.writeStringField("slug", news.getCategorySlug());
+                    generator.writeEndObject();
+                }
+                case SOURCE -> generator.writeStringField(field.jsonName, news.getSourceName());
+                case CONTENT -> {
+                    if (content != null) {
+                        generator.writeStringField(field.jsonName, content);
+                    }
+                }
+                case SNIPPET -> {
+                    if (snippet != null) {
+                        generator.writeStringField(field.jsonName, snippet);
+                    }
+                }
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes {@code "facets": {"category": [{"value", "label", "count"}, ...], ...}} into the current object.
+     */
+    public static void writeFacets(JsonGenerator generator, SearchFacets facets) throws IOException {
+        generator.writeObjectFieldStart("facets");
+        writeFacet(generator, "category", facets.categories());
+        writeFacet(generator, "source", facets.sources());
+        writeFacet(generator, "author", facets.authors());
+        writeFacet(generator, "published", facets.published());
+        generator.writeEndObject();
+    }
+
+    private static void writeFacet(JsonGenerator generator, String name, List<SearchFacets.Count> counts)
+            throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (SearchFacets.Count count : counts) {
+            generator.writeStartObject();
+            generator.writeStringField("value", count.value());
+            generator.writeStringField("label", count.label());
+            generator.writeNumberField("count", count.count());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Field field, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field.jsonName);
+        } else {
+            generator.writeNumberField(field.jsonName, value);
+        }
+    }
+}
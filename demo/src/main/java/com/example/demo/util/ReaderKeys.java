@@ -0,0 +1,47 @@
+package com.example.demo.util;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Opaque keys for anonymous readers, used to count distinct readers and to score a reader's shares
+ * once. A reader is known by the {@value #COOKIE} cookie; until the browser sends it back (and for
+ * clients that never do) the address and user agent stand in. Every endpoint derives the key here,
+ * so the page and the beacon agree on who a reader is.
+ */
+public final class ReaderKeys {
+
+    // Anonymous reader id, only used to count distinct readers and their shares
+    public static final String COOKIE = "rid";
+
+    private ReaderKeys() {
+    }
+
+    /**
+     * The reader's key. With {@code issueIfMissing}, a reader without the cookie is sent one and the
+     * response is made private, so a shared cache never hands the cookie to anyone else.
+     */
+    public static String of(HttpServletRequest request, HttpServletResponse response, boolean issueIfMissing) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie != null && !cookie.getValue().isBlank()) {
+            return "c:" + cookie.getValue();
+        }
+        if (issueIfMissing) {
+            Cookie issued = new Cookie(COOKIE, UUID.randomUUID().toString());
+            issued.setPath("/");
+            issued.setHttpOnly(true);
+            issued.setMaxAge((int) Duration.ofDays(365).toSeconds());
+            issued.setAttribute("SameSite", "Lax");
+            response.addCookie(issued);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return "a:" + request.getRemoteAddr() + "|" + request.getHeader(HttpHeaders.USER_AGENT);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class UrlUtils {
+
+    private static final Set<String> TRACKING_PARAMS = Set.of("fbclid", "gclid", "ocid", "cmpid", "smid", "ref", "src");
+
+    private UrlUtils() {
+    }
+
+    /**
+     * A form of an article URL that is the same however the article was linked: scheme, port,
+     * {@code www.}/{@code m.} prefixes, trailing slashes, fragments and tracking parameters are
+     * dropped and the remaining query parameters sorted. Null for a blank URL.
+     */
+    public static String canonicalize(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        if (uri.getHost() == null) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        } else if (host.startsWith("m.")) {
+            host = host.substring(2);
+        }
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        List<String> params = new ArrayList<>();
+        if (uri.getRawQuery() != null) {
+            for (String param : uri.getRawQuery().split("&")) {
+                String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+                if (!param.isEmpty() && !name.startsWith("utm_") && !TRACKING_PARAMS.contains(name)) {
+                    params.add(param);
+                }
+            }
+        }
+        params.sort(null);
+        return host + path + (params.isEmpty() ? "" : "?" + String.join("&", params));
+    }
+}
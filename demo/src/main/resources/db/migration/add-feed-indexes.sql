@@ -0,0 +1,7 @@
+-- Indexes backing the FeedQuery orderings (recency, views, featured, author).
+-- Run once against an existing (MySQL) database; each statement is independent.
+
+CREATE INDEX idx_news_active_published ON news(is_active, published_at);
+CREATE INDEX idx_news_view_count ON news(view_count);
+CREATE INDEX idx_news_featured ON news(is_featured, published_at);
+CREATE INDEX idx_news_author ON news(author);
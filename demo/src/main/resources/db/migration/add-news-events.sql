@@ -0,0 +1,15 @@
+-- Creates news_events, the reader engagement events from the page beacon, and the index the
+-- nightly retention purge deletes by. It has no entity, so ddl-auto=update never creates it.
+-- Run against an existing (MySQL) database before deploying the release with the beacon. The
+-- table is skipped when it already exists; the indexes fail harmlessly on a second run.
+
+CREATE TABLE IF NOT EXISTS news_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    news_id BIGINT NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    event_value BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_news_events_news ON news_events(news_id, event_type);
+CREATE INDEX idx_news_events_created_at ON news_events(created_at);
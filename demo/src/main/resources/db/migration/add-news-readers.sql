@@ -0,0 +1,15 @@
+-- Creates news_readers, the per-article, per-day HyperLogLog sketches of distinct readers.
+-- It has no entity, so ddl-auto=update never creates it. Run against an existing (MySQL)
+-- database before deploying the release with UniqueReaderService. The table is skipped when it
+-- already exists; the index fails harmlessly on a second run.
+-- sketch holds a dense sketch of up to news.readers.precision=12: 2^12 registers and a header.
+
+CREATE TABLE IF NOT EXISTS news_readers (
+    news_id BIGINT NOT NULL,
+    read_date DATE NOT NULL,
+    sketch VARBINARY(8192) NOT NULL,
+    PRIMARY KEY (news_id, read_date),
+    CONSTRAINT fk_news_readers_news FOREIGN KEY (news_id) REFERENCES news(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_news_readers_read_date ON news_readers(read_date);
@@ -0,0 +1,7 @@
+-- Adds the columns the trending scoreboard is persisted in and restored from on start.
+-- They are not mapped on News, so ddl-auto=update never creates them. Run against an existing
+-- (MySQL) database before deploying the release with TrendingService. Not re-runnable: a second
+-- run fails on the duplicate columns and changes nothing.
+
+ALTER TABLE news ADD COLUMN trending_score DOUBLE DEFAULT 0;
+ALTER TABLE news ADD COLUMN trending_at TIMESTAMP NULL;
@@ -0,0 +1,6 @@
+-- Drops the inline news.content column once bodies live in news_body.
+-- Run only after split-news-body.sql and after the release that reads news_body is live and
+-- verified: the old release can no longer run afterwards. Not re-runnable.
+-- This rewrites the news table, so schedule it outside peak hours.
+
+ALTER TABLE news DROP COLUMN content;
@@ -0,0 +1,20 @@
+-- Moves article bodies out of the news table into news_body.
+-- Run against an existing (MySQL) database before deploying the release that maps
+-- News.content as transient. Safe to re-run: already-copied rows are skipped, and
+-- news.content is left in place so the old release keeps working and can be rolled back to.
+-- Drop the column with drop-news-content.sql once the new release is live and verified.
+
+CREATE TABLE IF NOT EXISTS news_body (
+    news_id BIGINT PRIMARY KEY,
+    content TEXT,
+    updated_at TIMESTAMP NULL,
+    CONSTRAINT fk_news_body_news FOREIGN KEY (news_id) REFERENCES news(id) ON DELETE CASCADE
+);
+
+-- Copy bodies across. For very large tables, run this in id ranges
+-- (append "AND n.id BETWEEN :from AND :to") to keep each transaction short.
+INSERT INTO news_body (news_id, content, updated_at)
+SELECT n.id, n.content, n.updated_at
+FROM news n
+WHERE n.content IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM news_body b WHERE b.news_id = n.id);
@@ -1,4 +1,7 @@
 -- Drop tables if they exist
+DROP TABLE IF EXISTS news_events;
+DROP TABLE IF EXISTS news_readers;
+DROP TABLE IF EXISTS news_body;
 DROP TABLE IF EXISTS news;
 DROP TABLE IF EXISTS categories;
 DROP TABLE IF EXISTS news_sources;
@@ -51,7 +54,6 @@ CREATE TABLE news (
     title VARCHAR(255) NOT NULL,
     slug VARCHAR(255) NOT NULL,
     description VARCHAR(500),
-    content TEXT,
     image_url VARCHAR(500),
     source_url VARCHAR(500),
     author VARCHAR(100),
@@ -60,6 +62,10 @@ CREATE TABLE news (
     published_at TIMESTAMP,
     reading_time INT DEFAULT 5,
     view_count BIGINT DEFAULT 0,
+    unique_readers BIGINT DEFAULT 0,
+    trending_score DOUBLE DEFAULT 0,
+    trending_at TIMESTAMP,
+    related_ids VARCHAR(255),
     is_active BOOLEAN DEFAULT TRUE,
     is_featured BOOLEAN DEFAULT FALSE,
     is_trending BOOLEAN DEFAULT FALSE,
@@ -69,10 +75,44 @@ CREATE TABLE news (
     CONSTRAINT fk_news_source FOREIGN KEY (source_id) REFERENCES news_sources(id)
 );
 
+-- Create news_body table (article bodies, kept out of the hot news row)
+CREATE TABLE news_body (
+    news_id BIGINT PRIMARY KEY,
+    content TEXT,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_news_body_news FOREIGN KEY (news_id) REFERENCES news(id) ON DELETE CASCADE
+);
+
+-- Create news_readers table (one HyperLogLog sketch of distinct readers per article and day)
+CREATE TABLE news_readers (
+    news_id BIGINT NOT NULL,
+    read_date DATE NOT NULL,
+    sketch VARBINARY(8192) NOT NULL,
+    PRIMARY KEY (news_id, read_date),
+    CONSTRAINT fk_news_readers_news FOREIGN KEY (news_id) REFERENCES news(id) ON DELETE CASCADE
+);
+
+-- Create news_events table (reader engagement from the page beacon, written in batches;
+-- no foreign key, so events outlive the articles they were about)
+CREATE TABLE news_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    news_id BIGINT NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    event_value BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
 -- Create indexes
 CREATE INDEX idx_news_published_at ON news(published_at);
 CREATE INDEX idx_news_category ON news(category_id);
 CREATE INDEX idx_news_source ON news(source_id);
 CREATE INDEX idx_news_trending ON news(is_trending, view_count);
 CREATE INDEX idx_news_slug ON news(slug);
+CREATE INDEX idx_news_active_published ON news(is_active, published_at);
+CREATE INDEX idx_news_view_count ON news(view_count);
+CREATE INDEX idx_news_readers_read_date ON news_readers(read_date);
+CREATE INDEX idx_news_events_news ON news_events(news_id, event_type);
+CREATE INDEX idx_news_events_created_at ON news_events(created_at);
+CREATE INDEX idx_news_featured ON news(is_featured, published_at);
+CREATE INDEX idx_news_author ON news(author);
 CREATE INDEX idx_categories_slug ON categories(slug);
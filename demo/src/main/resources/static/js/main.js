@@ -26,6 +26,7 @@
         initializeSearch();
         initializeScrollEffects();
         initializeShareButtons();
+        initializeEngagementBeacon();
         initializeLazyLoading();
         initializeBreakingNewsTicker();
         initializeNewsletterForm();
@@ -172,16 +173,15 @@
         }
 
         function fetchSearchSuggestions(query) {
-            // Simulate API call - replace with actual endpoint
-            const mockSuggestions = [
-                'Technology news',
-                'Sports updates',
-                'Political developments',
-                'Entertainment news',
-                'Business trends'
-            ].filter(item => item.toLowerCase().includes(query.toLowerCase()));
-
-            displaySuggestions(mockSuggestions);
+            fetch('/api/suggest?limit=8&q=' + encodeURIComponent(query))
+                .then(response => response.ok ? response.json() : { suggestions: [] })
+                .then(data => {
+                    // Drop responses that arrive after the user kept typing
+                    if (searchInput.value.trim() === query) {
+                        displaySuggestions(data.suggestions.map(suggestion => suggestion.text));
+                    }
+                })
+                .catch(() => hideSuggestions());
         }
 
         function displaySuggestions(suggestions) {
@@ -334,6 +334,55 @@
         });
     }
 
+    // Engagement Beacon: dwell time, scroll depth and shares on an article page, sent in one
+    // batch when the page is hidden so it never competes with loading or reading
+    function initializeEngagementBeacon() {
+        const article = document.querySelector('[data-news-id]');
+        if (!article || !navigator.sendBeacon) return;
+
+        const newsId = Number(article.getAttribute('data-news-id'));
+        let visibleSince = document.visibilityState === 'visible' ? Date.now() : null;
+        let dwell = 0;
+        let maxScroll = 0;
+        let shares = 0;
+
+        window.addEventListener('scroll', throttle(function() {
+            const height = document.documentElement.scrollHeight - window.innerHeight;
+            const depth = height > 0 ? Math.round(window.scrollY / height * 100) : 100;
+            maxScroll = Math.max(maxScroll, Math.min(depth, 100));
+        }, 250), { passive: true });
+
+        document.querySelectorAll('.share-btn, .share-buttons a').forEach(btn => {
+            btn.addEventListener('click', () => shares++);
+        });
+
+        function send() {
+            if (visibleSince !== null) {
+                dwell += Date.now() - visibleSince;
+                visibleSince = null;
+            }
+            const events = [];
+            if (dwell > 0) events.push({ type: 'dwell', newsId: newsId, value: dwell });
+            if (maxScroll > 0) events.push({ type: 'scroll', newsId: newsId, value: maxScroll });
+            for (let i = 0; i < shares; i++) events.push({ type: 'share', newsId: newsId });
+            if (events.length > 0) {
+                navigator.sendBeacon('/api/events', new Blob([JSON.stringify(events)], { type: 'text/plain' }));
+            }
+            dwell = 0;
+            maxScroll = 0;
+            shares = 0;
+        }
+
+        document.addEventListener('visibilitychange', function() {
+            if (document.visibilityState === 'hidden') {
+                send();
+            } else {
+                visibleSince = Date.now();
+            }
+        });
+        window.addEventListener('pagehide', send);
+    }
+
     // Lazy Loading for Images
     function initializeLazyLoading() {
         if ('IntersectionObserver' in window) {
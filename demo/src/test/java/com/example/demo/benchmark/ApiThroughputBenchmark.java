@@ -0,0 +1,154 @@
+package com.example.demo.benchmark;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of the /api/v1/news JSON routes against the HTML pages clients used to scrape.
+ * Runs the full MVC stack in-process through MockMvc on the regular in-memory database,
+ * topped up with generated articles.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test -Dtest=ApiThroughputBenchmark -Dbenchmark.articles=50000
+ * </pre>
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.example.demo=WARN"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApiThroughputBenchmark {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 20_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500);
+
+    private static final String[] WORDS = {
+            "market", "election", "climate", "technology", "health", "economy", "government", "research",
+            "football", "film", "energy", "policy", "startup", "security", "science", "global", "report"
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void populate() {
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE is_active = TRUE", Long.class);
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM news", Long.class);
+        Random random = new Random(11);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> news = new ArrayList<>();
+        List<Object[]> bodies = new ArrayList<>();
+        for (int i = 0; i < ARTICLES; i++) {
+            long id = firstId + i;
+            Timestamp publishedAt = Timestamp.valueOf(now.minusMinutes((long) (ARTICLES - i) * 5));
+            news.add(new Object[]{id, sentence(random, 8), "bench-" + id, sentence(random, 25),
+                    categoryIds.get(random.nextInt(categoryIds.size())), publishedAt,
+                    (long) Math.abs(random.nextGaussian() * 500), random.nextInt(200) == 0, publishedAt});
+            bodies.add(new Object[]{id, sentence(random, 250)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO news (id, title, slug, description, category_id, published_at, " +
+                "view_count, is_active, is_featured, is_trending, reading_time, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?, FALSE, 5, ?, CURRENT_TIMESTAMP)", news);
+        jdbcTemplate.batchUpdate("INSERT INTO news_body (news_id, content) VALUES (?, ?)", bodies);
+    }
+
+    @Test
+    void apiVersusHtml() throws Exception {
+        Random random = new Random(42);
+        List<LatencyRecorder> recorders = new ArrayList<>();
+
+        recorders.add(run("html home page", () -> "/"));
+        recorders.add(run("json latest (limit 12)", () -> "/api/v1/news?limit=12"));
+        recorders.add(run("json latest (3 fields, limit 100)", () -> "/api/v1/news?limit=100&fields=id,title,publishedAt"));
+        recorders.add(run("json trending (limit 10)", () -> "/api/v1/news/trending?limit=10"));
+        recorders.add(run("json search", () -> "/api/v1/news/search?limit=12&q=" + WORDS[random.nextInt(WORDS.length)]));
+        recorders.add(run("json article", () -> "/api/v1/news/" + (1 + random.nextInt(ARTICLES))));
+
+        // Walk deep into the feed: keyset cursors keep late pages as cheap as the first
+        String[] cursor = {null};
+        recorders.add(run("json latest, following nextCursor", () -> {
+            String url = "/api/v1/news?limit=20&fields=id";
+            return cursor[0] != null ? url + "&cursor=" + cursor[0] : url;
+        }, result -> cursor[0] = nextCursor(result)));
+
+        recorders.forEach(recorder -> System.out.println(recorder.report()));
+        assertThat(recorders).allSatisfy(recorder -> assertThat(recorder.getCount()).isEqualTo(ITERATIONS));
+    }
+
+    private interface UrlSource {
+        String next();
+    }
+
+    private interface ResultHandler {
+        void handle(MvcResult result) throws Exception;
+    }
+
+    private LatencyRecorder run(String name, UrlSource urls) throws Exception {
+        return run(name, urls, result -> { });
+    }
+
+    private LatencyRecorder run(String name, UrlSource urls, ResultHandler handler) throws Exception {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            handler.handle(perform(urls.next()));
+        }
+        LatencyRecorder recorder = new LatencyRecorder(name, ITERATIONS);
+        recorder.start();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long t0 = System.nanoTime();
+            MvcResult result = perform(urls.next());
+            recorder.record(System.nanoTime() - t0);
+            handler.handle(result);
+        }
+        recorder.stop();
+        return recorder;
+    }
+
+    private MvcResult perform(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        assertThat(result.getResponse().getStatus()).as(url).isEqualTo(200);
+        return result;
+    }
+
+    private static String nextCursor(MvcResult result) throws Exception {
+        String body = result.getResponse().getContentAsString();
+        int start = body.indexOf("\"nextCursor\":\"");
+        if (start < 0) {
+            return null;
+        }
+        start += "\"nextCursor\":\"".length();
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
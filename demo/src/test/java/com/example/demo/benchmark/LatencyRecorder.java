@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Minimal latency recorder shared by the opt-in benchmarks.
+ * Samples are kept as raw nanoseconds so percentiles are exact.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] samples;
+    private int count;
+    private long startedAt;
+    private long finishedAt;
+
+    public LatencyRecorder(String name, int expectedSamples) {
+        this.name = name;
+        this.samples = new long[Math.max(16, expectedSamples)];
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+    }
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public void stop() {
+        finishedAt = System.nanoTime();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double throughputPerSecond() {
+        long elapsed = finishedAt - startedAt;
+        return elapsed <= 0 ? 0 : count * 1_000_000_000.0 / elapsed;
+    }
+
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    public String report() {
+        return String.format("%-40s %8d ops %10.1f ops/s   p50 %8.3f ms   p95 %8.3f ms   p99 %8.3f ms",
+                name, count, throughputPerSecond(),
+                percentileMillis(50), percentileMillis(95), percentileMillis(99));
+    }
+}
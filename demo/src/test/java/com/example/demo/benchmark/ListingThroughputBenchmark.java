@@ -0,0 +1,262 @@
+package com.example.demo.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing throughput with article bodies inline in the news row versus split out into news_body.
+ * Runs against a file-backed H2 database under target/benchmark so 1M articles fit on a laptop.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test -Dtest=ListingThroughputBenchmark -Dbenchmark.articles=1000000
+ * </pre>
+ */
+class ListingThroughputBenchmark {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 1_000_000);
+    private static final int BODY_CHARS = Integer.getInteger("benchmark.bodyChars", 1_500);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final int CATEGORIES = 8;
+    private static final int PAGE_SIZE = 12;
+
+    private static final Path DB_DIR = Paths.get("target", "benchmark", "listing");
+
+    // Columns Hibernate selects for a News listing, before and after the split
+    private static final String NARROW_COLUMNS = "id, title, slug, description, image_url, source_url, author, " +
+            "category_id, source_id, published_at, reading_time, view_count, is_active, is_featured, is_trending, " +
+            "created_at, updated_at";
+    private static final String INLINE_COLUMNS = NARROW_COLUMNS + ", content";
+
+    private static final String[] WORDS = {
+            "market", "election", "climate", "technology", "health", "economy", "government", "research",
+            "football", "film", "energy", "policy", "startup", "security", "science", "global", "report",
+            "interest", "rate", "inflation", "court", "space", "mission", "vaccine", "summit", "record"
+    };
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        deleteDirectory(DB_DIR);
+        Files.createDirectories(DB_DIR);
+        connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + DB_DIR.toAbsolutePath().resolve("newsdb") + ";MODE=MySQL", "sa", "");
+        createSchema();
+        long start = System.currentTimeMillis();
+        populate();
+        System.out.printf("Loaded %,d articles (%,d body chars each) in %,d ms%n",
+                ARTICLES, BODY_CHARS, System.currentTimeMillis() - start);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+        deleteDirectory(DB_DIR);
+    }
+
+    @Test
+    void listingThroughput() throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime weekAgo = LocalDateTime.now().minusWeeks(1);
+
+        String latest = "SELECT %s FROM %s WHERE is_active = TRUE ORDER BY published_at DESC LIMIT ? OFFSET ?";
+        String category = "SELECT %s FROM %s WHERE is_active = TRUE AND category_id = ? " +
+                "ORDER BY published_at DESC LIMIT ? OFFSET ?";
+        String trending = "SELECT %s FROM %s WHERE is_active = TRUE AND published_at >= ? " +
+                "ORDER BY view_count DESC, published_at DESC LIMIT 10";
+
+        for (String[] layout : new String[][]{{"inline", "news_inline", INLINE_COLUMNS}, {"split", "news", NARROW_COLUMNS}}) {
+            String label = layout[0];
+            String table = layout[1];
+            String columns = layout[2];
+
+            LatencyRecorder latestRecorder = run(label + " latest page",
+                    String.format(latest, columns, table), statement -> {
+                        statement.setInt(1, PAGE_SIZE);
+                        statement.setInt(2, random.nextInt(50) * PAGE_SIZE);
+                    });
+            LatencyRecorder categoryRecorder = run(label + " category page",
+                    String.format(category, columns, table), statement -> {
+                        statement.setLong(1, 1 + random.nextInt(CATEGORIES));
+                        statement.setInt(2, PAGE_SIZE);
+                        statement.setInt(3, random.nextInt(50) * PAGE_SIZE);
+                    });
+            LatencyRecorder trendingRecorder = run(label + " trending (last 7 days)",
+                    String.format(trending, columns, table),
+                    // Jitter the cutoff so H2 cannot reuse the previous result set
+                    statement -> statement.setTimestamp(1, Timestamp.valueOf(weekAgo.plusSeconds(random.nextInt(3600)))));
+
+            System.out.println(latestRecorder.report());
+            System.out.println(categoryRecorder.report());
+            System.out.println(trendingRecorder.report());
+            assertThat(latestRecorder.getCount()).isEqualTo(ITERATIONS);
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private LatencyRecorder run(String name, String sql, Binder binder) throws SQLException {
+        LatencyRecorder recorder = new LatencyRecorder(name, ITERATIONS);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            // Warm up page cache and query plans before measuring
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                binder.bind(statement);
+                drain(statement);
+            }
+            recorder.start();
+            for (int i = 0; i < ITERATIONS; i++) {
+                long t0 = System.nanoTime();
+                binder.bind(statement);
+                drain(statement);
+                recorder.record(System.nanoTime() - t0);
+            }
+            recorder.stop();
+        }
+        return recorder;
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int c = 1; c <= columns; c++) {
+                    rs.getObject(c);
+                }
+            }
+        }
+    }
+
+    private static void createSchema() throws SQLException {
+        String newsColumns = "id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, slug VARCHAR(255) NOT NULL, " +
+                "description VARCHAR(500), %s image_url VARCHAR(500), source_url VARCHAR(500), author VARCHAR(100), " +
+                "category_id BIGINT NOT NULL, source_id BIGINT, published_at TIMESTAMP, reading_time INT DEFAULT 5, " +
+                "view_count BIGINT DEFAULT 0, is_active BOOLEAN DEFAULT TRUE, is_featured BOOLEAN DEFAULT FALSE, " +
+                "is_trending BOOLEAN DEFAULT FALSE, created_at TIMESTAMP, updated_at TIMESTAMP";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE news_inline (" + String.format(newsColumns, "content TEXT,") + ")");
+            statement.execute("CREATE TABLE news (" + String.format(newsColumns, "") + ")");
+            statement.execute("CREATE TABLE news_body (news_id BIGINT PRIMARY KEY, content TEXT, updated_at TIMESTAMP)");
+        }
+    }
+
+    private static void createIndexes(String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_" + table + "_published_at ON " + table + "(published_at)");
+            statement.execute("CREATE INDEX idx_" + table + "_category ON " + table + "(category_id)");
+            statement.execute("CREATE INDEX idx_" + table + "_trending ON " + table + "(is_trending, view_count)");
+        }
+    }
+
+    private static void populate() throws SQLException {
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        connection.setAutoCommit(false);
+        String narrowInsert = "INSERT INTO news (id, title, slug, description, image_url, source_url, author, category_id, " +
+                "source_id, published_at, reading_time, view_count, is_active, is_featured, is_trending, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?, ?)";
+        String inlineInsert = "INSERT INTO news_inline (id, title, slug, description, image_url, source_url, author, category_id, " +
+                "source_id, published_at, reading_time, view_count, is_active, is_featured, is_trending, created_at, updated_at, content) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?, ?, ?)";
+        try (PreparedStatement narrow = connection.prepareStatement(narrowInsert);
+             PreparedStatement inline = connection.prepareStatement(inlineInsert);
+             PreparedStatement body = connection.prepareStatement(
+                     "INSERT INTO news_body (news_id, content, updated_at) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= ARTICLES; id++) {
+                String title = sentence(random, 8);
+                String content = text(random, BODY_CHARS);
+                // Publication times spread over a year, newest ids most recent
+                Timestamp publishedAt = Timestamp.valueOf(now.minusSeconds((long) (ARTICLES - id) * 31_536_000L / ARTICLES));
+                long viewCount = (long) Math.abs(random.nextGaussian() * 500);
+                for (PreparedStatement statement : new PreparedStatement[]{narrow, inline}) {
+                    statement.setLong(1, id);
+                    statement.setString(2, title);
+                    statement.setString(3, "article-" + id);
+                    statement.setString(4, sentence(random, 25));
+                    statement.setString(5, "https://images.example.com/" + id + ".jpg");
+                    statement.setString(6, "https://source.example.com/articles/" + id);
+                    statement.setString(7, "Author " + random.nextInt(500));
+                    statement.setLong(8, 1 + random.nextInt(CATEGORIES));
+                    statement.setLong(9, 1 + random.nextInt(4));
+                    statement.setTimestamp(10, publishedAt);
+                    statement.setInt(11, 1 + BODY_CHARS / 1000);
+                    statement.setLong(12, viewCount);
+                    statement.setBoolean(13, random.nextInt(100) == 0);
+                    statement.setBoolean(14, random.nextInt(50) == 0);
+                    statement.setTimestamp(15, publishedAt);
+                    statement.setTimestamp(16, publishedAt);
+                }
+                inline.setString(17, content);
+                body.setLong(1, id);
+                body.setString(2, content);
+                body.setTimestamp(3, publishedAt);
+                narrow.addBatch();
+                inline.addBatch();
+                body.addBatch();
+                if (id % 1_000 == 0) {
+                    narrow.executeBatch();
+                    inline.executeBatch();
+                    body.executeBatch();
+                    connection.commit();
+                }
+            }
+            narrow.executeBatch();
+            inline.executeBatch();
+            body.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        createIndexes("news_inline");
+        createIndexes("news");
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String text(Random random, int chars) {
+        StringBuilder sb = new StringBuilder(chars + 16);
+        while (sb.length() < chars) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.substring(0, chars);
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.search.SearchSort;
+import com.example.demo.service.NewsService;
+import com.example.demo.service.SearchIndexService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and throughput of {@link NewsService#searchNews} served from the search index versus
+ * the SQL LIKE fallback it uses while the index is building, over a generated corpus.
+ *
+ * The corpus mimics the news table: words follow a Zipf distribution over a 50k word vocabulary,
+ * titles run 6-14 words, descriptions 15-35 and bodies around {@code benchmark.bodyWords}; a few
+ * categories, sources and authors carry most articles, publication times span a year and view
+ * counts are log-normal. It is written to a file-backed H2 database and indexed into on-disk
+ * segments under target/benchmark, so 1M articles fit in the profile's 2 GB heap.
+ *
+ * The query log mixes single terms, two-term queries, quoted phrases taken from real titles,
+ * category-filtered queries and deep pages (page 20-50). Pass {@code -Dbenchmark.queryLog=file}
+ * to replay your own instead: one query per line, optionally followed by a tab and a category id
+ * and another tab and a page number. Everything runs offline.
+ *
+ * The LIKE path matches the query as one raw substring, so its hit counts are reported alongside
+ * for comparison: quoted phrases, for one, find nothing there.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test -Dtest=SearchBenchmark -Dbenchmark.articles=100000
+ * ./mvnw -Pbenchmark test -Dtest=SearchBenchmark -Dbenchmark.articles=1000000 -Dbenchmark.likeIterations=10
+ * </pre>
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.example.demo=WARN",
+        "search.index.refresh-interval=3600000",
+        "search.index.merge-interval=3600000",
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchBenchmark {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 100_000);
+    private static final int BODY_WORDS = Integer.getInteger("benchmark.bodyWords", 250);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500);
+    // LIKE scans every row, so it gets far fewer samples
+    private static final int LIKE_ITERATIONS = Integer.getInteger("benchmark.likeIterations", 30);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 4);
+    private static final String QUERY_LOG = System.getProperty("benchmark.queryLog");
+    private static final int PAGE_SIZE = 12;
+
+    private static final Path DIR = Paths.get("target", "benchmark", "search");
+    private static final int VOCABULARY = 50_000;
+    private static final int AUTHORS = 2_000;
+
+    // The most frequent words; the long tail is made up from syllables
+    private static final String[] HEAD_WORDS = {
+            "government", "market", "report", "people", "company", "president", "election", "police",
+            "court", "economy", "world", "city", "minister", "health", "school", "energy", "climate",
+            "technology", "football", "film", "research", "policy", "security", "science", "global",
+            "interest", "rate", "inflation", "space", "mission", "vaccine", "summit", "record", "trade",
+            "border", "budget", "union", "strike", "storm", "flood", "bank", "price", "oil", "startup",
+            "investor", "league", "season", "coach", "festival", "museum", "study", "hospital", "crisis"
+    };
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "sa", "te", "vo", "zi", "pa", "dor", "len", "mar", "tis", "bel",
+            "cor", "fen", "gal", "hur", "jin"
+    };
+
+    private enum Kind {
+        TERM("single term"),
+        TERMS("two terms"),
+        PHRASE("quoted phrase"),
+        CATEGORY("term in category"),
+        DEEP_PAGE("term, page 20-50");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Query(Kind kind, String text, Long categoryId, int page) {
+    }
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String[] vocabulary = new String[VOCABULARY];
+    private double[] wordWeights;
+    private final List<String> sampleTitles = new ArrayList<>();
+    private List<Long> categoryIds;
+
+    // DataSourceConfig pins an in-memory database, which would not hold 1M bodies in the heap
+    @TestConfiguration
+    static class FileDatabase {
+
+        @Bean
+        DataSource dataSource() {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:h2:file:" + DIR.toAbsolutePath().resolve("newsdb")
+                    + ";MODE=MySQL;DATABASE_TO_UPPER=false;CASE_INSENSITIVE_IDENTIFIERS=true");
+            config.setUsername("sa");
+            config.setPassword("");
+            config.setMaximumPoolSize(THREADS + 2);
+            return new HikariDataSource(config);
+        }
+    }
+
+    @DynamicPropertySource
+    static void benchmarkDirectory(DynamicPropertyRegistry registry) throws IOException {
+        deleteDirectory(DIR);
+        Files.createDirectories(DIR);
+        registry.add("search.index.directory", () -> DIR.toAbsolutePath().resolve("index").toString());
+    }
+
+    @BeforeAll
+    void populate() throws InterruptedException {
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = i < HEAD_WORDS.length ? HEAD_WORDS[i] : madeUpWord(i);
+        }
+        wordWeights = zipfCumulative(VOCABULARY, 1.0);
+        categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE is_active = TRUE", Long.class);
+        List<Long> sourceIds = jdbcTemplate.queryForList("SELECT id FROM news_sources", Long.class);
+        double[] categoryWeights = zipfCumulative(categoryIds.size(), 1.0);
+        double[] authorWeights = zipfCumulative(AUTHORS, 1.2);
+
+        // The startup build runs over the seed data; the generated articles are indexed below
+        while (!searchIndexService.isReady()) {
+            Thread.sleep(50);
+        }
+
+        long start = System.currentTimeMillis();
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM news", Long.class);
+        List<Object[]> news = new ArrayList<>();
+        List<Object[]> bodies = new ArrayList<>();
+        for (int i = 0; i < ARTICLES; i++) {
+            long id = firstId + i;
+            String title = words(random, 6 + random.nextInt(9));
+            if (sampleTitles.size() < 10_000 && random.nextInt(10) == 0) {
+                sampleTitles.add(title);
+            }
+            int bodyWords = Math.max(20, (int) (BODY_WORDS + random.nextGaussian() * BODY_WORDS / 3));
+            Timestamp publishedAt = Timestamp.valueOf(now.minusSeconds((long) (ARTICLES - i) * 31_536_000L / ARTICLES));
+            news.add(new Object[]{id, title, "bench-" + id, words(random, 15 + random.nextInt(21)),
+                    "https://source.example.com/articles/" + id, "Author " + sample(random, authorWeights),
+                    categoryIds.get(sample(random, categoryWeights)),
+                    sourceIds.isEmpty() ? null : sourceIds.get(random.nextInt(sourceIds.size())),
+                    publishedAt, 1 + bodyWords / 200, (long) Math.exp(4 + random.nextGaussian() * 1.5),
+                    random.nextInt(100) == 0, publishedAt});
+            bodies.add(new Object[]{id, words(random, bodyWords)});
+            if (news.size() == 2_000 || i == ARTICLES - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO news (id, title, slug, description, source_url, author, " +
+                        "category_id, source_id, published_at, reading_time, view_count, is_active, is_featured, " +
+                        "is_trending, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, FALSE, ?)", news);
+                jdbcTemplate.batchUpdate("INSERT INTO news_body (news_id, content) VALUES (?, ?)", bodies);
+                news.clear();
+                bodies.clear();
+            }
+        }
+        System.out.printf("Generated %,d articles (~%d body words) in %,d ms%n",
+                ARTICLES, BODY_WORDS, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        searchIndexService.refresh();
+        System.out.printf("Indexed %,d articles in %,d ms%n",
+                searchIndexService.getIndexedCount(), System.currentTimeMillis() - start);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        deleteDirectory(DIR.resolve("index"));
+    }
+
+    @Test
+    void indexVersusLike() throws Exception {
+        List<Query> log = QUERY_LOG != null ? loadQueryLog(Path.of(QUERY_LOG)) : generateQueryLog(new Random(42), 5_000);
+        Map<Kind, List<Query>> byKind = new EnumMap<>(Kind.class);
+        for (Query query : log) {
+            byKind.computeIfAbsent(query.kind(), k -> new ArrayList<>()).add(query);
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (boolean indexed : new boolean[]{true, false}) {
+            setIndexServing(indexed);
+            String path = indexed ? "index" : "LIKE";
+            int iterations = indexed ? ITERATIONS : LIKE_ITERATIONS;
+            for (Map.Entry<Kind, List<Query>> entry : byKind.entrySet()) {
+                long[] hits = {0};
+                LatencyRecorder recorder = run(path + " " + entry.getKey().label, entry.getValue(), iterations,
+                        page -> hits[0] += page.getTotalElements());
+                lines.add(recorder.report() + String.format("   avg hits %,d", hits[0] / Math.max(1, recorder.getCount())));
+                assertThat(recorder.getCount()).isEqualTo(iterations);
+            }
+            lines.add(concurrent(path + " mixed, " + THREADS + " threads", log, iterations * 2).report());
+        }
+        setIndexServing(true);
+        lines.forEach(System.out::println);
+    }
+
+    private interface PageHandler {
+        void handle(Page<?> page);
+    }
+
+    private LatencyRecorder run(String name, List<Query> queries, int iterations, PageHandler handler) {
+        for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+            search(queries.get(i % queries.size()));
+        }
+        LatencyRecorder recorder = new LatencyRecorder(name, iterations);
+        recorder.start();
+        for (int i = 0; i < iterations; i++) {
+            Query query = queries.get(i % queries.size());
+            long t0 = System.nanoTime();
+            Page<?> page = search(query);
+            recorder.record(System.nanoTime() - t0);
+            handler.handle(page);
+        }
+        recorder.stop();
+        return recorder;
+    }
+
+    // The whole log spread over THREADS callers; throughput is what matters here
+    private LatencyRecorder concurrent(String name, List<Query> queries, int iterations) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder(name, iterations);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> workers = new ArrayList<>();
+            recorder.start();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    long[] samples = new long[iterations];
+                    int count = 0;
+                    for (int i = next.getAndIncrement(); i < iterations; i = next.getAndIncrement()) {
+                        long t0 = System.nanoTime();
+                        search(queries.get(i % queries.size()));
+                        samples[count++] = System.nanoTime() - t0;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            for (Future<long[]> worker : workers) {
+                for (long sample : worker.get()) {
+                    recorder.record(sample);
+                }
+            }
+            recorder.stop();
+        } finally {
+            executor.shutdownNow();
+        }
+        return recorder;
+    }
+
+    private Page<?> search(Query query) {
+        return newsService.searchNews(query.text(), query.categoryId(), SearchSort.RELEVANCE,
+                PageRequest.of(query.page(), PAGE_SIZE));
+    }
+
+    // NewsService falls back to LIKE while the index is not ready
+    private void setIndexServing(boolean serving) {
+        ReflectionTestUtils.setField(searchIndexService, "ready", serving);
+    }
+
+    private List<Query> generateQueryLog(Random random, int size) {
+        List<Query> log = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int roll = random.nextInt(100);
+            if (roll < 40) {
+                log.add(new Query(Kind.TERM, queryWord(random), null, 0));
+            } else if (roll < 60) {
+                log.add(new Query(Kind.TERMS, queryWord(random) + " " + queryWord(random), null, 0));
+            } else if (roll < 75) {
+                String[] title = sampleTitles.get(random.nextInt(sampleTitles.size())).split(" ");
+                int start = random.nextInt(title.length - 1);
+                log.add(new Query(Kind.PHRASE, "\"" + title[start] + " " + title[start + 1] + "\"", null, 0));
+            } else if (roll < 90) {
+                log.add(new Query(Kind.CATEGORY, queryWord(random), categoryIds.get(random.nextInt(categoryIds.size())), 0));
+            } else {
+                // Deep pages only make sense for common words
+                log.add(new Query(Kind.DEEP_PAGE, vocabulary[random.nextInt(HEAD_WORDS.length)], null, 20 + random.nextInt(31)));
+            }
+        }
+        return log;
+    }
+
+    // Users search for moderately common words far more often than for the very rarest
+    private String queryWord(Random random) {
+        return vocabulary[Math.min(VOCABULARY - 1, (int) Math.exp(random.nextDouble() * Math.log(5_000)))];
+    }
+
+    private static List<Query> loadQueryLog(Path file) throws IOException {
+        List<Query> log = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] parts = line.split("\t");
+            Long categoryId = parts.length > 1 && !parts[1].isBlank() ? Long.valueOf(parts[1].trim()) : null;
+            int page = parts.length > 2 && !parts[2].isBlank() ? Integer.parseInt(parts[2].trim()) : 0;
+            String text = parts[0].trim();
+            Kind kind = page > 0 ? Kind.DEEP_PAGE
+                    : categoryId != null ? Kind.CATEGORY
+                    : text.contains("\"") ? Kind.PHRASE
+                    : text.contains(" ") ? Kind.TERMS
+                    : Kind.TERM;
+            log.add(new Query(kind, text, categoryId, page));
+        }
+        return log;
+    }
+
+    private String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count * 8);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(vocabulary[sample(random, wordWeights)]);
+        }
+        return sb.toString();
+    }
+
+    private static String madeUpWord(int rank) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = rank; n > 0; n /= SYLLABLES.length) {
+            sb.append(SYLLABLES[n % SYLLABLES.length]);
+        }
+        return sb.toString();
+    }
+
+    // Cumulative weights of ranks 1..n under Zipf's law with the given exponent, normalised to 1
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.Category;
+import com.example.demo.model.News;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.repository.FeedQueryRepositoryTest$SqlRecorder")
+@Transactional
+class FeedQueryRepositoryTest {
+
+    // The statements Hibernate prepares on a recording thread, as sent to the database; scheduled
+    // jobs run their own queries meanwhile
+    public static class SqlRecorder implements StatementInspector {
+        static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recorded = statements.get();
+            if (recorded != null) {
+                recorded.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private String author;
+    private List<News> saved;
+
+    // Seven articles by an author of their own, with ties in both publication time and views
+    @BeforeEach
+    void saveArticles() {
+        author = "feed-test-" + System.nanoTime();
+        Category category = categoryRepository.findAll().get(0);
+        LocalDateTime[] published = {NOON, NOON, NOON.minusHours(1), NOON, NOON.minusHours(1), NOON.minusHours(2), NOON};
+        long[] views = {5, 10, 10, 1, 5, 10, 5};
+        List<News> articles = new ArrayList<>();
+        for (int i = 0; i < published.length; i++) {
+            News news = new News("Feed test " + i, "Description", null, category);
+            news.setSlug(author + "-" + i);
+            news.setAuthor(author);
+            news.setPublishedAt(published[i]);
+            news.setViewCount(views[i]);
+            articles.add(news);
+        }
+        News inactive = new News("Feed test inactive", "Description", null, category);
+        inactive.setSlug(author + "-inactive");
+        inactive.setAuthor(author);
+        inactive.setPublishedAt(NOON);
+        inactive.setIsActive(false);
+        articles.add(inactive);
+        saved = newsRepository.saveAllAndFlush(articles).subList(0, published.length);
+    }
+
+    @Test
+    void recencyPagesContinueAcrossTiedPublicationTimes() {
+        FeedQuery query = FeedQuery.recent().author(author).limit(3);
+        List<Long> expected = expectedOrder(Comparator.comparing(News::getPublishedAt).reversed());
+
+        List<List<Long>> pages = new ArrayList<>();
+        FeedCursor cursor = null;
+        do {
+            List<NewsSummary> page;
+            try (Stream<NewsSummary> rows = newsRepository.streamFeedSummaries(query.after(cursor))) {
+                page = rows.toList();
+            }
+            pages.add(page.stream().map(NewsSummary::getId).toList());
+            cursor = page.isEmpty() ? null : query.cursorAfter(page.get(page.size() - 1));
+        } while (cursor != null);
+
+        assertThat(pages).extracting(List::size).containsExactly(3, 3, 1, 0);
+        assertThat(pages.stream().flatMap(List::stream)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void viewPagesContinueAcrossTiedViewCounts() {
+        FeedQuery query = FeedQuery.mostViewed().author(author).limit(2);
+        List<Long> expected = expectedOrder(Comparator.comparing(News::getViewCount).reversed());
+
+        List<Long> ids = new ArrayList<>();
+        List<News> page = newsRepository.findFeed(query);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            page.forEach(news -> ids.add(news.getId()));
+            page = newsRepository.findFeed(query.after(query.cursorAfter(page.get(page.size() - 1))));
+        }
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void theLimitIsPartOfTheSql() {
+        List<String> statements = new ArrayList<>();
+        SqlRecorder.statements.set(statements);
+        try {
+            assertThat(newsRepository.findFeed(FeedQuery.mostViewed().author(author).limit(2))).hasSize(2);
+            FeedQuery recent = FeedQuery.recent().author(author).limit(2);
+            try (Stream<NewsSummary> rows = newsRepository.streamFeedSummaries(recent)) {
+                assertThat(rows.count()).isEqualTo(2);
+            }
+        } finally {
+            SqlRecorder.statements.remove();
+        }
+
+        // One select per feed, each cut off by the database rather than after reading every match
+        assertThat(statements).hasSize(2)
+                .allSatisfy(sql -> assertThat(sql).containsPattern("(?i)fetch first \\? rows only|limit \\?"));
+    }
+
+    // Ties in the sort key go to the higher id first, as the keyset expects
+    private List<Long> expectedOrder(Comparator<News> byKey) {
+        return saved.stream()
+                .sorted(byKey.thenComparing(News::getId, Comparator.reverseOrder()))
+                .map(News::getId)
+                .toList();
+    }
+}
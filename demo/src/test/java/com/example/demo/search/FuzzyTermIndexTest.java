@@ -0,0 +1,31 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyTermIndexTest {
+
+    @Test
+    void countsTranspositionsAsOneEditAndStopsAtTheBound() {
+        assertThat(FuzzyTermIndex.distance("bitcon", "bitcoin", 2)).isEqualTo(1);
+        assertThat(FuzzyTermIndex.distance("elcetion", "election", 2)).isEqualTo(1);
+        assertThat(FuzzyTermIndex.distance("elecshun", "election", 3)).isEqualTo(3);
+        assertThat(FuzzyTermIndex.distance("market", "election", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void looksUpCloseSpellingsClosestFirst() {
+        FuzzyTermIndex dictionary = new FuzzyTermIndex();
+        for (String term : new String[]{"election", "elections", "selection", "electric", "bitcoin", "bitcoins", "bit"}) {
+            dictionary.add(term);
+        }
+
+        assertThat(dictionary.lookup("bitcon", FuzzyTermIndex.maxEdits("bitcon")))
+                .extracting(FuzzyTermIndex.Match::term).containsExactly("bitcoin", "bitcoins");
+        assertThat(dictionary.lookup("elecshun", FuzzyTermIndex.maxEdits("elecshun")))
+                .extracting(FuzzyTermIndex.Match::term).startsWith("election");
+        assertThat(dictionary.lookup("bit", FuzzyTermIndex.maxEdits("bit")))
+                .extracting(FuzzyTermIndex.Match::term).containsExactly("bit");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedIndexTest {
+
+    @Test
+    void linksArticlesBySharedDistinctiveTermsIncrementally() {
+        RelatedIndex index = new RelatedIndex(2, 16, 0.05f);
+        index.add(1, "Central bank raises interest rates", "The central bank raised interest rates to curb inflation.");
+        index.add(2, "Football club wins the league", "The club won the league title with a late goal.");
+        index.add(3, "Markets fall on rate decision", "Stocks fell as the central bank decision on rates surprised markets.");
+
+        assertThat(index.neighbors(1)).containsExactly(3L);
+        assertThat(index.neighbors(2)).isEmpty();
+
+        // A new article joins the lists it belongs on, and only those change
+        assertThat(index.add(4, "Inflation and interest rates", "Economists expect interest rates and inflation to stay high."))
+                .containsExactlyInAnyOrder(4L, 1L, 3L);
+        assertThat(index.neighbors(1)).containsExactly(4L, 3L);
+        assertThat(index.neighbors(4)).startsWith(1L);
+        assertThat(index.neighbors(2)).isEmpty();
+    }
+
+    @Test
+    void removingAnArticleRefillsTheListsThatHeldIt() {
+        RelatedIndex index = new RelatedIndex(1, 16, 0.05f);
+        index.add(1, "Electric cars sales surge", "Electric cars battery sales surge in Europe.");
+        index.add(2, "Electric cars battery breakthrough", "A new battery for electric cars charges faster.");
+        index.add(3, "Battery makers expand", "Battery makers expand factories for electric vehicles.");
+        assertThat(index.neighbors(1)).containsExactly(2L);
+
+        assertThat(index.remove(2)).contains(1L);
+        assertThat(index.neighbors(1)).containsExactly(3L);
+        assertThat(index.neighbors(2)).isEmpty();
+    }
+
+    @Test
+    void restoresStoredListsWithoutRelinking() {
+        RelatedIndex index = new RelatedIndex(3, 16, 0.05f);
+        index.load(1, "Solar power record", "Solar panels produced record power.");
+        index.load(2, "Solar farms grow", "New solar farms produce power.");
+        index.load(3, "Chess champion", "The chess champion kept the title.");
+        index.restore(1, new long[]{2, 99});
+
+        assertThat(index.neighbors(1)).containsExactly(2L);
+        assertThat(index.neighbors(2)).isEmpty();
+        assertThat(index.link(2)).contains(2L);
+        assertThat(index.neighbors(2)).containsExactly(1L);
+    }
+}
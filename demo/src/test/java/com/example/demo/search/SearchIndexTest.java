@@ -0,0 +1,275 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.index(article(1, "Central bank raises interest rate", "Markets react", "The rate decision surprised analysts.", 1L, 3));
+        index.index(article(2, "Football final tonight", "Fans gather", "The final starts at eight.", 2L, 2));
+        index.index(article(3, "Interest in electric cars grows", "Sales up", "Buyers cite the fuel rate.", 3L, 1));
+        index.index(article(4, "Rate cut expected", "Economists say", "Lower interest payments ahead.", 1L, 0));
+    }
+
+    @Test
+    void matchesAllTermsAcrossFieldsNewestFirst() {
+        SearchHits hits = index.search(byRecency("Interest RATE"));
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.newsIds()).containsExactly(4L, 3L, 1L);
+    }
+
+    @Test
+    void ignoresStopwordsAndUnknownTerms() {
+        assertThat(index.search(SearchRequest.of("the final")).newsIds()).containsExactly(2L);
+        assertThat(index.search(SearchRequest.of("the of and")).total()).isZero();
+        assertThat(index.search(SearchRequest.of("final bitcoin")).total()).isZero();
+    }
+
+    @Test
+    void foldsPlurals() {
+        assertThat(index.search(SearchRequest.of("analyst markets")).newsIds()).containsExactly(1L);
+        assertThat(index.search(SearchRequest.of("car sale")).newsIds()).containsExactly(3L);
+    }
+
+    @Test
+    void filtersByCategoryAndPages() {
+        assertThat(index.search(byRecency("rate").category(1L)).newsIds()).containsExactly(4L, 1L);
+
+        SearchHits secondPage = index.search(byRecency("rate").offset(1).limit(1));
+        assertThat(secondPage.total()).isEqualTo(3);
+        assertThat(secondPage.newsIds()).containsExactly(3L);
+    }
+
+    @Test
+    void pagesPastTheMatchesAreEmptyHoweverDeep() {
+        SearchHits hits = index.search(SearchRequest.of("rate").offset(100_000_000L * 12).limit(Integer.MAX_VALUE));
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.newsIds()).isEmpty();
+    }
+
+    @Test
+    void continuesAfterKeysetPosition() {
+        SearchHits hits = index.search(byRecency("rate").after(NOW.minusHours(1), 3));
+
+        assertThat(hits.newsIds()).containsExactly(1L);
+    }
+
+    @Test
+    void reindexReplacesAndDeleteRemoves() {
+        index.index(article(2, "Football final postponed", "Rain", "New interest rate for tickets.", 2L, 2));
+        assertThat(index.search(SearchRequest.of("postponed")).newsIds()).containsExactly(2L);
+        assertThat(index.search(SearchRequest.of("tonight")).total()).isZero();
+
+        assertThat(index.delete(4)).isTrue();
+        assertThat(index.search(byRecency("interest rate")).newsIds()).containsExactly(3L, 2L, 1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void archivesByPublicationCutoffAndListsCategoryMembers() {
+        index.index(new IndexedArticle(5, "Undated rate memo", null, null, 1L, null));
+
+        assertThat(index.deletePublishedBefore(NOW.minusHours(2))).isEqualTo(1);
+        assertThat(index.contains(1)).isFalse();
+        assertThat(index.search(byRecency("rate")).newsIds()).containsExactly(4L, 3L, 5L);
+        assertThat(index.newsIdsInCategory(1L)).containsExactly(4L, 5L);
+        assertThat(index.newsIdsInCategory(9L)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatches() {
+        SearchIndex relevance = new SearchIndex(new RankingConfig(3.0, 1.5, 1.0, 1.2, 0.75, 48, 0));
+        relevance.index(article(1, "Election results announced", "Final count", "Turnout was high.", 1L, 1));
+        relevance.index(article(2, "Weather update", "Storm ahead", "Rain may delay the election count.", 1L, 0));
+        relevance.index(article(3, "Markets open higher", "Election relief", "Stocks rose early.", 1L, 2));
+
+        assertThat(relevance.search(SearchRequest.of("election")).newsIds()).containsExactly(1L, 3L, 2L);
+        assertThat(relevance.search(byRecency("election")).newsIds()).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void recencyDecayFavoursFreshArticlesWithSimilarScores() {
+        SearchIndex decayed = new SearchIndex(new RankingConfig(3.0, 1.5, 1.0, 1.2, 0.75, 24, 0.8));
+        LocalDateTime now = LocalDateTime.now();
+        decayed.index(new IndexedArticle(1, "Budget vote delayed", null, "Budget talks continue.", 1L, now.minusDays(10)));
+        decayed.index(new IndexedArticle(2, "Budget vote tonight", null, "Budget debate ends.", 1L, now.minusHours(1)));
+
+        assertThat(decayed.search(SearchRequest.of("budget vote")).newsIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void toleratesTyposWhenExactMatchingFindsTooLittle() {
+        SearchIndex typos = new SearchIndex();
+        typos.index(article(1, "Crypto markets rise", null, "Bitcoin rallies again.", 1L, 0));
+        typos.index(article(2, "Election results delayed", null, "Counting continues.", 2L, 1));
+        typos.index(article(3, "Selection of judges", null, "Bitcon conference opens.", 2L, 2));
+
+        assertThat(typos.search(SearchRequest.of("elecshun results")).newsIds()).containsExactly(2L);
+        // The exact spelling ranks above its neighbours
+        assertThat(typos.search(SearchRequest.of("bitcon")).newsIds()).containsExactly(3L, 1L);
+
+        typos.setFuzzyMinHits(0);
+        assertThat(typos.search(SearchRequest.of("elecshun")).total()).isZero();
+    }
+
+    @Test
+    void countsFacetsOverMatchesAndNarrowsBySelection() {
+        SearchIndex faceted = new SearchIndex();
+        LocalDateTime now = LocalDateTime.now();
+        faceted.index(new IndexedArticle(1, "Oil prices climb", null, null, 1L, now.minusHours(2),
+                "Business", 10L, "Wire", "Ann Lee"));
+        faceted.index(new IndexedArticle(2, "Oil demand slows", null, null, 1L, now.minusDays(3),
+                "Business", 20L, "Daily", "Bo Park"));
+        faceted.index(new IndexedArticle(3, "Oil spill cleanup", null, null, 2L, now.minusDays(20),
+                "Environment", 10L, "Wire", "Ann Lee"));
+        faceted.index(new IndexedArticle(4, "Solar farms expand", null, null, 2L, now.minusHours(1),
+                "Environment", 10L, "Wire", "Ann Lee"));
+
+        SearchFacets facets = faceted.search(SearchRequest.of("oil").facets(true)).facets();
+        assertThat(facets.categories()).containsExactly(
+                new SearchFacets.Count("1", "Business", 2), new SearchFacets.Count("2", "Environment", 1));
+        assertThat(facets.sources()).containsExactly(
+                new SearchFacets.Count("10", "Wire", 2), new SearchFacets.Count("20", "Daily", 1));
+        assertThat(facets.authors()).extracting(SearchFacets.Count::value).containsExactly("Ann Lee", "Bo Park");
+        assertThat(facets.published()).extracting(SearchFacets.Count::value, SearchFacets.Count::count)
+                .containsExactly(tuple("24h", 1L), tuple("7d", 2L), tuple("30d", 3L));
+
+        // A selected facet keeps its alternatives' counts while the other facets narrow
+        SearchHits narrowed = faceted.search(byRecency("oil").source(10L).facets(true));
+        assertThat(narrowed.newsIds()).containsExactly(1L, 3L);
+        assertThat(narrowed.facets().sources()).extracting(SearchFacets.Count::count).containsExactly(2L, 1L);
+        assertThat(narrowed.facets().categories()).extracting(SearchFacets.Count::label)
+                .containsExactly("Business", "Environment");
+        assertThat(faceted.search(byRecency("oil").author("Bo Park").publishedWithin(PublishedWithin.PAST_DAY)).total())
+                .isZero();
+        assertThat(faceted.search(byRecency("oil").publishedWithin(PublishedWithin.PAST_WEEK)).newsIds())
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reopensCommittedSegmentsWithDeletesAndFacets(@TempDir Path dir) throws IOException {
+        SearchIndex persisted = SearchIndex.open(RankingConfig.DEFAULT, dir);
+        persisted.index(new IndexedArticle(1, "Oil prices climb", null, "Crude rose.", 1L, NOW,
+                "Business", 10L, "Wire", "Ann Lee"));
+        persisted.index(new IndexedArticle(2, "Oil demand slows", null, null, 2L, NOW.minusHours(1),
+                "Environment", 20L, "Daily", null));
+        persisted.commit(Map.of("lastNewsId", "2"));
+        persisted.index(new IndexedArticle(3, "Oil spill cleanup", null, null, 2L, NOW.minusHours(2),
+                "Environment", 10L, "Wire", "Ann Lee"));
+        persisted.delete(1);
+        persisted.commit(Map.of("lastNewsId", "3"));
+        persisted.index(article(4, "Oil never committed", null, null, 1L, 0));
+
+        SearchIndex reopened = SearchIndex.open(RankingConfig.DEFAULT, dir);
+        assertThat(reopened.getCommitData()).containsEntry("lastNewsId", "3");
+        assertThat(reopened.segmentCount()).isEqualTo(2);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.search(byRecency("oil")).newsIds()).containsExactly(2L, 3L);
+        assertThat(reopened.search(SearchRequest.of("crude")).total()).isZero();
+        SearchFacets facets = reopened.search(SearchRequest.of("oil").facets(true)).facets();
+        assertThat(facets.categories()).containsExactly(new SearchFacets.Count("2", "Environment", 2));
+        assertThat(facets.authors()).containsExactly(new SearchFacets.Count("Ann Lee", "Ann Lee", 1));
+
+        // Re-indexing after reopening appends to the buffer and replaces the committed version
+        reopened.index(new IndexedArticle(3, "Oil spill contained", null, null, 2L, NOW.minusHours(2),
+                "Environment", 10L, "Wire", "Ann Lee"));
+        assertThat(reopened.search(SearchRequest.of("cleanup")).total()).isZero();
+        assertThat(reopened.search(SearchRequest.of("contained")).newsIds()).containsExactly(3L);
+    }
+
+    @Test
+    void mergesRunsOfSmallSegments(@TempDir Path dir) throws IOException {
+        SearchIndex persisted = SearchIndex.open(RankingConfig.DEFAULT, dir);
+        for (int id = 1; id <= 6; id++) {
+            persisted.index(article(id, "Storm report " + id, null, id % 2 == 0 ? "Heavy rain." : "Strong wind.", 1L, id));
+            if (id % 2 == 0) {
+                persisted.commit(Map.of());
+            }
+        }
+        persisted.delete(2);
+        assertThat(persisted.segmentCount()).isEqualTo(3);
+
+        assertThat(persisted.maybeMerge(3, 1000)).isTrue();
+        assertThat(persisted.segmentCount()).isEqualTo(1);
+        assertThat(persisted.maybeMerge(3, 1000)).isFalse();
+        assertThat(persisted.search(byRecency("storm rain")).newsIds()).containsExactly(4L, 6L);
+        assertThat(persisted.search(byRecency("wind")).newsIds()).containsExactly(1L, 3L, 5L);
+        assertThat(persisted.search(byRecency("\"storm report\" heavy NEAR/1 rain")).newsIds()).containsExactly(4L, 6L);
+
+        SearchIndex reopened = SearchIndex.open(RankingConfig.DEFAULT, dir);
+        assertThat(reopened.segmentCount()).isEqualTo(1);
+        assertThat(reopened.search(byRecency("storm")).newsIds()).containsExactly(1L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void matchesPhrasesWithStopwordGapsAndProximity() {
+        SearchIndex phrases = new SearchIndex();
+        phrases.index(article(1, "Bank of England holds rates", null, "Officials kept borrowing costs unchanged.", 1L, 1));
+        phrases.index(article(2, "England bank holiday traffic", null, "Roads were busy.", 1L, 2));
+
+        assertThat(phrases.search(SearchRequest.of("\"Bank of England\"")).newsIds()).containsExactly(1L);
+        assertThat(phrases.search(SearchRequest.of("\"bank england\"")).total()).isZero();
+        assertThat(phrases.search(SearchRequest.of("\"bank of englnd\"")).total()).isZero();
+        assertThat(phrases.search(SearchRequest.of("bank NEAR/1 holiday")).newsIds()).containsExactly(2L);
+        assertThat(phrases.search(SearchRequest.of("bank NEAR/4 rate")).newsIds()).containsExactly(1L);
+        assertThat(phrases.search(SearchRequest.of("bank NEAR/3 rate")).total()).isZero();
+        // Positions do not run on from one field into the next
+        assertThat(phrases.search(SearchRequest.of("\"rates officials\"")).total()).isZero();
+    }
+
+    @Test
+    void snippetsMarkHitsAroundTheDensestPassage(@TempDir Path dir) throws IOException {
+        String content = "Opening remarks covered the weather and the <b>harvest</b>. " + "Filler words here. ".repeat(20)
+                + "Later the committee said interest rates would stay high while rates elsewhere fall.";
+        SearchIndex persisted = SearchIndex.open(RankingConfig.DEFAULT, dir);
+        persisted.index(article(1, "Committee update", "Rates steady", content, 1L, 1));
+        persisted.index(article(2, "Harvest report", "Rates of yield", null, 1L, 2));
+
+        for (SearchIndex searched : List.of(persisted, commitAndReopen(persisted, dir))) {
+            SearchHits hits = searched.search(byRecency("rates").snippets(true));
+            assertThat(hits.snippets()).containsOnlyKeys(1L, 2L);
+            assertThat(hits.snippets().get(1L))
+                    .startsWith("… Later the committee")
+                    .contains("interest <mark>rates</mark> would stay high while <mark>rates</mark> elsewhere fall.")
+                    .doesNotContain("harvest");
+            assertThat(hits.snippets().get(2L)).isEqualTo("<mark>Rates</mark> of yield");
+            assertThat(searched.search(SearchRequest.of("harvest weather").snippets(true)).snippets().get(1L))
+                    .startsWith("Opening remarks covered the <mark>weather</mark> and the &lt;b&gt;<mark>harvest</mark>&lt;/b&gt;.")
+                    .endsWith("…");
+            assertThat(searched.search(SearchRequest.of("rates")).snippets()).isEmpty();
+        }
+    }
+
+    private static SearchIndex commitAndReopen(SearchIndex index, Path dir) throws IOException {
+        index.commit(Map.of());
+        return SearchIndex.open(RankingConfig.DEFAULT, dir);
+    }
+
+    private static SearchRequest byRecency(String text) {
+        return SearchRequest.of(text).sort(SearchSort.RECENCY);
+    }
+
+    private static IndexedArticle article(long id, String title, String description, String content,
+                                          Long categoryId, int hoursAgo) {
+        return new IndexedArticle(id, title, description, content, categoryId, NOW.minusHours(hoursAgo));
+    }
+}
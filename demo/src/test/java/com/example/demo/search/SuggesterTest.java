@@ -0,0 +1,69 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggesterTest {
+
+    private Suggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new Suggester(1000);
+        suggester.addArticle("Election results announced", "Politics", "World Wire", 10);
+        suggester.addArticle("Electric cars outsell diesel", "Technology", "Tech Daily", 5000);
+        suggester.addArticle("Elections in 2024: what to watch", "Politics", "World Wire", 20);
+    }
+
+    @Test
+    void completesPrefixesMostPopularFirst() {
+        assertThat(texts("ele")).containsExactly("electric", "elections", "election");
+        assertThat(texts("ELECTION")).containsExactly("elections", "election");
+        assertThat(texts("xyz")).isEmpty();
+        assertThat(texts("  ")).isEmpty();
+    }
+
+    @Test
+    void includesCategoriesAndSources() {
+        List<Suggestion> suggestions = suggester.suggest("world", 5);
+
+        assertThat(suggestions).extracting(Suggestion::text).containsExactly("World Wire");
+        assertThat(suggestions.get(0).type()).isEqualTo(Suggestion.Type.SOURCE);
+        assertThat(texts("pol")).containsExactly("Politics");
+    }
+
+    @Test
+    void completesLastWordKeepingTheRest() {
+        assertThat(texts("politics res")).containsExactly("politics results");
+        assertThat(texts("tech d")).containsExactly("Tech Daily", "tech diesel");
+    }
+
+    @Test
+    void popularityAccumulatesAcrossArticles() {
+        for (int i = 0; i < 10; i++) {
+            suggester.addArticle("Election night live", null, null, 1000);
+        }
+
+        assertThat(texts("ele").get(0)).isEqualTo("election");
+    }
+
+    @Test
+    void staysWithinEntryCap() {
+        Suggester small = new Suggester(40);
+        for (int i = 0; i < 500; i++) {
+            small.add("word" + (char) ('a' + i % 26) + (char) ('a' + i / 26), Suggestion.Type.TERM, i);
+        }
+        small.add("wordzz", Suggestion.Type.TERM, 10_000);
+
+        assertThat(small.size()).isLessThanOrEqualTo(40);
+        assertThat(small.suggest("word", 1)).extracting(Suggestion::text).containsExactly("wordzz");
+    }
+
+    private List<String> texts(String query) {
+        return suggester.suggest(query, 10).stream().map(Suggestion::text).toList();
+    }
+}
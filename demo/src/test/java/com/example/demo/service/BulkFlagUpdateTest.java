@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkFlagUpdateTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void featuredCategoriesAreDiffedAndWrittenOneStatementPerFlagValue() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        List<Long> original = featured("categories");
+        try {
+            categoryService.setFeaturedCategories(Set.of(ids.get(0)));
+            categoryService.setFeaturedCategories(Set.of(ids.get(1), ids.get(2)));
+            // One feature and one unfeature left to do
+            long version = contentVersionService.getCurrentVersion();
+            assertThat(statements(() -> categoryService.setFeaturedCategories(Set.of(ids.get(1), ids.get(3)))))
+                    .isEqualTo(3);
+            assertThat(featured("categories")).containsExactlyInAnyOrder(ids.get(1), ids.get(3));
+            assertThat(contentVersionService.getCurrentVersion()).isEqualTo(version + 1);
+
+            // Nothing to change: the diff select only, and no invalidation
+            assertThat(statements(() -> categoryService.bulkUpdateFeaturedStatus(List.of(ids.get(1), ids.get(3)), true)))
+                    .isEqualTo(1);
+            assertThat(contentVersionService.getCurrentVersion()).isEqualTo(version + 1);
+            assertThat(categoryService.bulkUpdateFeaturedStatus(List.of(ids.get(0), ids.get(1)), true)).isEqualTo(1);
+        } finally {
+            categoryService.setFeaturedCategories(original);
+        }
+    }
+
+    @Test
+    void reorderWritesOnlyMovedCategoriesInOneStatement() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY display_order, id", Long.class);
+        try {
+            categoryService.reorderCategories(ids);
+            List<Long> reversed = new ArrayList<>(ids);
+            Collections.reverse(reversed);
+
+            assertThat(statements(() -> categoryService.reorderCategories(reversed))).isEqualTo(2);
+            assertThat(jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY display_order", Long.class))
+                    .containsExactlyElementsOf(reversed);
+            assertThat(statements(() -> categoryService.reorderCategories(reversed))).isEqualTo(1);
+        } finally {
+            categoryService.reorderCategories(ids);
+        }
+    }
+
+    @Test
+    void featuredNewsAreDiffedWithOneInvalidation() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM news ORDER BY id", Long.class);
+        List<Long> original = featured("news");
+        try {
+            newsService.setFeaturedNews(List.of(ids.get(0), ids.get(1)));
+            long version = contentVersionService.getCurrentVersion();
+
+            assertThat(statements(() -> newsService.setFeaturedNews(List.of(ids.get(1), ids.get(2), ids.get(3)))))
+                    .isEqualTo(3);
+            assertThat(featured("news")).containsExactlyInAnyOrder(ids.get(1), ids.get(2), ids.get(3));
+            assertThat(contentVersionService.getCurrentVersion()).isEqualTo(version + 1);
+            assertThat(contentVersionService.newsVersion(ids.get(0)))
+                    .isEqualTo(contentVersionService.newsVersion(ids.get(3)));
+        } finally {
+            newsService.setFeaturedNews(original);
+        }
+    }
+
+    private List<Long> featured(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE is_featured = TRUE", Long.class);
+    }
+
+    private long statements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
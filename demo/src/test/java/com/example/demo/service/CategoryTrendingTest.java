@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.News;
+import com.example.demo.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"news.trending.persist-interval=3600000", "news.trending.change-interval=3600000"})
+class CategoryTrendingTest {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void categoryBoardsFollowMovesAndDropDeactivatedArticles() {
+        List<Category> categories = categoryRepository.findAll();
+        Category sport = categories.get(0);
+        Category science = categories.get(1);
+        News first = newsService.saveNews(new News("Derby ends level", "Late equaliser", "Body", sport));
+        News second = newsService.saveNews(new News("Cup draw made", "Ties announced", "Body", sport));
+        News third = newsService.saveNews(new News("Comet returns", "Visible at dawn", "Body", science));
+        LocalDateTime now = LocalDateTime.now();
+
+        trendingService.recordView(first.getId(), sport.getId(), now);
+        trendingService.recordShare(second.getId(), sport.getId(), now);
+        trendingService.recordView(third.getId(), science.getId(), now);
+        assertThat(trendingService.topIds(sport.getId(), 5)).containsExactly(second.getId(), first.getId());
+        assertThat(trendingService.topIds(science.getId(), 5)).containsExactly(third.getId());
+
+        // A re-categorised article takes its score to the new board
+        second.setCategory(science);
+        newsService.saveNews(second);
+        trendingService.applyChanges();
+        assertThat(trendingService.topIds(sport.getId(), 5)).containsExactly(first.getId());
+        assertThat(trendingService.topIds(science.getId(), 5)).containsExactly(second.getId(), third.getId());
+        assertThat(newsService.getTrendingNewsByCategory(science)).extracting(News::getId)
+                .containsExactly(second.getId(), third.getId());
+
+        // Deleted and deactivated articles leave both their category's board and the overall one
+        newsService.deleteNews(third.getId());
+        first.setIsActive(false);
+        newsService.saveNews(first);
+        trendingService.applyChanges();
+        assertThat(trendingService.topIds(science.getId(), 5)).containsExactly(second.getId());
+        assertThat(trendingService.topIds(sport.getId(), 5)).isEmpty();
+        assertThat(trendingService.topIds(10)).doesNotContain(first.getId(), third.getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EngagementEvent;
+import com.example.demo.model.News;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.service.EngagementEventService.Submission;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = {
+        "news.events.buffer-size=5",
+        "news.events.batch-size=2",
+        "news.events.flush-interval=3600000"
+})
+class EngagementEventServiceTest {
+
+    @Autowired
+    private EngagementEventService engagementEventService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queuesValidEventsShedsOverflowAndWritesInBatches() {
+        long newsId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM news", Long.class);
+        engagementEventService.flush();
+        long before = count(newsId);
+
+        List<EngagementEvent> events = new ArrayList<>();
+        events.add(new EngagementEvent("dwell", newsId, 42_000L));
+        events.add(new EngagementEvent("scroll", newsId, 75L));
+        events.add(new EngagementEvent("scroll", newsId, 150L));
+        events.add(new EngagementEvent("click", newsId, 1L));
+        events.add(new EngagementEvent("dwell", null, 1L));
+        for (int i = 0; i < 5; i++) {
+            events.add(new EngagementEvent("dwell", newsId, 1_000L));
+        }
+
+        Submission submission = engagementEventService.submit(events, "c:reader");
+        assertThat(submission).isEqualTo(new Submission(5, 3, 2));
+        assertThat(engagementEventService.queuedEvents()).isEqualTo(5);
+        assertThat(count(newsId)).isEqualTo(before);
+
+        engagementEventService.flush();
+        assertThat(engagementEventService.queuedEvents()).isZero();
+        assertThat(count(newsId)).isEqualTo(before + 5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT event_value FROM news_events WHERE news_id = ? AND event_type = 'scroll' ORDER BY id DESC LIMIT 1",
+                Long.class, newsId)).isEqualTo(75L);
+    }
+
+    @Test
+    void repeatedSharesByAReaderAreWrittenButScoredOnce() {
+        News news = newsService.saveNews(new News("Glacier retreat measured", "Survey results", "Body",
+                categoryRepository.findAll().get(0)));
+        List<EngagementEvent> share = List.of(new EngagementEvent("share", news.getId(), null));
+
+        engagementEventService.submit(share, "c:first");
+        engagementEventService.submit(share, "c:first");
+        engagementEventService.submit(share, "c:second");
+        engagementEventService.flush();
+        engagementEventService.submit(share, "c:first");
+        engagementEventService.flush();
+
+        assertThat(count(news.getId())).isEqualTo(4);
+        // Two readers at the default share weight of 5
+        assertThat(trendingService.score(news.getId())).isCloseTo(10.0, within(0.01));
+
+        // A share dropped by a full buffer is not taken as seen, so the retry scores
+        List<EngagementEvent> filler = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            filler.add(new EngagementEvent("dwell", news.getId(), 1_000L));
+        }
+        engagementEventService.submit(filler, "c:filler");
+        assertThat(engagementEventService.submit(share, "c:third")).isEqualTo(new Submission(0, 0, 1));
+        engagementEventService.flush();
+        engagementEventService.submit(share, "c:third");
+        engagementEventService.flush();
+        assertThat(trendingService.score(news.getId())).isCloseTo(15.0, within(0.01));
+    }
+
+    @Test
+    void eventsPastTheRetentionArePurged() {
+        long newsId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM news", Long.class);
+        String insert = "INSERT INTO news_events (news_id, event_type, event_value, created_at) VALUES (?, 'dwell', 1, ?)";
+        jdbcTemplate.update(insert, newsId, Timestamp.valueOf(LocalDateTime.now().minusDays(31)));
+        jdbcTemplate.update(insert, newsId, Timestamp.valueOf(LocalDateTime.now().minusDays(29)));
+        long before = count(newsId);
+
+        engagementEventService.purgeOldEvents();
+        assertThat(count(newsId)).isEqualTo(before - 1);
+    }
+
+    private long count(long newsId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_events WHERE news_id = ?", Long.class, newsId);
+    }
+}
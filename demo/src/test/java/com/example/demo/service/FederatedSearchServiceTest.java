@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FeedCursor;
+import com.example.demo.dto.FederatedSearchResult;
+import com.example.demo.dto.FederatedSearchResult.RemoteStatus;
+import com.example.demo.dto.NewsApiResponse;
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.search.SearchFacets;
+import com.example.demo.search.SearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FederatedSearchServiceTest {
+
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    @Test
+    void mergesBothSidesAndKeepsTheLocalCopyOfSharedStories() {
+        FederatedSearchService service = service(Duration.ZERO, 1_000);
+
+        FederatedSearchResult result = service.search("rates", 10).join();
+
+        assertThat(result.getRemoteStatus()).isEqualTo(RemoteStatus.INCLUDED);
+        assertThat(result.getHits())
+                .extracting(FederatedSearchResult.Hit::getTitle, FederatedSearchResult.Hit::isLocal)
+                .containsExactly(
+                        tuple("Local: rates held", true),
+                        tuple("Local: mortgage costs", true),
+                        tuple("Remote: markets react", false));
+    }
+
+    @Test
+    void answersWithLocalHitsWhenRemoteIsLateAndSharesTheRemoteCall() {
+        FederatedSearchService service = service(Duration.ofMillis(400), 50);
+
+        long start = System.nanoTime();
+        CompletableFuture<FederatedSearchResult> first = service.search("Rates", 10);
+        CompletableFuture<FederatedSearchResult> second = service.search(" rates ", 10);
+        assertThat(first.join().getRemoteStatus()).isEqualTo(RemoteStatus.LATE);
+        assertThat(second.join().getHits()).hasSize(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(300));
+        assertThat(remoteCalls).hasValue(1);
+
+        // The late call still completes and is reused
+        FederatedSearchResult later = CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> service.search("rates", 10)).join();
+        assertThat(later.getRemoteStatus()).isEqualTo(RemoteStatus.INCLUDED);
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    private FederatedSearchService service(Duration remoteDelay, long deadlineMillis) {
+        NewsService local = new NewsService(null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public SearchFacets forEachSearchSummary(SearchRequest request, FeedCursor after, int limit,
+                                                     BiConsumer<NewsSummary, String> consumer) {
+                consumer.accept(summary(1L, "Local: rates held", "https://www.example.com/rates?utm_source=feed"), null);
+                consumer.accept(summary(2L, "Local: mortgage costs", null), null);
+                return SearchFacets.EMPTY;
+            }
+        };
+        NewsApiService remote = new NewsApiService(null) {
+            @Override
+            public Mono<NewsApiResponse> searchNews(String query) {
+                remoteCalls.incrementAndGet();
+                NewsApiResponse response = new NewsApiResponse();
+                response.setArticles(List.of(
+                        article("Remote: rates held", "http://example.com/rates/"),
+                        article("[Removed]", "https://removed.com"),
+                        article("Remote: markets react", "https://news.example.org/markets")));
+                return Mono.just(response).delayElement(remoteDelay);
+            }
+        };
+        return new FederatedSearchService(local, remote, new SimpleMeterRegistry(), deadlineMillis, 60, 100);
+    }
+
+    private static NewsSummary summary(Long id, String title, String sourceUrl) {
+        return new NewsSummary(id, title, "slug-" + id, null, null, sourceUrl, null, LocalDateTime.now(), 0L, 0L, 1,
+                false, false, 1L, "Business", "business", "Wire");
+    }
+
+    private static NewsApiResponse.NewsArticle article(String title, String url) {
+        NewsApiResponse.NewsArticle article = new NewsApiResponse.NewsArticle();
+        article.setTitle(title);
+        article.setUrl(url);
+        article.setPublishedAt("2024-06-01T10:00:00Z");
+        return article;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.NewsSummary;
+import com.example.demo.model.News;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class NewsBatchLoaderTest {
+
+    @Autowired
+    private NewsBatchLoader newsBatchLoader;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void entitiesAreLoadedInOrderOnceQueryPerRequest() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM news WHERE is_active = TRUE ORDER BY id", Long.class);
+        List<Long> wanted = List.of(ids.get(2), ids.get(0), -1L, ids.get(1));
+
+        startRequest();
+        assertThat(statements(() -> assertThat(newsBatchLoader.entities(wanted)).extracting(News::getId)
+                .containsExactly(ids.get(2), ids.get(0), ids.get(1)))).isEqualTo(1);
+        // Known and missing ids come from the request; only the new one is queried
+        assertThat(statements(() -> assertThat(newsBatchLoader.entities(List.of(-1L, ids.get(0), ids.get(3))))
+                .extracting(News::getId).containsExactly(ids.get(0), ids.get(3)))).isEqualTo(1);
+        assertThat(statements(() -> newsBatchLoader.entities(wanted))).isZero();
+
+        startRequest();
+        assertThat(statements(() -> newsBatchLoader.entities(wanted))).isEqualTo(1);
+    }
+
+    @Test
+    void summariesAreSharedAcrossRequestsUntilTheArticleChanges() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM news WHERE is_active = TRUE ORDER BY id", Long.class);
+        List<Long> wanted = List.of(ids.get(5), ids.get(4));
+        newsBatchLoader.summaries(wanted);
+
+        assertThat(statements(() -> assertThat(newsBatchLoader.summaries(wanted)).extracting(NewsSummary::getId)
+                .containsExactly(ids.get(5), ids.get(4)))).isZero();
+
+        News news = newsService.getNewsById(ids.get(4));
+        String title = news.getTitle();
+        try {
+            news.setTitle(title + " (updated)");
+            newsService.saveNews(news);
+            assertThat(statements(() -> assertThat(newsBatchLoader.summaries(wanted)).extracting(NewsSummary::getTitle)
+                    .endsWith(title + " (updated)"))).isEqualTo(1);
+        } finally {
+            news.setTitle(title);
+            newsService.saveNews(news);
+        }
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private long statements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
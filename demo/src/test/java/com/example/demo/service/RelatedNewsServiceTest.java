@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.News;
+import com.example.demo.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "news.related.change-interval=3600000")
+class RelatedNewsServiceTest {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private RelatedNewsService relatedNewsService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newArticlesAreLinkedIncrementallyAndServedByPrimaryKey() throws InterruptedException {
+        assertThat(waitFor(relatedNewsService::isReady, 20_000)).isTrue();
+        List<Category> categories = categoryRepository.findAll();
+
+        News first = newsService.saveNews(new News("Narwhal migration tracked", "Arctic survey",
+                "Researchers tracked narwhal migration under the arctic ice.", categories.get(0)));
+        News second = newsService.saveNews(new News("Narwhal tusks studied", "Arctic biology",
+                "Narwhal tusks sense changes in arctic water.", categories.get(1)));
+        relatedNewsService.applyChanges();
+
+        assertThat(relatedNewsService.relatedIds(second.getId())).startsWith(first.getId());
+        assertThat(storedRelatedIds(first.getId())).startsWith(second.getId() + "");
+
+        News reloaded = newsService.getNewsById(second.getId());
+        assertThat(newsService.getRelatedNews(reloaded, 3)).extracting(News::getId).startsWith(first.getId());
+
+        newsService.deleteNews(first.getId());
+        long version = contentVersionService.newsVersion(second.getId()).value();
+        relatedNewsService.applyChanges();
+        assertThat(relatedNewsService.relatedIds(second.getId())).doesNotContain(first.getId());
+        assertThat(storedRelatedIds(second.getId())).doesNotContain(first.getId() + "");
+        // The rewritten list changes the detail page, so its validator must move too
+        assertThat(contentVersionService.newsVersion(second.getId()).value()).isGreaterThan(version);
+    }
+
+    private String storedRelatedIds(Long newsId) {
+        return jdbcTemplate.queryForObject("SELECT related_ids FROM news WHERE id = ?", String.class, newsId);
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
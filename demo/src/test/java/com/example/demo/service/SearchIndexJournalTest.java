@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.News;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.search.SearchRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "search.index.directory=" + SearchIndexJournalTest.DIRECTORY,
+        "search.index.change-interval=3600000",
+        "search.index.refresh-interval=3600000"
+})
+class SearchIndexJournalTest {
+
+    static final String DIRECTORY = "target/search-index-journal-test";
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void changesAppliedButNotCommittedAreReplayedOnReopen() throws InterruptedException {
+        assertThat(waitFor(searchIndexService::isReady, 20_000)).isTrue();
+        Path journal = Path.of(DIRECTORY, "changes.log");
+        Category category = categoryRepository.findAll().get(0);
+
+        News news = newsService.saveNews(new News("Ocelot sighting confirmed", "Camera traps", "An ocelot was filmed.", category));
+        searchIndexService.applyChanges();
+        searchIndexService.refresh();
+        assertThat(journal).doesNotExist();
+        assertThat(hits("ocelot")).isEqualTo(1);
+
+        newsService.deleteNews(news.getId());
+        searchIndexService.applyChanges();
+        assertThat(journal).exists();
+        assertThat(hits("ocelot")).isZero();
+
+        // Reopening the committed segments without a commit in between, as after a crash
+        searchIndexService.buildIndex();
+        assertThat(waitFor(() -> !Files.exists(journal), 20_000)).isTrue();
+        assertThat(hits("ocelot")).isZero();
+    }
+
+    private long hits(String text) {
+        return searchIndexService.search(SearchRequest.of(text)).total();
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
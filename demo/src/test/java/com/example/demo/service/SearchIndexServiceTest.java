@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.News;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.search.SearchHits;
+import com.example.demo.search.SearchRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SearchIndexServiceTest {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void committedWritesBecomeSearchableWithinASecond() throws InterruptedException {
+        assertThat(waitFor(searchIndexService::isReady, 20_000)).isTrue();
+        Category category = categoryRepository.findAll().get(0);
+
+        News news = newsService.saveNews(new News("Quokka census published", "Island survey", "Rangers counted quokkas.", category));
+        assertThat(waitFor(() -> hits("quokka").total() == 1, 1_000)).isTrue();
+        assertThat(hits("quokka").newsIds()).containsExactly(news.getId());
+
+        news.setTitle("Wombat census published");
+        news.setContent(null);
+        newsService.updateNews(news);
+        assertThat(waitFor(() -> hits("wombat").total() == 1, 1_000)).isTrue();
+
+        newsService.deleteNews(news.getId());
+        assertThat(waitFor(() -> hits("census").total() == 0, 1_000)).isTrue();
+    }
+
+    private SearchHits hits(String text) {
+        return searchIndexService.search(SearchRequest.of(text));
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
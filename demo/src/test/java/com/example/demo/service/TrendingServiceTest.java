@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import com.example.demo.model.News;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = {"news.trending.persist-interval=3600000", "news.trending.size=2"})
+class TrendingServiceTest {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void viewsAndSharesMoveArticlesInAndOutOfTrendingWritingOnlyTheDiff() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM news ORDER BY id", Long.class);
+        long first = ids.get(0);
+        long second = ids.get(1);
+        long third = ids.get(2);
+        LocalDateTime now = LocalDateTime.now();
+        trendingService.persist();
+
+        for (int i = 0; i < 3; i++) {
+            trendingService.recordView(first, now);
+        }
+        trendingService.recordView(second, now);
+        trendingService.recordView(third, now.minusDays(8));
+        assertThat(trendingService.topIds(5)).containsExactly(first, second);
+
+        assertThat(trendingService.persist()).isEqualTo(2);
+        assertThat(flagged()).containsExactlyInAnyOrder(first, second);
+        assertThat(storedScore(first)).isCloseTo(3.0, within(0.01));
+        assertThat(trendingService.persist()).isZero();
+
+        // A share outweighs a view, so the third article displaces the second
+        trendingService.recordView(third, now);
+        trendingService.recordShare(third, now);
+        assertThat(trendingService.topIds(2)).containsExactly(third, first);
+        assertThat(trendingService.persist()).isEqualTo(2);
+        assertThat(flagged()).containsExactlyInAnyOrder(first, third);
+
+        List<News> trending = newsService.getTrendingNews(3);
+        assertThat(trending).extracting(News::getId).startsWith(third, first, second);
+    }
+
+    private List<Long> flagged() {
+        return jdbcTemplate.queryForList("SELECT id FROM news WHERE is_trending = TRUE", Long.class);
+    }
+
+    private double storedScore(long id) {
+        return jdbcTemplate.queryForObject("SELECT trending_score FROM news WHERE id = ?", Double.class, id);
+    }
+}
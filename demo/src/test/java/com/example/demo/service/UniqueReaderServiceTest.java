@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.stats.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "news.readers.flush-interval=3600000")
+class UniqueReaderServiceTest {
+
+    @Autowired
+    private UniqueReaderService uniqueReaderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatReadsCountOnceAndFlushesMergeIntoTheStoredSketch() {
+        Long newsId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM news", Long.class);
+        for (int refresh = 0; refresh < 5; refresh++) {
+            for (int reader = 0; reader < 200; reader++) {
+                uniqueReaderService.recordRead(newsId, "c:reader-" + reader);
+            }
+        }
+        assertThat(uniqueReaderService.uniqueReaders(newsId, 7)).isBetween(195L, 205L);
+        assertThat(storedUniqueReaders(newsId)).isZero();
+
+        uniqueReaderService.flush();
+        long flushed = storedUniqueReaders(newsId);
+        assertThat(flushed).isBetween(195L, 205L);
+
+        // Already-counted readers leave the row alone; new ones are merged into it
+        for (int reader = 150; reader < 300; reader++) {
+            uniqueReaderService.recordRead(newsId, "c:reader-" + reader);
+        }
+        uniqueReaderService.flush();
+        assertThat(storedUniqueReaders(newsId)).isBetween(290L, 310L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_readers WHERE news_id = ?",
+                Integer.class, newsId)).isEqualTo(1);
+    }
+
+    @Test
+    void daysLeavingTheWindowAreTakenOffArticlesNobodyReadsAnyMore() {
+        Long newsId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM news", Long.class);
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int reader = 0; reader < 100; reader++) {
+            sketch.add(HyperLogLog.hash("c:reader-" + reader));
+        }
+        // Read seven days ago: counted then, but outside the seven day window that includes today
+        jdbcTemplate.update("INSERT INTO news_readers (news_id, read_date, sketch) VALUES (?, ?, ?)",
+                newsId, Date.valueOf(LocalDate.now().minusDays(7)), sketch.toBytes());
+        jdbcTemplate.update("UPDATE news SET unique_readers = 100 WHERE id = ?", newsId);
+
+        uniqueReaderService.refreshExpiredWindows();
+        assertThat(storedUniqueReaders(newsId)).isZero();
+    }
+
+    private long storedUniqueReaders(Long newsId) {
+        return jdbcTemplate.queryForObject("SELECT unique_readers FROM news WHERE id = ?", Long.class, newsId);
+    }
+}
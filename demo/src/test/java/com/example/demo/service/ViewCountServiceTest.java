@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "news.views.flush-interval=3600000")
+class ViewCountServiceTest {
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentViewsAreWrittenBehindExactlyOnce() throws Exception {
+        Long newsId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM news", Long.class);
+        viewCountService.flush();
+        long stored = storedViews(newsId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        newsService.incrementViewCount(newsId);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(storedViews(newsId)).isEqualTo(stored);
+        assertThat(newsService.getViewCount(newsService.getNewsById(newsId))).isEqualTo(stored + 8_000);
+
+        viewCountService.flush();
+        assertThat(storedViews(newsId)).isEqualTo(stored + 8_000);
+        assertThat(viewCountService.pendingViews(newsId)).isZero();
+        // The cached entity was evicted, so reads see the flushed count rather than a stale one
+        assertThat(newsService.getViewCount(newsService.getNewsById(newsId))).isEqualTo(stored + 8_000);
+
+        // An idle counter is retired on one flush and dropped on the next without losing views
+        viewCountService.flush();
+        newsService.incrementViewCount(newsId);
+        viewCountService.flush();
+        viewCountService.flush();
+        assertThat(storedViews(newsId)).isEqualTo(stored + 8_001);
+    }
+
+    @Test
+    void viewsBeingWrittenStillCountUntilTheUpdateCommits() throws Exception {
+        Long newsId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM news", Long.class);
+        viewCountService.flush();
+        long stored = storedViews(newsId);
+        for (int i = 0; i < 10; i++) {
+            newsService.incrementViewCount(newsId);
+        }
+
+        // Holding the row lock keeps the flush's update waiting, mid-flush
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM news WHERE id = ? FOR UPDATE", newsId);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+            Future<?> flush = executor.submit(viewCountService::flush);
+            Thread.sleep(200);
+
+            assertThat(flush.isDone()).isFalse();
+            assertThat(viewCountService.pendingViews(newsId)).isEqualTo(10);
+            release.countDown();
+            holder.get();
+            flush.get();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(storedViews(newsId)).isEqualTo(stored + 10);
+        assertThat(viewCountService.pendingViews(newsId)).isZero();
+    }
+
+    private long storedViews(Long newsId) {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM news WHERE id = ?", Long.class, newsId);
+    }
+}
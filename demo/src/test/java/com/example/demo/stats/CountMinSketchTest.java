@@ -0,0 +1,27 @@
+package com.example.demo.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (long id = 0; id < 10_000; id++) {
+            sketch.add(id, (int) (id % 7) + 1);
+        }
+        long bound = (long) Math.ceil(Math.E / 1024 * sketch.total());
+        int over = 0;
+        for (long id = 0; id < 10_000; id++) {
+            long estimate = sketch.estimate(id);
+            assertThat(estimate).isGreaterThanOrEqualTo(id % 7 + 1);
+            if (estimate - (id % 7 + 1) > bound) {
+                over++;
+            }
+        }
+        // At most e^-depth of ids may exceed the bound
+        assertThat(over).isLessThan(10_000 / 50);
+    }
+}
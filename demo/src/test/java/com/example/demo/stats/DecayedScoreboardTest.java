@@ -0,0 +1,64 @@
+package com.example.demo.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayedScoreboardTest {
+
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    void scoresHalveEveryHalfLifeAndRecentEventsWin() {
+        DecayedScoreboard board = new DecayedScoreboard(HOUR, 0);
+        for (int i = 0; i < 8; i++) {
+            board.add(1, 1, 0);
+        }
+        board.add(2, 5, 2 * HOUR);
+
+        assertThat(board.score(1, 2 * HOUR)).isCloseTo(2, within(1e-9));
+        assertThat(board.score(2, 2 * HOUR)).isCloseTo(5, within(1e-9));
+        assertThat(ids(board.top(10, 2 * HOUR, id -> true))).containsExactly(2L, 1L);
+        assertThat(ids(board.top(1, 2 * HOUR, id -> id != 2))).containsExactly(1L);
+        assertThat(board.score(3, 0)).isZero();
+    }
+
+    @Test
+    void prunesDecayedScoresAndReportsChangesOnce() {
+        DecayedScoreboard board = new DecayedScoreboard(HOUR, 0);
+        board.add(1, 1, 0);
+        board.add(2, 1, 5 * HOUR);
+        assertThat(board.drainChanged()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(board.drainChanged()).isEmpty();
+
+        // Item 1 is at 1/32 by now, item 2 still at 1
+        assertThat(board.prune(0.05, 5 * HOUR)).isEqualTo(1);
+        assertThat(board.size()).isEqualTo(1);
+        board.remove(2);
+        assertThat(board.top(5, 5 * HOUR, id -> true)).isEmpty();
+    }
+
+    @Test
+    void rescalesWithoutChangingScoresOrOrder() {
+        DecayedScoreboard board = new DecayedScoreboard(HOUR, 0);
+        board.add(1, 100, 0);
+        board.add(2, 3, 20 * HOUR);
+        // Far enough ahead that the next add moves the landmark
+        long later = 70 * HOUR;
+        board.add(3, 1, later);
+
+        assertThat(board.score(1, later)).isCloseTo(100 * Math.pow(2, -70), within(1e-20));
+        assertThat(board.score(2, later)).isCloseTo(3 * Math.pow(2, -50), within(1e-16));
+        assertThat(ids(board.top(3, later, id -> true))).containsExactly(3L, 2L, 1L);
+
+        board.restore(4, 2, later - HOUR);
+        assertThat(board.score(4, later)).isCloseTo(1, within(1e-9));
+    }
+
+    private static List<Long> ids(List<DecayedScoreboard.Score> scores) {
+        return scores.stream().map(DecayedScoreboard.Score::id).toList();
+    }
+}
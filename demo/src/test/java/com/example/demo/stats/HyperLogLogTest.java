@@ -0,0 +1,63 @@
+package com.example.demo.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesDistinctItemsIgnoringRepeats() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+            for (int repeat = 0; repeat < 3; repeat++) {
+                for (int i = 0; i < distinct; i++) {
+                    sketch.add(HyperLogLog.hash("reader-" + i));
+                }
+            }
+            // Standard error is 1.6%; four of them is a comfortable bound
+            assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * 0.065)));
+        }
+    }
+
+    @Test
+    void mergesAsAUnionAndIdempotently() {
+        HyperLogLog monday = new HyperLogLog(12);
+        HyperLogLog tuesday = new HyperLogLog(12);
+        for (int i = 0; i < 20_000; i++) {
+            monday.add(HyperLogLog.hash("reader-" + i));
+            tuesday.add(HyperLogLog.hash("reader-" + (i + 10_000)));
+        }
+
+        HyperLogLog week = monday.copy();
+        week.merge(tuesday);
+        long union = week.estimate();
+        week.merge(tuesday);
+        week.merge(monday);
+
+        assertThat((double) union).isCloseTo(30_000, within(30_000 * 0.065));
+        assertThat(week.estimate()).isEqualTo(union);
+    }
+
+    @Test
+    void serialisesSparselyUntilDenseIsSmaller() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        assertThat(sketch.isEmpty()).isTrue();
+        for (int i = 0; i < 50; i++) {
+            sketch.add(HyperLogLog.hash("reader-" + i));
+        }
+        byte[] sparse = sketch.toBytes();
+        assertThat(sparse.length).isLessThan(200);
+        assertThat(HyperLogLog.fromBytes(sparse).estimate()).isEqualTo(sketch.estimate());
+
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(HyperLogLog.hash("reader-" + i));
+        }
+        byte[] dense = sketch.toBytes();
+        assertThat(dense.length).isEqualTo(3 + 4096);
+        HyperLogLog restored = HyperLogLog.fromBytes(dense);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.precision()).isEqualTo(12);
+    }
+}
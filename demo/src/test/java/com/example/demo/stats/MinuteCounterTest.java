@@ -0,0 +1,49 @@
+package com.example.demo.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinuteCounterTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long START = 29_000_000 * MINUTE;
+
+    @Test
+    void countsPerMinuteAndForgetsMinutesOlderThanADay() {
+        MinuteCounter counter = new MinuteCounter();
+        counter.increment(START);
+        counter.increment(START + 30_000);
+        counter.increment(START + 2 * MINUTE);
+
+        assertThat(counter.series(3, START + 2 * MINUTE)).containsExactly(2, 0, 1);
+        assertThat(counter.sum(1, START + 2 * MINUTE)).isEqualTo(1);
+        assertThat(counter.sum(60, START + 2 * MINUTE)).isEqualTo(3);
+
+        // The same slot a day later starts again from zero
+        long nextDay = START + MinuteCounter.MINUTES * MINUTE;
+        counter.increment(nextDay);
+        assertThat(counter.series(1, nextDay)).containsExactly(1);
+        assertThat(counter.sum(MinuteCounter.MINUTES, nextDay)).isEqualTo(2);
+    }
+
+    @Test
+    void losesNoIncrementsUnderContention() throws InterruptedException {
+        MinuteCounter counter = new MinuteCounter();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment(START + (i % 2) * MINUTE);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(counter.series(2, START + MINUTE)).containsExactly(40_000, 40_000);
+    }
+}
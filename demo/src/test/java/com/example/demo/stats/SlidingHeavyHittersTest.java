@@ -0,0 +1,44 @@
+package com.example.demo.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingHeavyHittersTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long START = 1_000 * 60 * MINUTE;
+
+    @Test
+    void ranksIdsByViewsWithinTheWindowOnly() {
+        SlidingHeavyHitters hitters = new SlidingHeavyHitters(1024, 4, 16);
+        // Id 1 was big two hours ago, id 2 over the last half hour, id 3 in the last five minutes
+        add(hitters, 1, 50, START);
+        add(hitters, 2, 20, START + 90 * MINUTE);
+        add(hitters, 3, 10, START + 116 * MINUTE);
+        long now = START + 120 * MINUTE;
+        for (long id = 100; id < 1_000; id++) {
+            hitters.add(id, now);
+        }
+
+        assertThat(ids(hitters.top(Duration.ofMinutes(10), 1, now))).containsExactly(3L);
+        assertThat(ids(hitters.top(Duration.ofHours(1), 2, now))).containsExactly(2L, 3L);
+        assertThat(ids(hitters.top(Duration.ofHours(24), 3, now))).containsExactly(1L, 2L, 3L);
+        assertThat(hitters.top(Duration.ofHours(24), 1, now).get(0).count()).isGreaterThanOrEqualTo(50);
+        // A day later everything has slid out
+        assertThat(hitters.top(Duration.ofHours(24), 3, now + 25 * 60 * MINUTE)).isEmpty();
+    }
+
+    private static void add(SlidingHeavyHitters hitters, long id, int views, long at) {
+        for (int i = 0; i < views; i++) {
+            hitters.add(id, at);
+        }
+    }
+
+    private static List<Long> ids(List<SlidingHeavyHitters.Count> counts) {
+        return counts.stream().map(SlidingHeavyHitters.Count::id).toList();
+    }
+}